@@ -0,0 +1,68 @@
+package com.example.demo.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// 저장/수정 upsert 가 기대는 유니크 키를 기동 시 보장
+// ddl-auto=update 는 기존 중복 행(예전 조회 후 저장 경쟁으로 생긴) 때문에 ALTER 가 실패해도 로그만 남기므로,
+// 중복을 정리(가장 최근 id 만 유지)한 뒤 키를 추가하고, 그래도 없으면 기동을 중단
+// 웹 서버가 요청을 받기 전(빈 초기화 중)에 실행, EntityManagerFactory 를 받아 스키마 갱신 이후에 실행되게 함
+@Component
+public class UniqueKeyMigration implements InitializingBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(UniqueKeyMigration.class);
+
+    private record UniqueKey(String table, String name, String columns) {
+    }
+
+    private static final UniqueKey[] KEYS = {
+            new UniqueKey("exercise_records", "uk_exercise_records_user_date", "user_id, record_date"),
+            new UniqueKey("routine_checks", "uk_routine_checks_user_date_type", "user_id, check_date, routine_type")
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UniqueKeyMigration(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        for (UniqueKey key : KEYS) {
+            ensure(key);
+        }
+    }
+
+    private void ensure(UniqueKey key) {
+        if (exists(key)) {
+            return;
+        }
+        logger.warn("⚠️ 유니크 키 없음 - {}.{}, 중복 행 정리 후 추가", key.table(), key.name());
+
+        // 같은 키의 행 중 id 가 가장 큰 행만 남김
+        StringBuilder join = new StringBuilder();
+        for (String column : key.columns().split(",\\s*")) {
+            join.append(" AND k.").append(column).append(" = d.").append(column);
+        }
+        int deleted = jdbcTemplate.update("DELETE d FROM " + key.table() + " d JOIN " + key.table() + " k ON k.id > d.id" + join);
+        logger.info("🧹 중복 행 정리 - {}: {}건 삭제", key.table(), deleted);
+
+        jdbcTemplate.execute("ALTER TABLE " + key.table() + " ADD CONSTRAINT " + key.name() + " UNIQUE (" + key.columns() + ")");
+        if (!exists(key)) {
+            throw new IllegalStateException("유니크 키를 만들지 못했습니다: " + key.table() + "." + key.name());
+        }
+        logger.info("✅ 유니크 키 추가 완료 - {}.{}", key.table(), key.name());
+    }
+
+    private boolean exists(UniqueKey key) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.statistics " +
+                "WHERE table_schema = DATABASE() AND table_name = ? AND index_name = ? AND non_unique = 0",
+                Integer.class, key.table(), key.name());
+        return count != null && count > 0;
+    }
+}
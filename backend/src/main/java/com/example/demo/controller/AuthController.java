@@ -6,6 +6,7 @@ import com.example.demo.dto.SignupRequest;
 import com.example.demo.dto.SignupResponse;
 import com.example.demo.entity.User;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.service.UserSearchIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
@@ -22,10 +23,12 @@ public class AuthController {
 
     private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
     private final UserRepository userRepository;
+    private final UserSearchIndex userSearchIndex;
 
     // Spring 4.3+ 부터 생성자가 하나면 @Autowired 생략 가능 (최신 베스트 프랙티스)
-    public AuthController(UserRepository userRepository) {
+    public AuthController(UserRepository userRepository, UserSearchIndex userSearchIndex) {
         this.userRepository = userRepository;
+        this.userSearchIndex = userSearchIndex;
     }
 
     @PostMapping("/login")
@@ -119,6 +122,7 @@ public class AuthController {
             newUser.setGender(request.getGender());
 
             User savedUser = userRepository.save(newUser);
+            userSearchIndex.add(savedUser);
             logger.info("✅ 회원가입 성공 - userId: {}, username: {}", savedUser.getId(), savedUser.getUsername());
 
             response.setSuccess(true);
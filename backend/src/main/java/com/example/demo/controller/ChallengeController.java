@@ -2,20 +2,27 @@ package com.example.demo.controller;
 
 import com.example.demo.dto.*;
 import com.example.demo.entity.Challenge;
-import com.example.demo.entity.ExerciseRecord;
+import com.example.demo.entity.ChallengeSnapshot;
 import com.example.demo.repository.ChallengeRepository;
-import com.example.demo.repository.ExerciseRecordRepository;
+import com.example.demo.service.ChallengeLeaderboardService;
+import com.example.demo.service.SharedChallengeDetailService;
+import com.example.demo.service.ChallengeProgressService;
+import com.example.demo.service.ChallengeSnapshotService;
+import com.example.demo.service.UserDataVersionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDate;
-import java.util.ArrayList;
+import java.time.format.DateTimeParseException;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/challenges")
@@ -23,12 +30,32 @@ import java.util.stream.Collectors;
 public class ChallengeController {
 
     private static final Logger logger = LoggerFactory.getLogger(ChallengeController.class);
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int DEFAULT_LEADERBOARD_SIZE = 10;
+    private static final String ACTIVE = "active";
+    private static final String UPCOMING = "upcoming";
+    private static final String PAST = "past";
     private final ChallengeRepository challengeRepository;
-    private final ExerciseRecordRepository exerciseRecordRepository;
+    private final UserDataVersionService userDataVersionService;
+    private final ChallengeProgressService challengeProgressService;
+    private final ChallengeSnapshotService challengeSnapshotService;
+    private final ChallengeLeaderboardService challengeLeaderboardService;
+    private final SharedChallengeDetailService sharedChallengeDetailService;
 
-    public ChallengeController(ChallengeRepository challengeRepository, ExerciseRecordRepository exerciseRecordRepository) {
+    public ChallengeController(
+            ChallengeRepository challengeRepository,
+            UserDataVersionService userDataVersionService,
+            ChallengeProgressService challengeProgressService,
+            ChallengeSnapshotService challengeSnapshotService,
+            ChallengeLeaderboardService challengeLeaderboardService,
+            SharedChallengeDetailService sharedChallengeDetailService) {
         this.challengeRepository = challengeRepository;
-        this.exerciseRecordRepository = exerciseRecordRepository;
+        this.userDataVersionService = userDataVersionService;
+        this.challengeProgressService = challengeProgressService;
+        this.challengeSnapshotService = challengeSnapshotService;
+        this.challengeLeaderboardService = challengeLeaderboardService;
+        this.sharedChallengeDetailService = sharedChallengeDetailService;
     }
 
     // 챌린지 생성
@@ -56,8 +83,13 @@ public class ChallengeController {
             
             Challenge savedChallenge = challengeRepository.save(challenge);
             logger.info("✅ 챌린지 생성 완료 - id: {}", savedChallenge.getId());
+            // 기간 내 이미 있는 기록으로 진행상황 생성 (이후로는 기록 저장 시 증분 갱신)
+            challengeProgressService.rebuild(savedChallenge);
+            userDataVersionService.bump(userId);
             
-            ChallengeResponse response = convertToResponse(savedChallenge);
+            // 목록/상세와 같은 쿼리 기준으로 진행중 여부 계산
+            ChallengeResponse response = challengeRepository.findResponseById(savedChallenge.getId(), LocalDate.now())
+                    .orElseThrow();
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
             
         } catch (Exception e) {
@@ -69,7 +101,8 @@ public class ChallengeController {
     // 모든 챌린지 조회
     @GetMapping
     public ResponseEntity<List<ChallengeResponse>> getAllChallenges(
-            @RequestHeader(value = "X-User-Id", required = false) Long userId) {
+            @RequestHeader(value = "X-User-Id", required = false) Long userId,
+            WebRequest webRequest) {
         
         if (userId == null) {
             userId = 1L;
@@ -77,12 +110,56 @@ public class ChallengeController {
         
         logger.info("📋 모든 챌린지 조회 - userId: {}", userId);
         
-        List<Challenge> challenges = challengeRepository.findByUserIdOrderByStartDateDesc(userId);
-        List<ChallengeResponse> responses = challenges.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        // 진행중 여부가 날짜에 따라 바뀌므로 오늘 날짜도 ETag 에 포함
+        LocalDate today = LocalDate.now();
+        String etag = userDataVersionService.etag(userId, "challenges", today);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
         
-        return ResponseEntity.ok(responses);
+        List<ChallengeResponse> responses = challengeRepository.findResponsesByUserId(userId, today);
+        
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy("X-User-Id")
+                .body(responses);
+    }
+
+    // 진행중인 챌린지 페이지 조회
+    @GetMapping("/active")
+    public ResponseEntity<ChallengePageResponse> getActiveChallenges(
+            @RequestParam(value = "cursorEndDate", required = false) String cursorEndDate,
+            @RequestParam(value = "cursorStartDate", required = false) String cursorStartDate,
+            @RequestParam(value = "cursorId", required = false) Long cursorId,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestHeader(value = "X-User-Id", defaultValue = "1") Long userId,
+            WebRequest webRequest) {
+        return getChallengePage(ACTIVE, cursorEndDate, cursorStartDate, cursorId, size, userId, webRequest);
+    }
+
+    // 시작 전인 챌린지 페이지 조회
+    @GetMapping("/upcoming")
+    public ResponseEntity<ChallengePageResponse> getUpcomingChallenges(
+            @RequestParam(value = "cursorEndDate", required = false) String cursorEndDate,
+            @RequestParam(value = "cursorStartDate", required = false) String cursorStartDate,
+            @RequestParam(value = "cursorId", required = false) Long cursorId,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestHeader(value = "X-User-Id", defaultValue = "1") Long userId,
+            WebRequest webRequest) {
+        return getChallengePage(UPCOMING, cursorEndDate, cursorStartDate, cursorId, size, userId, webRequest);
+    }
+
+    // 종료된 챌린지 페이지 조회
+    @GetMapping("/past")
+    public ResponseEntity<ChallengePageResponse> getPastChallenges(
+            @RequestParam(value = "cursorEndDate", required = false) String cursorEndDate,
+            @RequestParam(value = "cursorStartDate", required = false) String cursorStartDate,
+            @RequestParam(value = "cursorId", required = false) Long cursorId,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestHeader(value = "X-User-Id", defaultValue = "1") Long userId,
+            WebRequest webRequest) {
+        return getChallengePage(PAST, cursorEndDate, cursorStartDate, cursorId, size, userId, webRequest);
     }
 
     // 챌린지 목표 수정
@@ -115,8 +192,14 @@ public class ChallengeController {
             
             Challenge updatedChallenge = challengeRepository.save(challenge);
             logger.info("✅ 챌린지 목표 수정 완료 - id: {}", updatedChallenge.getId());
+            // 달성 여부가 바뀌므로 공유 상세, 종료된 챌린지의 스냅샷, 리더보드도 다시 생성 (메모리 캐시 제거를 먼저)
+            sharedChallengeDetailService.invalidate(updatedChallenge.getId());
+            challengeSnapshotService.invalidate(updatedChallenge.getId());
+            challengeLeaderboardService.invalidate(updatedChallenge.getId());
+            userDataVersionService.bump(userId);
             
-            ChallengeResponse response = convertToResponse(updatedChallenge);
+            ChallengeResponse response = challengeRepository.findResponseById(updatedChallenge.getId(), LocalDate.now())
+                    .orElseThrow();
             return ResponseEntity.ok(response);
             
         } catch (Exception e) {
@@ -127,9 +210,10 @@ public class ChallengeController {
 
     // 챌린지 상세 조회
     @GetMapping("/{id}")
-    public ResponseEntity<ChallengeDetailResponse> getChallengeDetail(
+    public ResponseEntity<?> getChallengeDetail(
             @PathVariable("id") Long id,
-            @RequestHeader(value = "X-User-Id", required = false) Long userId) {
+            @RequestHeader(value = "X-User-Id", required = false) Long userId,
+            WebRequest webRequest) {
         
         if (userId == null) {
             userId = 1L;
@@ -137,201 +221,162 @@ public class ChallengeController {
         
         logger.info("📅 챌린지 상세 조회 - challengeId: {}, userId: {}", id, userId);
         
-        Challenge challenge = challengeRepository.findById(id != null ? id : 0L)
+        // 오늘 이후 기록 제외 / 진행중 여부가 날짜에 따라 바뀌므로 오늘 날짜도 ETag 에 포함
+        LocalDate today = LocalDate.now();
+        String etag = userDataVersionService.etag(userId, "challenge", id, today);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        
+        // 종료된 챌린지는 스냅샷(JSON)을 그대로 응답
+        Optional<ChallengeSnapshot> snapshot = challengeSnapshotService.find(id != null ? id : 0L);
+        if (snapshot.isPresent()) {
+            if (!snapshot.get().getUserId().equals(userId)) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .varyBy("X-User-Id")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(snapshot.get().getPayload());
+        }
+        
+        ChallengeResponse challenge = challengeRepository.findResponseById(id != null ? id : 0L, today)
                 .orElse(null);
         
         if (challenge == null || !challenge.getUserId().equals(userId)) {
             return ResponseEntity.notFound().build();
         }
         
-        ChallengeDetailResponse response = new ChallengeDetailResponse();
-        response.setChallenge(convertToResponse(challenge));
-        
-        // 기간 내 운동 기록 조회
-        List<ExerciseRecord> records = exerciseRecordRepository
-                .findByUserIdAndRecordDateBetween(userId, challenge.getStartDate(), challenge.getEndDate());
+        ChallengeDetailResponse response = challengeProgressService.buildDetail(challenge, today);
         
-        Map<LocalDate, ExerciseRecord> recordMap = records.stream()
-                .collect(Collectors.toMap(ExerciseRecord::getRecordDate, r -> r));
-        
-        // 일별 진행상황 생성 - 기록이 있는 날짜만, 오늘 이후 날짜는 제외
-        List<ChallengeDetailResponse.DailyProgress> dailyProgress = new ArrayList<>();
-        LocalDate today = LocalDate.now();
-        LocalDate endDate = challenge.getEndDate();
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy("X-User-Id")
+                .body(response);
+    }
+
+    // 챌린지 리더보드 조회 (소유자 + 공유를 수락한 사용자만)
+    @GetMapping("/{id}/leaderboard")
+    public ResponseEntity<ChallengeLeaderboardResponse> getLeaderboard(
+            @PathVariable("id") Long id,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestHeader(value = "X-User-Id", required = false) Long userId) {
         
-        // 오늘 이후 날짜는 제외하고, 기록이 있는 날짜만 추가
-        for (Map.Entry<LocalDate, ExerciseRecord> entry : recordMap.entrySet()) {
-            LocalDate recordDate = entry.getKey();
-            
-            // 오늘 이후 날짜는 제외
-            if (recordDate.isAfter(today)) {
-                continue;
-            }
-            
-            // 챌린지 기간 내의 기록만 포함
-            if (recordDate.isBefore(challenge.getStartDate()) || recordDate.isAfter(endDate)) {
-                continue;
-            }
-            
-            ExerciseRecord record = entry.getValue();
-            
-            // 실제 데이터가 있는지 확인 (모든 필드가 null이면 제외)
-            if (record.getWeight() == null && 
-                record.getBodyFatPercentage() == null && 
-                record.getMuscleMass() == null && 
-                record.getExerciseDuration() == null) {
-                continue;
-            }
-            
-            ChallengeDetailResponse.DailyProgress progress = new ChallengeDetailResponse.DailyProgress();
-            progress.setDate(recordDate);
-            
-            progress.setWeight(record.getWeight());
-            progress.setBodyFatPercentage(record.getBodyFatPercentage());
-            progress.setMuscleMass(record.getMuscleMass());
-            progress.setExerciseDuration(record.getExerciseDuration());
-            
-            // 성공 여부 판단
-            // 체중: 감량 목표 (낮아야 성공) - higherIsBetter = false
-            progress.setWeightSuccess(checkSuccess(progress.getWeight(), challenge.getTargetWeight(), false));
-            // 체지방률: 감량 목표 (낮아야 성공) - higherIsBetter = false
-            progress.setBodyFatSuccess(checkSuccess(progress.getBodyFatPercentage(), challenge.getTargetBodyFatPercentage(), false));
-            // 근육량: 증가 목표 (높아야 성공) - higherIsBetter = true
-            progress.setMuscleMassSuccess(checkSuccess(progress.getMuscleMass(), challenge.getTargetMuscleMass(), true));
-            // 운동시간: 목표보다 많이 (높아야 성공) - higherIsBetter = true
-            progress.setExerciseDurationSuccess(checkSuccess(progress.getExerciseDuration() != null ? progress.getExerciseDuration().doubleValue() : null, 
-                    challenge.getTargetExerciseDuration() != null ? challenge.getTargetExerciseDuration().doubleValue() : null, true));
-            
-            dailyProgress.add(progress);
+        if (userId == null) {
+            userId = 1L;
         }
         
-        // 날짜순으로 정렬 (오래된 날짜부터)
-        dailyProgress.sort((a, b) -> a.getDate().compareTo(b.getDate()));
-        
-        response.setDailyProgress(dailyProgress);
-        
-        // 전체 진행상황 계산 - 마지막날 기록과 목표 비교
-        ChallengeDetailResponse.OverallProgress overall = new ChallengeDetailResponse.OverallProgress();
-        overall.setTotalDays(dailyProgress.size());
+        int topSize = limit == null ? DEFAULT_LEADERBOARD_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        logger.info("🏆 챌린지 리더보드 조회 - challengeId: {}, userId: {}, limit: {}", id, userId, topSize);
         
-        // 마지막날 기록 찾기 (이미 날짜순으로 정렬되어 있으므로 마지막 요소)
-        ChallengeDetailResponse.DailyProgress lastRecord = null;
-        if (!dailyProgress.isEmpty()) {
-            lastRecord = dailyProgress.get(dailyProgress.size() - 1);
+        try {
+            return challengeLeaderboardService.getLeaderboard(id != null ? id : 0L, userId, topSize)
+                    .map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (Exception e) {
+            logger.error("❌ 챌린지 리더보드 조회 중 오류 발생", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
+    }
+
+    // 챌린지 진행상황 재생성 (불일치 복구용)
+    @PostMapping("/{id}/progress/rebuild")
+    public ResponseEntity<Void> rebuildChallengeProgress(
+            @PathVariable("id") Long id,
+            @RequestHeader(value = "X-User-Id", required = false) Long userId) {
         
-        // 운동시간은 전체 기간 동안 합산
-        int totalExerciseDuration = 0;
-        for (ChallengeDetailResponse.DailyProgress dp : dailyProgress) {
-            if (dp.getExerciseDuration() != null) {
-                totalExerciseDuration += dp.getExerciseDuration();
-            }
+        if (userId == null) {
+            userId = 1L;
         }
         
-        // 마지막날 기록과 목표 비교하여 달성률 계산
-        if (lastRecord != null) {
-            // 체중: 감량 목표 (목표보다 낮거나 같아야 함) - 달성률 = (실제 / 목표) * 100
-            // 목표 70kg, 실제 68kg → 68/70*100 = 97.14% (목표보다 낮으므로 달성)
-            // 목표 70kg, 실제 70kg → 70/70*100 = 100% (정확히 달성)
-            // 목표 70kg, 실제 72kg → 72/70*100 = 102.86% (목표보다 높으므로 미달성)
-            if (lastRecord.getWeight() != null && challenge.getTargetWeight() != null) {
-                double weightRate = (lastRecord.getWeight() / challenge.getTargetWeight()) * 100;
-                overall.setWeightSuccessRate(weightRate);
-                overall.setWeightSuccessCount(lastRecord.getWeight() <= challenge.getTargetWeight() ? 1 : 0);
-            } else {
-                overall.setWeightSuccessRate(0);
-                overall.setWeightSuccessCount(0);
-            }
+        logger.info("🔄 챌린지 진행상황 재생성 - challengeId: {}, userId: {}", id, userId);
+        
+        try {
+            Challenge challenge = challengeRepository.findById(id != null ? id : 0L)
+                    .orElse(null);
             
-            // 체지방률: 감량 목표 (목표보다 낮거나 같아야 함) - 달성률 = (실제 / 목표) * 100
-            if (lastRecord.getBodyFatPercentage() != null && challenge.getTargetBodyFatPercentage() != null) {
-                double bodyFatRate = (lastRecord.getBodyFatPercentage() / challenge.getTargetBodyFatPercentage()) * 100;
-                overall.setBodyFatSuccessRate(bodyFatRate);
-                overall.setBodyFatSuccessCount(lastRecord.getBodyFatPercentage() <= challenge.getTargetBodyFatPercentage() ? 1 : 0);
-            } else {
-                overall.setBodyFatSuccessRate(0);
-                overall.setBodyFatSuccessCount(0);
+            if (challenge == null || !challenge.getUserId().equals(userId)) {
+                return ResponseEntity.notFound().build();
             }
             
-            // 근육량: 증가 목표 (목표보다 높거나 같아야 함) - 달성률 = (실제 / 목표) * 100
-            if (lastRecord.getMuscleMass() != null && challenge.getTargetMuscleMass() != null) {
-                double muscleMassRate = (lastRecord.getMuscleMass() / challenge.getTargetMuscleMass()) * 100;
-                overall.setMuscleMassSuccessRate(muscleMassRate);
-                overall.setMuscleMassSuccessCount(lastRecord.getMuscleMass() >= challenge.getTargetMuscleMass() ? 1 : 0);
-            } else {
-                overall.setMuscleMassSuccessRate(0);
-                overall.setMuscleMassSuccessCount(0);
-            }
+            challengeProgressService.rebuild(challenge);
+            challengeSnapshotService.invalidate(challenge.getId());
+            userDataVersionService.bump(userId);
+            return ResponseEntity.noContent().build();
             
-        } else {
-            overall.setWeightSuccessRate(0);
-            overall.setBodyFatSuccessRate(0);
-            overall.setMuscleMassSuccessRate(0);
-            overall.setWeightSuccessCount(0);
-            overall.setBodyFatSuccessCount(0);
-            overall.setMuscleMassSuccessCount(0);
-        }
-        
-        // 운동시간: 전체 기간 합산과 목표 비교 - 달성률 = (실제 합계 / 목표) * 100
-        if (challenge.getTargetExerciseDuration() != null && challenge.getTargetExerciseDuration() > 0) {
-            double exerciseDurationRate = ((double) totalExerciseDuration / challenge.getTargetExerciseDuration()) * 100;
-            overall.setExerciseDurationSuccessRate(exerciseDurationRate);
-            overall.setExerciseDurationSuccessCount(totalExerciseDuration >= challenge.getTargetExerciseDuration() ? 1 : 0);
-        } else {
-            overall.setExerciseDurationSuccessRate(0);
-            overall.setExerciseDurationSuccessCount(0);
+        } catch (Exception e) {
+            logger.error("❌ 챌린지 진행상황 재생성 중 오류 발생", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
-        
-        // 기록이 있는 날짜 수는 마지막날 기록 기준으로 1로 설정 (표시용)
-        overall.setWeightRecordedDays(lastRecord != null && lastRecord.getWeight() != null ? 1 : 0);
-        overall.setBodyFatRecordedDays(lastRecord != null && lastRecord.getBodyFatPercentage() != null ? 1 : 0);
-        overall.setMuscleMassRecordedDays(lastRecord != null && lastRecord.getMuscleMass() != null ? 1 : 0);
-        overall.setExerciseDurationRecordedDays(totalExerciseDuration > 0 ? 1 : 0);
-        
-        response.setOverallProgress(overall);
-        
-        return ResponseEntity.ok(response);
     }
 
-    private boolean checkSuccess(Double actual, Double target, boolean higherIsBetter) {
-        if (actual == null || target == null) {
-            return false;
+    // (end_date, start_date, id) 키셋 페이지네이션 - 진행중 여부는 쿼리에서 계산
+    private ResponseEntity<ChallengePageResponse> getChallengePage(
+            String status, String cursorEndDate, String cursorStartDate, Long cursorId, Integer size,
+            Long userId, WebRequest webRequest) {
+        
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        logger.info("📋 챌린지 페이지 조회 - userId: {}, status: {}, cursorEndDate: {}, cursorStartDate: {}, cursorId: {}, size: {}",
+                userId, status, cursorEndDate, cursorStartDate, cursorId, pageSize);
+        
+        // 잘못되었거나 변조된 커서는 400
+        boolean first = cursorEndDate == null || cursorStartDate == null || cursorId == null;
+        LocalDate endCursor = null;
+        LocalDate startCursor = null;
+        if (!first) {
+            try {
+                endCursor = LocalDate.parse(cursorEndDate);
+                startCursor = LocalDate.parse(cursorStartDate);
+            } catch (DateTimeParseException e) {
+                logger.warn("❌ 챌린지 페이지 커서 오류: {}", e.getMessage());
+                return ResponseEntity.badRequest().build();
+            }
         }
         
-        if (higherIsBetter) {
-            return actual >= target;
-        } else {
-            return actual <= target;
-        }
-    }
-
-    private ChallengeResponse convertToResponse(Challenge challenge) {
-        ChallengeResponse response = new ChallengeResponse();
-        response.setId(challenge.getId());
-        response.setUserId(challenge.getUserId());
-        response.setName(challenge.getName());
-        response.setStartDate(challenge.getStartDate());
-        response.setEndDate(challenge.getEndDate());
-        response.setTargetWeight(challenge.getTargetWeight());
-        response.setTargetBodyFatPercentage(challenge.getTargetBodyFatPercentage());
-        response.setTargetMuscleMass(challenge.getTargetMuscleMass());
-        response.setTargetExerciseDuration(challenge.getTargetExerciseDuration());
-        response.setCreatedAt(challenge.getCreatedAt());
-        response.setUpdatedAt(challenge.getUpdatedAt());
-        
-        // 진행중인 챌린지: 시작일 <= 오늘 <= 종료일 (종료일 당일 포함)
         LocalDate today = LocalDate.now();
-        // 시작일 체크: 오늘이 시작일과 같거나 이후
-        boolean afterOrEqualStart = !today.isBefore(challenge.getStartDate());
-        // 종료일 체크: 오늘이 종료일과 같거나 이전 (종료일 당일 포함)
-        boolean beforeOrEqualEnd = !today.isAfter(challenge.getEndDate());
-        boolean isActive = afterOrEqualStart && beforeOrEqualEnd;
-        response.setActive(isActive);
+        String etag = userDataVersionService.etag(userId, "challenges", status, today,
+                cursorEndDate, cursorStartDate, cursorId, pageSize);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        
+        // 다음 페이지 존재 여부 확인을 위해 한 건 더 조회
+        Limit limit = Limit.of(pageSize + 1);
+        List<ChallengeResponse> challenges = switch (status) {
+            case ACTIVE -> first
+                    ? challengeRepository.findActivePage(userId, today, limit)
+                    : challengeRepository.findActivePageAfterCursor(userId, today, endCursor, startCursor, cursorId, limit);
+            case UPCOMING -> first
+                    ? challengeRepository.findUpcomingPage(userId, today, limit)
+                    : challengeRepository.findUpcomingPageAfterCursor(userId, today, endCursor, startCursor, cursorId, limit);
+            default -> first
+                    ? challengeRepository.findPastPage(userId, today, limit)
+                    : challengeRepository.findPastPageAfterCursor(userId, today, endCursor, startCursor, cursorId, limit);
+        };
+        
+        boolean hasNext = challenges.size() > pageSize;
+        if (hasNext) {
+            challenges = challenges.subList(0, pageSize);
+        }
         
-        logger.info("챌린지 활성 상태 확인 - name: {}, startDate: {}, endDate: {}, today: {}, isActive: {}", 
-                     challenge.getName(), challenge.getStartDate(), challenge.getEndDate(), today, isActive);
+        ChallengePageResponse response = new ChallengePageResponse();
+        response.setChallenges(challenges);
+        response.setHasNext(hasNext);
+        if (hasNext) {
+            ChallengeResponse last = challenges.get(challenges.size() - 1);
+            response.setNextCursorEndDate(last.getEndDate());
+            response.setNextCursorStartDate(last.getStartDate());
+            response.setNextCursorId(last.getId());
+        }
         
-        return response;
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy("X-User-Id")
+                .body(response);
     }
 }
 
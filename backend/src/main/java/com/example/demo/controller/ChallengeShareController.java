@@ -3,29 +3,36 @@ package com.example.demo.controller;
 import com.example.demo.dto.*;
 import com.example.demo.entity.Challenge;
 import com.example.demo.entity.ChallengeShare;
-import com.example.demo.entity.ExerciseRecord;
 import com.example.demo.entity.User;
 import com.example.demo.repository.ChallengeRepository;
 import com.example.demo.repository.ChallengeShareRepository;
-import com.example.demo.repository.ExerciseRecordRepository;
 import com.example.demo.repository.UserRepository;
-import com.example.demo.repository.RoutineRepository;
-import com.example.demo.repository.RoutineCheckRepository;
-import com.example.demo.entity.Routine;
-import com.example.demo.entity.RoutineCheck;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.demo.service.ChallengeLeaderboardService;
+import com.example.demo.service.ShareEventService;
+import com.example.demo.service.SharedChallengeDetailService;
+import com.example.demo.service.UserDataVersionService;
+import com.example.demo.service.UserSearchIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 @RestController
@@ -34,71 +41,85 @@ import java.util.stream.Collectors;
 public class ChallengeShareController {
 
     private static final Logger logger = LoggerFactory.getLogger(ChallengeShareController.class);
+    private static final int DEFAULT_SEARCH_SIZE = 20;
+    private static final int MAX_SEARCH_SIZE = 100;
     private final ChallengeShareRepository challengeShareRepository;
     private final ChallengeRepository challengeRepository;
     private final UserRepository userRepository;
-    private final ExerciseRecordRepository exerciseRecordRepository;
-    private final RoutineRepository routineRepository;
-    private final RoutineCheckRepository routineCheckRepository;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final UserDataVersionService userDataVersionService;
+    private final ChallengeLeaderboardService challengeLeaderboardService;
+    private final UserSearchIndex userSearchIndex;
+    private final SharedChallengeDetailService sharedChallengeDetailService;
+    private final ShareEventService shareEventService;
 
     public ChallengeShareController(
             ChallengeShareRepository challengeShareRepository,
             ChallengeRepository challengeRepository,
             UserRepository userRepository,
-            ExerciseRecordRepository exerciseRecordRepository,
-            RoutineRepository routineRepository,
-            RoutineCheckRepository routineCheckRepository) {
+            UserDataVersionService userDataVersionService,
+            ChallengeLeaderboardService challengeLeaderboardService,
+            UserSearchIndex userSearchIndex,
+            SharedChallengeDetailService sharedChallengeDetailService,
+            ShareEventService shareEventService) {
         this.challengeShareRepository = challengeShareRepository;
         this.challengeRepository = challengeRepository;
         this.userRepository = userRepository;
-        this.exerciseRecordRepository = exerciseRecordRepository;
-        this.routineRepository = routineRepository;
-        this.routineCheckRepository = routineCheckRepository;
+        this.userDataVersionService = userDataVersionService;
+        this.challengeLeaderboardService = challengeLeaderboardService;
+        this.userSearchIndex = userSearchIndex;
+        this.sharedChallengeDetailService = sharedChallengeDetailService;
+        this.shareEventService = shareEventService;
     }
 
-    // 사용자 검색 (ID 또는 username으로)
+    // 사용자 검색 (ID 또는 username/이름으로)
+    // 숫자면 기본 키 조회, 그 외에는 메모리 검색 인덱스 (id 순, cursor = 이전 페이지 마지막 id)
     @GetMapping("/users/search")
     public ResponseEntity<List<UserSearchResponse>> searchUsers(
             @RequestParam(value = "query", required = false) String query,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "cursor", required = false) Long cursor,
             @RequestHeader(value = "X-User-Id", required = false) Long currentUserId) {
         
         final Long finalUserId = currentUserId != null ? currentUserId : 1L;
+        int pageSize = limit == null || limit <= 0 ? DEFAULT_SEARCH_SIZE : Math.min(limit, MAX_SEARCH_SIZE);
 
-        logger.info("🔍 사용자 검색 - query: {}, currentUserId: {}", query, finalUserId);
-
-        List<User> users;
-        if (query == null || query.trim().isEmpty()) {
-            // 검색어가 없으면 모든 사용자 반환 (자신 제외)
-            users = userRepository.findAll().stream()
-                    .filter(u -> !u.getId().equals(finalUserId))
-                    .collect(Collectors.toList());
-        } else {
-            // ID 또는 username으로 검색
-            try {
-                Long userId = Long.parseLong(query);
-                users = userRepository.findAll().stream()
-                        .filter(u -> u.getId().equals(userId) && !u.getId().equals(finalUserId))
-                        .collect(Collectors.toList());
-            } catch (NumberFormatException e) {
-                // username으로 검색
-                users = userRepository.findByUsernameContainingIgnoreCase(query).stream()
-                        .filter(u -> !u.getId().equals(finalUserId))
-                        .collect(Collectors.toList());
+        logger.info("🔍 사용자 검색 - query: {}, currentUserId: {}, cursor: {}", query, finalUserId, cursor);
+
+        // 검색어가 없으면 빈 목록 (전체 사용자 조회 방지)
+        String trimmed = query == null ? "" : query.trim();
+        if (trimmed.isEmpty()) {
+            return ResponseEntity.ok(List.of());
+        }
+        try {
+            Long userId = Long.parseLong(trimmed);
+            if (userId.equals(finalUserId) || (cursor != null && userId <= cursor)) {
+                return ResponseEntity.ok(List.of());
             }
+            return ResponseEntity.ok(userRepository.findById(userId)
+                    .map(u -> List.of(toSearchResponse(u)))
+                    .orElse(List.of()));
+        } catch (NumberFormatException e) {
+            // username/이름 검색
         }
 
-        List<UserSearchResponse> responses = users.stream()
-                .map(u -> {
-                    UserSearchResponse response = new UserSearchResponse();
-                    response.setId(u.getId());
-                    response.setUsername(u.getUsername());
-                    response.setName(u.getName());
-                    return response;
-                })
-                .collect(Collectors.toList());
+        if (!userSearchIndex.isReady()) {
+            // 기동 직후 인덱스 적재 전에만 DB 조회 (인덱스와 같은 필드, 같은 페이지 크기)
+            String pattern = "%" + trimmed.toLowerCase(Locale.ROOT)
+                    .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+            return ResponseEntity.ok(userRepository.searchByUsernameOrName(
+                            pattern, finalUserId, cursor != null ? cursor : 0L, Limit.of(pageSize)).stream()
+                    .map(this::toSearchResponse)
+                    .collect(Collectors.toList()));
+        }
+        return ResponseEntity.ok(userSearchIndex.search(trimmed, finalUserId, cursor, pageSize));
+    }
 
-        return ResponseEntity.ok(responses);
+    private UserSearchResponse toSearchResponse(User user) {
+        UserSearchResponse response = new UserSearchResponse();
+        response.setId(user.getId());
+        response.setUsername(user.getUsername());
+        response.setName(user.getName());
+        return response;
     }
 
     // 공유 요청 생성
@@ -141,11 +162,30 @@ public class ChallengeShareController {
 
         ChallengeShare saved = challengeShareRepository.save(share);
         logger.info("✅ 공유 요청 생성 완료 - id: {}", saved.getId());
+        userDataVersionService.bump(saved.getFromUserId());
+        userDataVersionService.bump(saved.getToUserId());
 
         ChallengeShareResponse response = convertToResponse(saved);
+        shareEventService.publish(ShareEventService.SHARE_CREATED, response);
         return ResponseEntity.ok(response);
     }
 
+    // 공유 요청 생성/상태 변경 실시간 구독 (SSE)
+    // 브라우저 EventSource 는 헤더를 지정할 수 없으므로 userId 쿼리 파라미터도 허용
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeShareEvents(
+            @RequestHeader(value = "X-User-Id", required = false) Long userId,
+            @RequestParam(value = "userId", required = false) Long userIdParam,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            @RequestParam(value = "lastEventId", required = false) String lastEventIdParam) {
+        
+        if (userId == null) {
+            userId = userIdParam != null ? userIdParam : 1L;
+        }
+
+        return shareEventService.subscribe(userId, lastEventId != null ? lastEventId : lastEventIdParam);
+    }
+
     // 받은 공유 요청 조회 (대기 중)
     @GetMapping("/received")
     public ResponseEntity<List<ChallengeShareResponse>> getReceivedShares(
@@ -158,9 +198,7 @@ public class ChallengeShareController {
         logger.info("📥 받은 공유 요청 조회 - userId: {}", userId);
 
         List<ChallengeShare> shares = challengeShareRepository.findByToUserIdAndStatusOrderByCreatedAtDesc(userId, "PENDING");
-        List<ChallengeShareResponse> responses = shares.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        List<ChallengeShareResponse> responses = convertToResponses(shares);
 
         return ResponseEntity.ok(responses);
     }
@@ -177,9 +215,7 @@ public class ChallengeShareController {
         logger.info("📤 보낸 공유 요청 조회 - userId: {}", userId);
 
         List<ChallengeShare> shares = challengeShareRepository.findByFromUserIdOrderByCreatedAtDesc(userId);
-        List<ChallengeShareResponse> responses = shares.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        List<ChallengeShareResponse> responses = convertToResponses(shares);
 
         return ResponseEntity.ok(responses);
     }
@@ -196,9 +232,7 @@ public class ChallengeShareController {
         logger.info("✅ 수락된 공유 조회 - userId: {}", userId);
 
         List<ChallengeShare> shares = challengeShareRepository.findByToUserIdAndStatus(userId, "ACCEPTED");
-        List<ChallengeShareResponse> responses = shares.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        List<ChallengeShareResponse> responses = convertToResponses(shares);
 
         return ResponseEntity.ok(responses);
     }
@@ -233,8 +267,15 @@ public class ChallengeShareController {
         share.setStatus(status);
         ChallengeShare saved = challengeShareRepository.save(share);
         logger.info("✅ 공유 요청 상태 변경 완료 - id: {}, status: {}", saved.getId(), saved.getStatus());
+        if ("ACCEPTED".equals(saved.getStatus())) {
+            // 참가자가 늘었으므로 리더보드 다시 생성
+            challengeLeaderboardService.invalidate(saved.getChallengeId());
+        }
+        userDataVersionService.bump(saved.getFromUserId());
+        userDataVersionService.bump(saved.getToUserId());
 
         ChallengeShareResponse response = convertToResponse(saved);
+        shareEventService.publish(ShareEventService.SHARE_STATUS, response);
         return ResponseEntity.ok(response);
     }
 
@@ -242,7 +283,8 @@ public class ChallengeShareController {
     @GetMapping("/accepted/{shareId}/detail")
     public ResponseEntity<SharedChallengeDetailResponse> getSharedChallengeDetail(
             @PathVariable("shareId") Long shareId,
-            @RequestHeader(value = "X-User-Id", required = false) Long userId) {
+            @RequestHeader(value = "X-User-Id", required = false) Long userId,
+            WebRequest webRequest) {
         
         if (userId == null) {
             userId = 1L;
@@ -260,262 +302,88 @@ public class ChallengeShareController {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
-        Challenge challenge = challengeRepository.findById(share.getChallengeId() != null ? share.getChallengeId() : 0L)
-                .orElse(null);
-        if (challenge == null) {
-            return ResponseEntity.notFound().build();
+        // 권한 확인 후, 소유자 데이터 버전이 그대로면 나머지 조회 없이 304 반환
+        String etag = userDataVersionService.etag(userId, "shared", shareId,
+                userDataVersionService.current(share.getFromUserId()), LocalDate.now());
+        if (webRequest.checkNotModified(etag)) {
+            return null;
         }
 
-        SharedChallengeDetailResponse response = new SharedChallengeDetailResponse();
-        response.setChallenge(convertChallengeToResponse(challenge));
-
-        // 원래 소유자의 운동 기록 조회
-        List<ExerciseRecord> records = exerciseRecordRepository
-                .findByUserIdAndRecordDateBetween(share.getFromUserId(), challenge.getStartDate(), challenge.getEndDate());
-
-        Map<LocalDate, ExerciseRecord> recordMap = records.stream()
-                .collect(Collectors.toMap(ExerciseRecord::getRecordDate, r -> r));
-
-        // 원래 소유자의 루틴 설정 조회
-        Optional<Routine> morningRoutineOpt = routineRepository.findByUserIdAndRoutineType(share.getFromUserId(), "MORNING");
-        Optional<Routine> eveningRoutineOpt = routineRepository.findByUserIdAndRoutineType(share.getFromUserId(), "EVENING");
-        
-        List<String> morningRoutineItems = new ArrayList<>();
-        List<String> eveningRoutineItems = new ArrayList<>();
-        
-        if (morningRoutineOpt.isPresent()) {
-            try {
-                String itemsJson = morningRoutineOpt.get().getRoutineItems();
-                if (itemsJson != null && !itemsJson.isEmpty()) {
-                    morningRoutineItems = objectMapper.readValue(itemsJson, new TypeReference<List<String>>() {});
-                }
-            } catch (Exception e) {
-                logger.error("아침루틴 파싱 오류", e);
-            }
-        }
-        
-        if (eveningRoutineOpt.isPresent()) {
-            try {
-                String itemsJson = eveningRoutineOpt.get().getRoutineItems();
-                if (itemsJson != null && !itemsJson.isEmpty()) {
-                    eveningRoutineItems = objectMapper.readValue(itemsJson, new TypeReference<List<String>>() {});
-                }
-            } catch (Exception e) {
-                logger.error("저녁루틴 파싱 오류", e);
-            }
+        // 챌린지별 캐시에 있으면 그대로, 없으면 챌린지/루틴/기록/루틴 체크를 동시에 조회해서 계산
+        Optional<SharedChallengeDetailResponse> response;
+        try {
+            response = sharedChallengeDetailService.load(share);
+        } catch (TimeoutException e) {
+            logger.warn("⏳ 공유된 챌린지 상세 조회 시간 초과 - shareId: {}", shareId);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
         }
-
-        // 챌린지 기간 동안의 루틴 체크 데이터 조회
-        List<RoutineCheck> routineChecks = routineCheckRepository
-                .findByUserIdAndCheckDateBetween(share.getFromUserId(), challenge.getStartDate(), challenge.getEndDate());
-        
-        Map<LocalDate, Map<String, RoutineCheck>> routineCheckMap = routineChecks.stream()
-                .collect(Collectors.groupingBy(
-                    RoutineCheck::getCheckDate,
-                    Collectors.toMap(RoutineCheck::getRoutineType, rc -> rc)
-                ));
-
-        // 일별 진행상황 생성 (목표 대비 차이만)
-        List<SharedChallengeDetailResponse.DailyProgress> dailyProgress = new ArrayList<>();
-        LocalDate currentDate = challenge.getStartDate();
-        LocalDate endDate = challenge.getEndDate();
-
-        while (!currentDate.isAfter(endDate)) {
-            SharedChallengeDetailResponse.DailyProgress progress = new SharedChallengeDetailResponse.DailyProgress();
-            progress.setDate(currentDate);
-
-            ExerciseRecord record = recordMap.get(currentDate);
-            if (record != null) {
-                // 목표 대비 차이 계산
-                if (record.getWeight() != null && challenge.getTargetWeight() != null) {
-                    progress.setWeightDiff(record.getWeight() - challenge.getTargetWeight());
-                }
-                if (record.getBodyFatPercentage() != null && challenge.getTargetBodyFatPercentage() != null) {
-                    progress.setBodyFatDiff(record.getBodyFatPercentage() - challenge.getTargetBodyFatPercentage());
-                }
-                if (record.getMuscleMass() != null && challenge.getTargetMuscleMass() != null) {
-                    progress.setMuscleMassDiff(record.getMuscleMass() - challenge.getTargetMuscleMass());
-                }
-                if (record.getExerciseDuration() != null && challenge.getTargetExerciseDuration() != null) {
-                    progress.setExerciseDurationDiff(record.getExerciseDuration() - challenge.getTargetExerciseDuration());
-                }
-            }
-
-            // 성공 여부 판단
-            progress.setWeightSuccess(checkSuccess(record != null ? record.getWeight() : null, challenge.getTargetWeight(), false));
-            progress.setBodyFatSuccess(checkSuccess(record != null ? record.getBodyFatPercentage() : null, challenge.getTargetBodyFatPercentage(), false));
-            progress.setMuscleMassSuccess(checkSuccess(record != null ? record.getMuscleMass() : null, challenge.getTargetMuscleMass(), true));
-            progress.setExerciseDurationSuccess(checkSuccess(record != null && record.getExerciseDuration() != null ? record.getExerciseDuration().doubleValue() : null,
-                    challenge.getTargetExerciseDuration() != null ? challenge.getTargetExerciseDuration().doubleValue() : null, true));
-
-            // 루틴 체크 정보 추가
-            Map<String, RoutineCheck> dateRoutineChecks = routineCheckMap.getOrDefault(currentDate, new java.util.HashMap<>());
-            
-            // 아침루틴 정보
-            progress.setMorningRoutineTotal(morningRoutineItems.size());
-            RoutineCheck morningCheck = dateRoutineChecks.get("MORNING");
-            if (morningCheck != null && morningCheck.getCheckedItems() != null && !morningCheck.getCheckedItems().isEmpty()) {
-                try {
-                    List<String> checkedItems = objectMapper.readValue(morningCheck.getCheckedItems(), new TypeReference<List<String>>() {});
-                    progress.setMorningRoutineChecked(checkedItems != null ? checkedItems.size() : 0);
-                } catch (Exception e) {
-                    progress.setMorningRoutineChecked(0);
-                }
-            } else {
-                progress.setMorningRoutineChecked(0);
-            }
-            
-            // 저녁루틴 정보
-            progress.setEveningRoutineTotal(eveningRoutineItems.size());
-            RoutineCheck eveningCheck = dateRoutineChecks.get("EVENING");
-            if (eveningCheck != null && eveningCheck.getCheckedItems() != null && !eveningCheck.getCheckedItems().isEmpty()) {
-                try {
-                    List<String> checkedItems = objectMapper.readValue(eveningCheck.getCheckedItems(), new TypeReference<List<String>>() {});
-                    progress.setEveningRoutineChecked(checkedItems != null ? checkedItems.size() : 0);
-                } catch (Exception e) {
-                    progress.setEveningRoutineChecked(0);
-                }
-            } else {
-                progress.setEveningRoutineChecked(0);
-            }
-
-            dailyProgress.add(progress);
-            currentDate = currentDate.plusDays(1);
+        if (response.isEmpty()) {
+            return ResponseEntity.notFound().build();
         }
 
-        response.setDailyProgress(dailyProgress);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy("X-User-Id")
+                .body(response.get());
+    }
 
-        // 전체 진행상황 계산 (기존 로직과 동일)
-        SharedChallengeDetailResponse.OverallProgress overall = new SharedChallengeDetailResponse.OverallProgress();
-        overall.setTotalDays(dailyProgress.size());
+    // 공유된 챌린지 상세 캐시 적중률/경과 시간 조회
+    @GetMapping("/detail-cache/stats")
+    public ResponseEntity<SharedDetailCacheStatsResponse> getSharedDetailCacheStats() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(sharedChallengeDetailService.stats());
+    }
 
-        int weightSuccess = 0, bodyFatSuccess = 0, muscleMassSuccess = 0,
-                exerciseDurationSuccess = 0;
-        int weightRecordedDays = 0, bodyFatRecordedDays = 0, muscleMassRecordedDays = 0,
-                exerciseDurationRecordedDays = 0;
+    private ChallengeShareResponse convertToResponse(ChallengeShare share) {
+        return convertToResponses(List.of(share)).get(0);
+    }
 
-        for (SharedChallengeDetailResponse.DailyProgress dp : dailyProgress) {
-            if (dp.getWeightDiff() != null) {
-                weightRecordedDays++;
-                if (dp.isWeightSuccess()) weightSuccess++;
-            }
-            if (dp.getBodyFatDiff() != null) {
-                bodyFatRecordedDays++;
-                if (dp.isBodyFatSuccess()) bodyFatSuccess++;
-            }
-            if (dp.getMuscleMassDiff() != null) {
-                muscleMassRecordedDays++;
-                if (dp.isMuscleMassSuccess()) muscleMassSuccess++;
-            }
-            if (dp.getExerciseDurationDiff() != null) {
-                exerciseDurationRecordedDays++;
-                if (dp.isExerciseDurationSuccess()) exerciseDurationSuccess++;
-            }
+    // 목록 변환: 사용자/챌린지를 IN 쿼리 한 번씩으로 조회해서 공유 수와 무관하게 쿼리 2회
+    private List<ChallengeShareResponse> convertToResponses(List<ChallengeShare> shares) {
+        if (shares.isEmpty()) {
+            return new ArrayList<>();
         }
 
-        overall.setWeightSuccessCount(weightSuccess);
-        overall.setBodyFatSuccessCount(bodyFatSuccess);
-        overall.setMuscleMassSuccessCount(muscleMassSuccess);
-        overall.setExerciseDurationSuccessCount(exerciseDurationSuccess);
-        overall.setWeightRecordedDays(weightRecordedDays);
-        overall.setBodyFatRecordedDays(bodyFatRecordedDays);
-        overall.setMuscleMassRecordedDays(muscleMassRecordedDays);
-        overall.setExerciseDurationRecordedDays(exerciseDurationRecordedDays);
-        overall.setWeightSuccessRate(weightRecordedDays > 0 ? (double) weightSuccess / weightRecordedDays * 100 : 0);
-        overall.setBodyFatSuccessRate(bodyFatRecordedDays > 0 ? (double) bodyFatSuccess / bodyFatRecordedDays * 100 : 0);
-        overall.setMuscleMassSuccessRate(muscleMassRecordedDays > 0 ? (double) muscleMassSuccess / muscleMassRecordedDays * 100 : 0);
-        overall.setExerciseDurationSuccessRate(exerciseDurationRecordedDays > 0 ? (double) exerciseDurationSuccess / exerciseDurationRecordedDays * 100 : 0);
-
-        // 루틴 체크 성공률 계산
-        int morningRoutineSuccessDays = 0;
-        int eveningRoutineSuccessDays = 0;
-        int morningRoutineRecordedDays = 0;
-        int eveningRoutineRecordedDays = 0;
-        
-        for (SharedChallengeDetailResponse.DailyProgress dp : dailyProgress) {
-            if (dp.getMorningRoutineTotal() != null && dp.getMorningRoutineTotal() > 0) {
-                morningRoutineRecordedDays++;
-                if (dp.getMorningRoutineChecked() != null && 
-                    dp.getMorningRoutineChecked().equals(dp.getMorningRoutineTotal())) {
-                    morningRoutineSuccessDays++;
-                }
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> challengeIds = new HashSet<>();
+        for (ChallengeShare share : shares) {
+            if (share.getFromUserId() != null) {
+                userIds.add(share.getFromUserId());
             }
-            if (dp.getEveningRoutineTotal() != null && dp.getEveningRoutineTotal() > 0) {
-                eveningRoutineRecordedDays++;
-                if (dp.getEveningRoutineChecked() != null && 
-                    dp.getEveningRoutineChecked().equals(dp.getEveningRoutineTotal())) {
-                    eveningRoutineSuccessDays++;
-                }
+            if (share.getChallengeId() != null) {
+                challengeIds.add(share.getChallengeId());
             }
         }
-        
-        overall.setMorningRoutineSuccessDays(morningRoutineSuccessDays);
-        overall.setEveningRoutineSuccessDays(eveningRoutineSuccessDays);
-        overall.setMorningRoutineRecordedDays(morningRoutineRecordedDays);
-        overall.setEveningRoutineRecordedDays(eveningRoutineRecordedDays);
-        overall.setMorningRoutineSuccessRate(morningRoutineRecordedDays > 0 ? (double) morningRoutineSuccessDays / morningRoutineRecordedDays * 100 : 0);
-        overall.setEveningRoutineSuccessRate(eveningRoutineRecordedDays > 0 ? (double) eveningRoutineSuccessDays / eveningRoutineRecordedDays * 100 : 0);
-
-        response.setOverallProgress(overall);
 
-        return ResponseEntity.ok(response);
-    }
-
-    private boolean checkSuccess(Double actual, Double target, boolean higherIsBetter) {
-        if (actual == null || target == null) {
-            return false;
-        }
-        if (higherIsBetter) {
-            return actual >= target;
-        } else {
-            return actual <= target;
+        // 사용자 이름 / 챌린지 이름 조회
+        Map<Long, String> userNames = new HashMap<>();
+        for (User user : userRepository.findAllById(userIds)) {
+            userNames.put(user.getId(), user.getName() != null ? user.getName() : user.getUsername());
         }
-    }
-
-    private ChallengeResponse convertChallengeToResponse(Challenge challenge) {
-        ChallengeResponse response = new ChallengeResponse();
-        response.setId(challenge.getId());
-        response.setUserId(challenge.getUserId());
-        response.setName(challenge.getName());
-        response.setStartDate(challenge.getStartDate());
-        response.setEndDate(challenge.getEndDate());
-        response.setTargetWeight(challenge.getTargetWeight());
-        response.setTargetBodyFatPercentage(challenge.getTargetBodyFatPercentage());
-        response.setTargetMuscleMass(challenge.getTargetMuscleMass());
-        response.setTargetExerciseDuration(challenge.getTargetExerciseDuration());
-        response.setCreatedAt(challenge.getCreatedAt());
-        response.setUpdatedAt(challenge.getUpdatedAt());
-
-        LocalDate today = LocalDate.now();
-        boolean isActive = !today.isBefore(challenge.getStartDate()) && !today.isAfter(challenge.getEndDate());
-        response.setActive(isActive);
-
-        return response;
-    }
-
-    private ChallengeShareResponse convertToResponse(ChallengeShare share) {
-        ChallengeShareResponse response = new ChallengeShareResponse();
-        response.setId(share.getId());
-        response.setFromUserId(share.getFromUserId());
-        response.setToUserId(share.getToUserId());
-        response.setChallengeId(share.getChallengeId());
-        response.setStatus(share.getStatus());
-        response.setCreatedAt(share.getCreatedAt());
-        response.setUpdatedAt(share.getUpdatedAt());
-
-        // 사용자 이름 조회
-        Optional<User> fromUser = userRepository.findById(share.getFromUserId() != null ? share.getFromUserId() : 0L);
-        if (fromUser.isPresent()) {
-            response.setFromUserName(fromUser.get().getName() != null ? fromUser.get().getName() : fromUser.get().getUsername());
+        Map<Long, String> challengeNames = new HashMap<>();
+        for (Challenge challenge : challengeRepository.findAllById(challengeIds)) {
+            challengeNames.put(challenge.getId(), challenge.getName());
         }
 
-        // 챌린지 이름 조회
-        Optional<Challenge> challenge = challengeRepository.findById(share.getChallengeId() != null ? share.getChallengeId() : 0L);
-        if (challenge.isPresent()) {
-            response.setChallengeName(challenge.get().getName());
+        List<ChallengeShareResponse> responses = new ArrayList<>(shares.size());
+        for (ChallengeShare share : shares) {
+            ChallengeShareResponse response = new ChallengeShareResponse();
+            response.setId(share.getId());
+            response.setFromUserId(share.getFromUserId());
+            response.setToUserId(share.getToUserId());
+            response.setChallengeId(share.getChallengeId());
+            response.setStatus(share.getStatus());
+            response.setCreatedAt(share.getCreatedAt());
+            response.setUpdatedAt(share.getUpdatedAt());
+            response.setFromUserName(userNames.get(share.getFromUserId()));
+            response.setChallengeName(challengeNames.get(share.getChallengeId()));
+            responses.add(response);
         }
-
-        return response;
+        return responses;
     }
 }
-
@@ -1,31 +1,43 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.ExerciseRecordImportResponse;
+import com.example.demo.dto.ExerciseRecordPageResponse;
 import com.example.demo.dto.ExerciseRecordRequest;
 import com.example.demo.dto.ExerciseRecordResponse;
-import com.example.demo.entity.ExerciseRecord;
+import com.example.demo.dto.ExerciseRecordRollupResponse;
+import com.example.demo.dto.ExerciseRecordSeriesResponse;
 import com.example.demo.repository.ExerciseRecordRepository;
+import com.example.demo.service.ExerciseRecordImportService;
+import com.example.demo.service.ExerciseRecordRollupService;
+import com.example.demo.service.ExerciseRecordSeriesService;
+import com.example.demo.service.ExerciseRecordWriteService;
+import com.example.demo.service.UserDataVersionService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/exercise-records")
@@ -33,20 +45,45 @@ import java.util.stream.Collectors;
 public class ExerciseRecordController {
 
     private static final Logger logger = LoggerFactory.getLogger(ExerciseRecordController.class);
+    private static final int DEFAULT_PAGE_SIZE = 30;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int DEFAULT_SERIES_POINTS = 500;
+    private static final int MAX_SERIES_POINTS = 2000;
     private final ExerciseRecordRepository exerciseRecordRepository;
-    
-    @Value("${file.upload-dir:uploads/images}")
-    private String uploadDir;
+    private final ExerciseRecordWriteService exerciseRecordWriteService;
+    private final ExerciseRecordImportService exerciseRecordImportService;
+    private final ExerciseRecordRollupService exerciseRecordRollupService;
+    private final ExerciseRecordSeriesService exerciseRecordSeriesService;
+    private final UserDataVersionService userDataVersionService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
 
-    public ExerciseRecordController(ExerciseRecordRepository exerciseRecordRepository) {
+    public ExerciseRecordController(
+            ExerciseRecordRepository exerciseRecordRepository,
+            ExerciseRecordWriteService exerciseRecordWriteService,
+            ExerciseRecordImportService exerciseRecordImportService,
+            ExerciseRecordRollupService exerciseRecordRollupService,
+            ExerciseRecordSeriesService exerciseRecordSeriesService,
+            UserDataVersionService userDataVersionService,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager) {
         this.exerciseRecordRepository = exerciseRecordRepository;
+        this.exerciseRecordWriteService = exerciseRecordWriteService;
+        this.exerciseRecordImportService = exerciseRecordImportService;
+        this.exerciseRecordRollupService = exerciseRecordRollupService;
+        this.exerciseRecordSeriesService = exerciseRecordSeriesService;
+        this.userDataVersionService = userDataVersionService;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
     }
 
     // 특정 날짜의 기록 조회 (또는 생성)
     @GetMapping("/date/{date}")
     public ResponseEntity<ExerciseRecordResponse> getRecordByDate(
             @PathVariable("date") String date,
-            @RequestHeader(value = "X-User-Id", required = false) Long userId) {
+            @RequestHeader(value = "X-User-Id", required = false) Long userId,
+            WebRequest webRequest) {
         
         // 임시로 userId를 1로 설정 (실제로는 토큰에서 가져와야 함)
         if (userId == null) {
@@ -56,11 +93,21 @@ public class ExerciseRecordController {
         LocalDate recordDate = LocalDate.parse(date);
         logger.info("📅 기록 조회 - userId: {}, date: {}", userId, recordDate);
         
-        Optional<ExerciseRecord> recordOpt = exerciseRecordRepository.findByUserIdAndRecordDate(userId, recordDate);
+        // 변경이 없으면 DB 조회 없이 304 반환
+        String etag = userDataVersionService.etag(userId, "record", recordDate);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        
+        Optional<ExerciseRecordResponse> recordOpt = exerciseRecordRepository
+                .findResponseByUserIdAndRecordDate(userId, recordDate);
         
         if (recordOpt.isPresent()) {
-            ExerciseRecordResponse response = convertToResponse(recordOpt.get());
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .varyBy("X-User-Id")
+                    .body(recordOpt.get());
         } else {
             // 기록이 없으면 204 No Content 반환
             return ResponseEntity.noContent().build();
@@ -81,35 +128,11 @@ public class ExerciseRecordController {
         logger.info("💾 기록 저장/수정 - userId: {}, date: {}", userId, request.getRecordDate());
         
         try {
-            // 기존 기록 확인
-            Optional<ExerciseRecord> existingRecord = exerciseRecordRepository
-                    .findByUserIdAndRecordDate(userId, request.getRecordDate());
-            
-            ExerciseRecord record;
-            if (existingRecord.isPresent()) {
-                // 수정
-                record = existingRecord.get();
-                logger.info("✏️ 기존 기록 수정 - id: {}", record.getId());
-            } else {
-                // 새로 생성
-                record = new ExerciseRecord();
-                record.setUserId(userId);
-                record.setRecordDate(request.getRecordDate());
-                logger.info("➕ 새 기록 생성");
-            }
+            // 저장과 파생 데이터 갱신 (집계, 챌린지, 이미지 참조, 캐시)
+            ExerciseRecordResponse response = exerciseRecordWriteService.save(userId, request);
+            logger.info("✅ 기록 저장 완료 - id: {}", response.getId());
+            userDataVersionService.bump(userId);
             
-            // 데이터 업데이트
-            record.setWeight(request.getWeight());
-            record.setBodyFatPercentage(request.getBodyFatPercentage());
-            record.setMuscleMass(request.getMuscleMass());
-            record.setExerciseType(request.getExerciseType());
-            record.setExerciseDuration(request.getExerciseDuration());
-            record.setImageUrl(request.getImageUrl());
-            
-            ExerciseRecord savedRecord = exerciseRecordRepository.save(record);
-            logger.info("✅ 기록 저장 완료 - id: {}", savedRecord.getId());
-            
-            ExerciseRecordResponse response = convertToResponse(savedRecord);
             return ResponseEntity.ok(response);
             
         } catch (Exception e) {
@@ -118,9 +141,9 @@ public class ExerciseRecordController {
         }
     }
 
-    // 사용자의 모든 기록 조회
+    // 사용자의 모든 기록 조회 (JSON 배열을 DB 스트림에서 바로 써서 기록 수와 무관하게 메모리 사용 일정)
     @GetMapping
-    public ResponseEntity<List<ExerciseRecordResponse>> getAllRecords(
+    public ResponseEntity<StreamingResponseBody> getAllRecords(
             @RequestHeader(value = "X-User-Id", required = false) Long userId) {
         
         // 임시로 userId를 1로 설정
@@ -130,16 +153,84 @@ public class ExerciseRecordController {
         
         logger.info("📋 모든 기록 조회 - userId: {}", userId);
         
-        List<ExerciseRecord> records = exerciseRecordRepository.findByUserIdOrderByRecordDateDesc(userId);
-        List<ExerciseRecordResponse> responses = records.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        final Long finalUserId = userId;
+        StreamingResponseBody body = outputStream -> readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<ExerciseRecordResponse> records = exerciseRecordRepository.streamResponsesByUserId(finalUserId);
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.writeStartArray();
+                Iterator<ExerciseRecordResponse> iterator = records.iterator();
+                while (iterator.hasNext()) {
+                    generator.writeObject(iterator.next());
+                }
+                generator.writeEndArray();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
         
-        return ResponseEntity.ok(responses);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    // 사용자 기록 페이지 조회 (record_date, id 기준 키셋 페이지네이션)
+    @GetMapping("/page")
+    @Transactional(readOnly = true)
+    public ResponseEntity<ExerciseRecordPageResponse> getRecordPage(
+            @RequestParam(value = "cursorDate", required = false) String cursorDate,
+            @RequestParam(value = "cursorId", required = false) Long cursorId,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestHeader(value = "X-User-Id", required = false) Long userId) {
+        
+        if (userId == null) {
+            userId = 1L;
+        }
+        
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        logger.info("📋 기록 페이지 조회 - userId: {}, cursorDate: {}, cursorId: {}, size: {}", 
+                userId, cursorDate, cursorId, pageSize);
+        
+        // 잘못되었거나 변조된 커서는 400
+        LocalDate cursor = null;
+        if (cursorDate != null && cursorId != null) {
+            try {
+                cursor = LocalDate.parse(cursorDate);
+            } catch (DateTimeParseException e) {
+                logger.warn("❌ 기록 페이지 커서 오류: {}", cursorDate);
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        
+        // 다음 페이지 존재 여부 확인을 위해 한 건 더 조회
+        Limit limit = Limit.of(pageSize + 1);
+        List<ExerciseRecordResponse> records;
+        if (cursor == null) {
+            records = exerciseRecordRepository.findFirstPage(userId, limit);
+        } else {
+            records = exerciseRecordRepository.findPageAfterCursor(userId, cursor, cursorId, limit);
+        }
+        
+        boolean hasNext = records.size() > pageSize;
+        if (hasNext) {
+            records = records.subList(0, pageSize);
+        }
+        
+        ExerciseRecordPageResponse response = new ExerciseRecordPageResponse();
+        response.setRecords(records);
+        response.setHasNext(hasNext);
+        if (hasNext) {
+            ExerciseRecordResponse last = records.get(records.size() - 1);
+            response.setNextCursorDate(last.getRecordDate());
+            response.setNextCursorId(last.getId());
+        }
+        
+        return ResponseEntity.ok(response);
     }
 
     // 기간별 기록 조회
     @GetMapping("/range")
+    @Transactional(readOnly = true)
     public ResponseEntity<List<ExerciseRecordResponse>> getRecordsByDateRange(
             @RequestParam("startDate") String startDate,
             @RequestParam("endDate") String endDate,
@@ -150,166 +241,131 @@ public class ExerciseRecordController {
             userId = 1L;
         }
         
-        LocalDate start = LocalDate.parse(startDate);
-        LocalDate end = LocalDate.parse(endDate);
+        LocalDate start;
+        LocalDate end;
+        try {
+            start = LocalDate.parse(startDate);
+            end = LocalDate.parse(endDate);
+        } catch (DateTimeParseException e) {
+            logger.warn("❌ 기간별 기록 조회 요청 오류: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
         
         logger.info("📅 기간별 기록 조회 - userId: {}, startDate: {}, endDate: {}", userId, start, end);
         
-        List<ExerciseRecord> records = exerciseRecordRepository.findByUserIdAndRecordDateBetween(userId, start, end);
-        List<ExerciseRecordResponse> responses = records.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        List<ExerciseRecordResponse> responses = exerciseRecordRepository
+                .findResponsesByUserIdAndRecordDateBetween(userId, start, end);
         
         return ResponseEntity.ok(responses);
     }
 
-    // 단일 파일 업로드 엔드포인트 (하위 호환성)
-    @PostMapping("/upload")
-    public ResponseEntity<String> uploadFile(
-            @RequestParam("file") MultipartFile file,
+    // 운동 기록 대량 가져오기 (NDJSON 또는 CSV 본문을 스트리밍으로 처리)
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<ExerciseRecordImportResponse> importRecords(
+            InputStream body,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
             @RequestHeader(value = "X-User-Id", required = false) Long userId) {
         
         if (userId == null) {
             userId = 1L;
         }
         
-        if (file.isEmpty()) {
-            return ResponseEntity.badRequest().body("파일이 비어있습니다.");
-        }
+        ExerciseRecordImportService.Format format = contentType.startsWith("text/csv")
+                ? ExerciseRecordImportService.Format.CSV
+                : ExerciseRecordImportService.Format.NDJSON;
+        logger.info("📥 기록 가져오기 시작 - userId: {}, format: {}", userId, format);
         
         try {
-            // 업로드 디렉토리 생성
-            Path uploadPath = Paths.get(uploadDir);
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
-            }
-            
-            // 고유한 파일명 생성
-            String originalFilename = file.getOriginalFilename();
-            String extension = "";
-            if (originalFilename != null && originalFilename.contains(".")) {
-                extension = originalFilename.substring(originalFilename.lastIndexOf("."));
-            }
-            String filename = UUID.randomUUID().toString() + extension;
-            Path filePath = uploadPath.resolve(filename);
-            
-            // 파일 저장
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-            
-            // 파일 URL 반환 (프론트엔드에서 접근 가능한 경로)
-            String fileUrl = "/api/exercise-records/images/" + filename;
-            logger.info("✅ 파일 업로드 완료 - userId: {}, filename: {}", userId, filename);
-            
-            return ResponseEntity.ok(fileUrl);
-            
-        } catch (IOException e) {
-            logger.error("❌ 파일 업로드 중 오류 발생", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body("파일 업로드에 실패했습니다.");
+            ExerciseRecordImportResponse response = exerciseRecordImportService.importRecords(userId, body, format);
+            userDataVersionService.bump(userId);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            logger.warn("❌ 기록 가져오기 요청 오류: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("❌ 기록 가져오기 중 오류 발생", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
-    
-    // 여러 파일 업로드 엔드포인트
-    @PostMapping("/upload-multiple")
-    public ResponseEntity<List<String>> uploadMultipleFiles(
-            @RequestParam("files") MultipartFile[] files,
+
+    // 체성분 시계열 조회 (지표별로 최대 points 개로 다운샘플링)
+    @GetMapping("/series")
+    public ResponseEntity<ExerciseRecordSeriesResponse> getSeries(
+            @RequestParam("startDate") String startDate,
+            @RequestParam("endDate") String endDate,
+            @RequestParam(value = "points", required = false) Integer points,
             @RequestHeader(value = "X-User-Id", required = false) Long userId) {
         
         if (userId == null) {
             userId = 1L;
         }
         
-        if (files == null || files.length == 0) {
+        int targetPoints = points == null ? DEFAULT_SERIES_POINTS : Math.max(3, Math.min(points, MAX_SERIES_POINTS));
+        LocalDate start;
+        LocalDate end;
+        try {
+            start = LocalDate.parse(startDate);
+            end = LocalDate.parse(endDate);
+        } catch (DateTimeParseException e) {
+            logger.warn("❌ 시계열 조회 요청 오류: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
         }
+        logger.info("📈 시계열 조회 - userId: {}, startDate: {}, endDate: {}, points: {}", userId, start, end, targetPoints);
+        
+        return ResponseEntity.ok(exerciseRecordSeriesService.buildSeries(userId, start, end, targetPoints));
+    }
+
+    // 주/월 집계 조회 (period: week | month)
+    @GetMapping("/rollups")
+    public ResponseEntity<List<ExerciseRecordRollupResponse>> getRollups(
+            @RequestParam(value = "period", defaultValue = "week") String period,
+            @RequestParam("startDate") String startDate,
+            @RequestParam("endDate") String endDate,
+            @RequestHeader(value = "X-User-Id", required = false) Long userId) {
+        
+        if (userId == null) {
+            userId = 1L;
+        }
         
-        List<String> uploadedUrls = new java.util.ArrayList<>();
+        String periodType = period.toUpperCase();
+        if (!ExerciseRecordRollupService.WEEK.equals(periodType) && !ExerciseRecordRollupService.MONTH.equals(periodType)) {
+            return ResponseEntity.badRequest().build();
+        }
         
+        LocalDate start;
+        LocalDate end;
         try {
-            // 업로드 디렉토리 생성
-            Path uploadPath = Paths.get(uploadDir);
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
-            }
-            
-            for (MultipartFile file : files) {
-                if (file.isEmpty()) {
-                    continue;
-                }
-                
-                // 고유한 파일명 생성
-                String originalFilename = file.getOriginalFilename();
-                String extension = "";
-                if (originalFilename != null && originalFilename.contains(".")) {
-                    extension = originalFilename.substring(originalFilename.lastIndexOf("."));
-                }
-                String filename = UUID.randomUUID().toString() + extension;
-                Path filePath = uploadPath.resolve(filename);
-                
-                // 파일 저장
-                Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-                
-                // 파일 URL 추가
-                String fileUrl = "/api/exercise-records/images/" + filename;
-                uploadedUrls.add(fileUrl);
-                logger.info("✅ 파일 업로드 완료 - userId: {}, filename: {}", userId, filename);
-            }
-            
-            return ResponseEntity.ok(uploadedUrls);
-            
-        } catch (IOException e) {
-            logger.error("❌ 파일 업로드 중 오류 발생", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            start = LocalDate.parse(startDate);
+            end = LocalDate.parse(endDate);
+        } catch (DateTimeParseException e) {
+            logger.warn("❌ 집계 조회 요청 오류: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
         }
+        logger.info("📊 집계 조회 - userId: {}, period: {}, startDate: {}, endDate: {}", userId, periodType, start, end);
+        
+        return ResponseEntity.ok(exerciseRecordRollupService.findRollups(userId, periodType, start, end));
     }
-    
-    // 이미지 파일 조회 엔드포인트
-    @GetMapping("/images/{filename:.+}")
-    @SuppressWarnings("null")
-    public ResponseEntity<Resource> getImage(@PathVariable("filename") String filename) {
+
+    // 주/월 집계 재생성 (기존 기록 백필 또는 불일치 복구용)
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<Void> rebuildRollups(
+            @RequestParam("startDate") String startDate,
+            @RequestParam("endDate") String endDate,
+            @RequestHeader(value = "X-User-Id", required = false) Long userId) {
+        
+        if (userId == null) {
+            userId = 1L;
+        }
+        
         try {
-            Path filePath = Paths.get(uploadDir).resolve(filename).normalize();
-            java.net.URI uri = filePath.toAbsolutePath().toUri();
-            Resource resource = new UrlResource(uri);
-            
-            if (resource.exists() && resource.isReadable()) {
-                String contentType = "image/jpeg"; // 기본값
-                try {
-                    contentType = Files.probeContentType(filePath);
-                    if (contentType == null) {
-                        contentType = "application/octet-stream";
-                    }
-                } catch (IOException e) {
-                    logger.warn("파일 타입 확인 실패: {}", filename);
-                }
-                
-                return ResponseEntity.ok()
-                        .contentType(MediaType.parseMediaType(contentType))
-                        .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + resource.getFilename() + "\"")
-                        .body(resource);
-            } else {
-                return ResponseEntity.notFound().build();
-            }
+            exerciseRecordRollupService.rebuild(userId, LocalDate.parse(startDate), LocalDate.parse(endDate));
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            logger.warn("❌ 집계 재생성 요청 오류: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
-            logger.error("이미지 조회 중 오류 발생: {}", filename, e);
-            return ResponseEntity.notFound().build();
+            logger.error("❌ 집계 재생성 중 오류 발생", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
-
-    private ExerciseRecordResponse convertToResponse(ExerciseRecord record) {
-        ExerciseRecordResponse response = new ExerciseRecordResponse();
-        response.setId(record.getId());
-        response.setUserId(record.getUserId());
-        response.setRecordDate(record.getRecordDate());
-        response.setWeight(record.getWeight());
-        response.setBodyFatPercentage(record.getBodyFatPercentage());
-        response.setMuscleMass(record.getMuscleMass());
-        response.setExerciseType(record.getExerciseType());
-        response.setExerciseDuration(record.getExerciseDuration());
-        response.setImageUrl(record.getImageUrl());
-        response.setCreatedAt(record.getCreatedAt());
-        response.setUpdatedAt(record.getUpdatedAt());
-        return response;
-    }
 }
-
@@ -0,0 +1,327 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.ImageCacheStatsResponse;
+import com.example.demo.dto.UploadSessionRequest;
+import com.example.demo.dto.UploadSessionResponse;
+import com.example.demo.entity.UploadSession;
+import com.example.demo.service.ImageCacheService;
+import com.example.demo.service.ImageCacheService.CachedImage;
+import com.example.demo.service.ImageServingService;
+import com.example.demo.service.ImageStoreService;
+import com.example.demo.service.ImageStoreService.StoredImage;
+import com.example.demo.service.ImageUploadService;
+import com.example.demo.service.ImageVariantService;
+import com.example.demo.service.ResumableUploadService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.multipart.MultipartRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+// 운동 기록 첨부 이미지 업로드/조회 (경로는 기존과 같은 /api/exercise-records 아래)
+@RestController
+@RequestMapping("/api/exercise-records")
+@CrossOrigin(origins = "http://13.124.207.117:3000")
+public class ExerciseRecordImageController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExerciseRecordImageController.class);
+    private static final int UPLOAD_RETRY_AFTER_SECONDS = 2;
+    private static final String UPLOAD_OFFSET = "Upload-Offset";
+    private static final String UPLOAD_LENGTH = "Upload-Length";
+    private final ImageVariantService imageVariantService;
+    private final ImageServingService imageServingService;
+    private final ImageCacheService imageCacheService;
+    private final ImageStoreService imageStoreService;
+    private final ImageUploadService imageUploadService;
+    private final ResumableUploadService resumableUploadService;
+
+    public ExerciseRecordImageController(
+            ImageVariantService imageVariantService,
+            ImageServingService imageServingService,
+            ImageCacheService imageCacheService,
+            ImageStoreService imageStoreService,
+            ImageUploadService imageUploadService,
+            ResumableUploadService resumableUploadService) {
+        this.imageVariantService = imageVariantService;
+        this.imageServingService = imageServingService;
+        this.imageCacheService = imageCacheService;
+        this.imageStoreService = imageStoreService;
+        this.imageUploadService = imageUploadService;
+        this.resumableUploadService = resumableUploadService;
+    }
+
+    // 단일 파일 업로드 엔드포인트 (하위 호환성)
+    // 파트는 처음 읽을 때 파싱되어 디스크에 기록되므로 (resolve-lazily) 쓰기 슬롯을 먼저 확보한 뒤 읽음
+    @PostMapping("/upload")
+    public ResponseEntity<String> uploadFile(
+            MultipartRequest request,
+            @RequestHeader(value = "X-User-Id", required = false) Long userId) {
+        
+        if (userId == null) {
+            userId = 1L;
+        }
+        
+        if (!imageUploadService.tryAcquireWriteSlot()) {
+            logger.warn("⏳ 업로드 요청 과다로 거절 - userId: {}", userId);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(UPLOAD_RETRY_AFTER_SECONDS))
+                    .body("업로드 요청이 많아 잠시 후 다시 시도해주세요.");
+        }
+        try {
+            MultipartFile file = request.getFile("file");
+            if (file == null || file.isEmpty()) {
+                return ResponseEntity.badRequest().body("파일이 비어있습니다.");
+            }
+            
+            // 파일 저장 (같은 내용은 한 번만 저장하고 고유한 파일명으로 참조)
+            String filename = imageUploadService.store(file, userId);
+            
+            // 파일 URL 반환 (프론트엔드에서 접근 가능한 경로)
+            String fileUrl = "/api/exercise-records/images/" + filename;
+            logger.info("✅ 파일 업로드 완료 - userId: {}, filename: {}", userId, filename);
+            
+            return ResponseEntity.ok(fileUrl);
+            
+        } catch (IOException e) {
+            logger.error("❌ 파일 업로드 중 오류 발생", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("파일 업로드에 실패했습니다.");
+        } finally {
+            imageUploadService.releaseWriteSlot();
+        }
+    }
+    
+    // 여러 파일 업로드 엔드포인트
+    // 본문 파싱(파트 임시 파일 기록)은 한 번에 이루어지므로 /upload 와 같이 슬롯 1개만 먼저 확보
+    // 파일별 hash/이동은 남는 슬롯을 파일 단위로 빌려 병렬 처리 (ImageUploadService.storeAll)
+    @PostMapping("/upload-multiple")
+    public ResponseEntity<List<String>> uploadMultipleFiles(
+            MultipartRequest request,
+            @RequestHeader(value = "X-User-Id", required = false) Long userId) {
+        
+        if (userId == null) {
+            userId = 1L;
+        }
+        
+        if (!imageUploadService.tryAcquireWriteSlot()) {
+            logger.warn("⏳ 업로드 요청 과다로 거절 - userId: {}", userId);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(UPLOAD_RETRY_AFTER_SECONDS))
+                    .build();
+        }
+        try {
+            List<MultipartFile> files = request.getFiles("files");
+            if (files.isEmpty()) {
+                return ResponseEntity.badRequest().build();
+            }
+            
+            List<MultipartFile> nonEmptyFiles = files.stream()
+                    .filter(file -> !file.isEmpty())
+                    .toList();
+            
+            // 파일 저장 (이미 받아둔 파트의 hash/이동을 가상 스레드로 병렬 처리, 같은 내용은 한 번만 저장하고 고유한 파일명으로 참조)
+            List<String> filenames = imageUploadService.storeAll(nonEmptyFiles, userId);
+            
+            // 파일 URL 목록 (업로드 순서 유지)
+            List<String> uploadedUrls = new java.util.ArrayList<>();
+            for (String filename : filenames) {
+                uploadedUrls.add("/api/exercise-records/images/" + filename);
+                logger.info("✅ 파일 업로드 완료 - userId: {}, filename: {}", userId, filename);
+            }
+            
+            return ResponseEntity.ok(uploadedUrls);
+            
+        } catch (IOException e) {
+            logger.error("❌ 파일 업로드 중 오류 발생", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        } finally {
+            imageUploadService.releaseWriteSlot();
+        }
+    }
+    
+    // 이어받기 업로드 세션 생성 (응답의 uploadId 로 PATCH 조각 전송)
+    @PostMapping("/uploads")
+    @CrossOrigin(origins = "http://13.124.207.117:3000", exposedHeaders = {UPLOAD_OFFSET, UPLOAD_LENGTH, HttpHeaders.LOCATION})
+    public ResponseEntity<UploadSessionResponse> createUploadSession(
+            @RequestBody UploadSessionRequest request,
+            @RequestHeader(value = "X-User-Id", required = false) Long userId) {
+        
+        if (userId == null) {
+            userId = 1L;
+        }
+        
+        try {
+            UploadSession session = resumableUploadService.create(userId, request.getFilename(), request.getSize());
+            logger.info("📤 이어받기 업로드 시작 - userId: {}, uploadId: {}, size: {}",
+                    userId, session.getUploadId(), session.getTotalSize());
+            
+            return ResponseEntity.created(java.net.URI.create("/api/exercise-records/uploads/" + session.getUploadId()))
+                    .header(UPLOAD_OFFSET, "0")
+                    .header(UPLOAD_LENGTH, String.valueOf(session.getTotalSize()))
+                    .body(convertToUploadSessionResponse(session));
+        } catch (IllegalArgumentException e) {
+            logger.warn("❌ 업로드 세션 요청 오류: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (IOException e) {
+            logger.error("❌ 업로드 세션 생성 중 오류 발생", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    // 이어받기 업로드 진행 상황 조회 (Upload-Offset 부터 이어서 전송)
+    @RequestMapping(value = "/uploads/{uploadId}", method = RequestMethod.HEAD)
+    @CrossOrigin(origins = "http://13.124.207.117:3000", exposedHeaders = {UPLOAD_OFFSET, UPLOAD_LENGTH})
+    public ResponseEntity<Void> getUploadProgress(
+            @PathVariable("uploadId") String uploadId,
+            @RequestHeader(value = "X-User-Id", required = false) Long userId) {
+        
+        if (userId == null) {
+            userId = 1L;
+        }
+        
+        Optional<UploadSession> sessionOpt = resumableUploadService.find(userId, uploadId);
+        if (sessionOpt.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        UploadSession session = sessionOpt.get();
+        return ResponseEntity.ok()
+                .header(UPLOAD_OFFSET, String.valueOf(session.getCommittedOffset()))
+                .header(UPLOAD_LENGTH, String.valueOf(session.getTotalSize()))
+                .cacheControl(CacheControl.noStore())
+                .build();
+    }
+    
+    // 이어받기 업로드 조각 전송 (Upload-Offset 위치부터 본문 기록, 마지막 조각이면 이미지 저장까지 완료)
+    @PatchMapping("/uploads/{uploadId}")
+    @CrossOrigin(origins = "http://13.124.207.117:3000", exposedHeaders = {UPLOAD_OFFSET, UPLOAD_LENGTH})
+    public ResponseEntity<UploadSessionResponse> appendUploadChunk(
+            @PathVariable("uploadId") String uploadId,
+            @RequestHeader(UPLOAD_OFFSET) long offset,
+            @RequestHeader(value = "X-User-Id", required = false) Long userId,
+            InputStream body) {
+        
+        if (userId == null) {
+            userId = 1L;
+        }
+        
+        try {
+            UploadSession session = resumableUploadService.append(userId, uploadId, offset, body);
+            return ResponseEntity.ok()
+                    .header(UPLOAD_OFFSET, String.valueOf(session.getCommittedOffset()))
+                    .header(UPLOAD_LENGTH, String.valueOf(session.getTotalSize()))
+                    .body(convertToUploadSessionResponse(session));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        } catch (ResumableUploadService.UploadConflictException e) {
+            logger.warn("⚠️ 업로드 조각 충돌 - uploadId: {}, {}", uploadId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .header(UPLOAD_OFFSET, String.valueOf(e.getCurrentOffset()))
+                    .build();
+        } catch (ImageUploadService.UploadBusyException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(UPLOAD_RETRY_AFTER_SECONDS))
+                    .build();
+        } catch (IllegalArgumentException e) {
+            logger.warn("❌ 업로드 조각 요청 오류: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (IOException e) {
+            // 전송 중 연결이 끊긴 경우 포함 (받은 만큼은 저장되어 HEAD 로 이어받을 위치 확인 가능)
+            logger.warn("⚠️ 업로드 조각 수신 실패 - uploadId: {}", uploadId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    private UploadSessionResponse convertToUploadSessionResponse(UploadSession session) {
+        UploadSessionResponse response = new UploadSessionResponse();
+        response.setUploadId(session.getUploadId());
+        response.setOffset(session.getCommittedOffset());
+        response.setSize(session.getTotalSize());
+        response.setCompleted(ResumableUploadService.COMPLETED.equals(session.getStatus()));
+        if (session.getFilename() != null) {
+            response.setImageUrl("/api/exercise-records/images/" + session.getFilename());
+        }
+        return response;
+    }
+    
+    // 이미지 파일 조회 엔드포인트 (메모리 캐시 → sendfile 전송, Range / If-None-Match 지원)
+    @GetMapping("/images/{filename:.+}")
+    public void getImage(
+            @PathVariable("filename") String filename,
+            @RequestParam(value = "size", required = false) String size,
+            HttpServletRequest request,
+            HttpServletResponse response) {
+        try {
+            ImageVariantService.Variant variant = size != null ? ImageVariantService.Variant.fromKey(size) : null;
+            
+            // 자주 조회되는 이미지는 파일 시스템을 거치지 않고 메모리에서 응답
+            String cacheKey = ImageCacheService.key(filename, variant);
+            CachedImage cached = imageCacheService.get(cacheKey);
+            if (cached != null) {
+                imageServingService.serve(cached, request, response);
+                return;
+            }
+            
+            StoredImage image = imageStoreService.resolve(filename);
+            if (image == null) {
+                response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+                return;
+            }
+            
+            // 축소본 요청 시 생성이 끝난 축소본을 제공, 아직 없으면 생성을 예약하고 원본으로 대체 (대체 응답은 캐시하지 않음)
+            if (variant != null) {
+                Path variantPath = imageVariantService.resolve(image.key(), variant);
+                if (variantPath != null) {
+                    serveImmutableImage(cacheKey, variantPath, MediaType.IMAGE_JPEG_VALUE,
+                            "\"" + image.key() + "-" + variant.getKey() + "\"", request, response);
+                    return;
+                }
+                imageVariantService.submit(image.key(), image.path());
+                imageServingService.serve(image.path(), ImageServingService.contentTypeOf(filename),
+                        "\"" + image.key() + "\"", ImageServingService.SHORT_CACHE, request, response);
+                return;
+            }
+            
+            serveImmutableImage(cacheKey, image.path(), ImageServingService.contentTypeOf(filename),
+                    "\"" + image.key() + "\"", request, response);
+        } catch (Exception e) {
+            logger.error("이미지 조회 중 오류 발생: {}", filename, e);
+            if (!response.isCommitted()) {
+                response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            }
+        }
+    }
+    
+    // 이미지 메모리 캐시 적중률/사용량 조회
+    @GetMapping("/image-cache/stats")
+    public ResponseEntity<ImageCacheStatsResponse> getImageCacheStats() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(imageCacheService.stats());
+    }
+    
+    // 캐시 적재 대상이면 메모리에서, 아니면 파일에서 바로 전송
+    private void serveImmutableImage(String cacheKey, Path path, String contentType, String etag,
+                                     HttpServletRequest request, HttpServletResponse response) throws IOException {
+        CachedImage loaded = imageCacheService.load(cacheKey, path, contentType, etag, ImageServingService.IMMUTABLE_CACHE);
+        if (loaded != null) {
+            imageServingService.serve(loaded, request, response);
+        } else {
+            imageServingService.serve(path, contentType, etag, ImageServingService.IMMUTABLE_CACHE, request, response);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.demo.controller;
+
+import com.example.demo.service.UserDataExportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api/export")
+@CrossOrigin(origins = "http://13.124.207.117:3000")
+public class ExportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportController.class);
+    private final UserDataExportService userDataExportService;
+
+    public ExportController(UserDataExportService userDataExportService) {
+        this.userDataExportService = userDataExportService;
+    }
+
+    // 사용자 전체 데이터 내보내기
+    // type: all | records | routine-checks | challenges, format: ndjson | csv (csv 는 type 하나만 지원)
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(value = "type", defaultValue = "all") String type,
+            @RequestParam(value = "format", defaultValue = "ndjson") String format,
+            @RequestParam(value = "gzip", defaultValue = "false") boolean gzip,
+            @RequestHeader(value = "X-User-Id", required = false) Long userId) {
+        
+        if (userId == null) {
+            userId = 1L;
+        }
+        
+        UserDataExportService.Dataset dataset;
+        UserDataExportService.Format exportFormat;
+        try {
+            dataset = UserDataExportService.Dataset.valueOf(type.toUpperCase().replace('-', '_'));
+            exportFormat = UserDataExportService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (exportFormat == UserDataExportService.Format.CSV && dataset == UserDataExportService.Dataset.ALL) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        logger.info("📦 데이터 내보내기 - userId: {}, type: {}, format: {}, gzip: {}", userId, dataset, exportFormat, gzip);
+        
+        // 본문을 쓰는 시점에만 DB 커넥션을 사용 (요청 스레드에서는 조회하지 않음)
+        final Long finalUserId = userId;
+        StreamingResponseBody body = outputStream -> {
+            if (gzip) {
+                GZIPOutputStream gzipStream = new GZIPOutputStream(outputStream, 8192);
+                userDataExportService.export(finalUserId, dataset, exportFormat, gzipStream);
+                gzipStream.finish();
+            } else {
+                userDataExportService.export(finalUserId, dataset, exportFormat, outputStream);
+            }
+        };
+        
+        String extension = exportFormat == UserDataExportService.Format.CSV ? ".csv" : ".ndjson";
+        String filename = "export-" + type.toLowerCase() + extension + (gzip ? ".gz" : "");
+        MediaType contentType;
+        if (gzip) {
+            contentType = MediaType.parseMediaType("application/gzip");
+        } else if (exportFormat == UserDataExportService.Format.CSV) {
+            contentType = MediaType.parseMediaType("text/csv;charset=UTF-8");
+        } else {
+            contentType = MediaType.APPLICATION_NDJSON;
+        }
+        
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+}
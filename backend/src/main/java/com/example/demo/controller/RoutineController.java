@@ -2,16 +2,22 @@ package com.example.demo.controller;
 
 import com.example.demo.dto.*;
 import com.example.demo.entity.Routine;
-import com.example.demo.entity.RoutineCheck;
 import com.example.demo.repository.RoutineRepository;
 import com.example.demo.repository.RoutineCheckRepository;
+import com.example.demo.repository.RoutineCheckView;
+import com.example.demo.repository.RoutineView;
+import com.example.demo.service.SharedChallengeDetailService;
+import com.example.demo.service.UserDataVersionService;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -26,17 +32,26 @@ public class RoutineController {
     private static final Logger logger = LoggerFactory.getLogger(RoutineController.class);
     private final RoutineRepository routineRepository;
     private final RoutineCheckRepository routineCheckRepository;
+    private final UserDataVersionService userDataVersionService;
+    private final SharedChallengeDetailService sharedChallengeDetailService;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
-    public RoutineController(RoutineRepository routineRepository, RoutineCheckRepository routineCheckRepository) {
+    public RoutineController(
+            RoutineRepository routineRepository,
+            RoutineCheckRepository routineCheckRepository,
+            UserDataVersionService userDataVersionService,
+            SharedChallengeDetailService sharedChallengeDetailService) {
         this.routineRepository = routineRepository;
         this.routineCheckRepository = routineCheckRepository;
+        this.userDataVersionService = userDataVersionService;
+        this.sharedChallengeDetailService = sharedChallengeDetailService;
     }
 
     // 루틴 조회 (사용자의 모든 루틴)
     @GetMapping
     public ResponseEntity<List<RoutineResponse>> getRoutines(
-            @RequestHeader(value = "X-User-Id", required = false) Long userId) {
+            @RequestHeader(value = "X-User-Id", required = false) Long userId,
+            WebRequest webRequest) {
         
         if (userId == null) {
             userId = 1L;
@@ -44,16 +59,27 @@ public class RoutineController {
         
         logger.info("📋 루틴 조회 - userId: {}", userId);
         
-        List<Routine> routines = routineRepository.findByUserId(userId);
+        // 변경이 없으면 DB 조회 없이 304 반환
+        String etag = userDataVersionService.etag(userId, "routines");
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        
+        List<RoutineView> routines = routineRepository.findViewsByUserId(userId);
         List<RoutineResponse> responses = routines.stream()
                 .map(this::convertToResponse)
                 .collect(Collectors.toList());
         
-        return ResponseEntity.ok(responses);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy("X-User-Id")
+                .body(responses);
     }
 
     // 특정 타입의 루틴 조회
     @GetMapping("/{routineType}")
+    @Transactional(readOnly = true)
     public ResponseEntity<RoutineResponse> getRoutineByType(
             @PathVariable("routineType") String routineType,
             @RequestHeader(value = "X-User-Id", required = false) Long userId) {
@@ -64,7 +90,7 @@ public class RoutineController {
         
         logger.info("📋 루틴 조회 - userId: {}, type: {}", userId, routineType);
         
-        Optional<Routine> routineOpt = routineRepository.findByUserIdAndRoutineType(userId, routineType.toUpperCase());
+        Optional<RoutineView> routineOpt = routineRepository.findViewByUserIdAndRoutineType(userId, routineType.toUpperCase());
         
         if (routineOpt.isPresent()) {
             RoutineResponse response = convertToResponse(routineOpt.get());
@@ -106,7 +132,10 @@ public class RoutineController {
             routine.setRoutineItems(routineItemsJson);
             
             Routine savedRoutine = routineRepository.save(routine);
+            // 저장 직후 가장 먼저 캐시 제거 (루틴 항목 수는 소유자의 모든 챌린지 상세에 쓰임)
+            sharedChallengeDetailService.invalidateOwner(userId);
             logger.info("✅ 루틴 저장 완료 - id: {}", savedRoutine.getId());
+            userDataVersionService.bump(userId);
             
             RoutineResponse response = convertToResponse(savedRoutine);
             return ResponseEntity.ok(response);
@@ -119,6 +148,7 @@ public class RoutineController {
 
     // 루틴 체크 조회 (특정 날짜)
     @GetMapping("/checks/{date}")
+    @Transactional(readOnly = true)
     public ResponseEntity<List<RoutineCheckResponse>> getRoutineChecksByDate(
             @PathVariable("date") String date,
             @RequestHeader(value = "X-User-Id", required = false) Long userId) {
@@ -130,7 +160,7 @@ public class RoutineController {
         LocalDate checkDate = LocalDate.parse(date);
         logger.info("📅 루틴 체크 조회 - userId: {}, date: {}", userId, checkDate);
         
-        List<RoutineCheck> checks = routineCheckRepository.findByUserIdAndCheckDate(userId, checkDate);
+        List<RoutineCheckView> checks = routineCheckRepository.findViewsByUserIdAndCheckDate(userId, checkDate);
         List<RoutineCheckResponse> responses = checks.stream()
                 .map(this::convertCheckToResponse)
                 .collect(Collectors.toList());
@@ -152,27 +182,23 @@ public class RoutineController {
                 userId, request.getCheckDate(), request.getRoutineType());
         
         try {
-            Optional<RoutineCheck> existingCheck = routineCheckRepository.findByUserIdAndCheckDateAndRoutineType(
-                    userId, request.getCheckDate(), request.getRoutineType().toUpperCase());
-            
-            RoutineCheck check;
-            if (existingCheck.isPresent()) {
-                check = existingCheck.get();
-                logger.info("✏️ 기존 루틴 체크 수정 - id: {}", check.getId());
-            } else {
-                check = new RoutineCheck();
-                check.setUserId(userId);
-                check.setCheckDate(request.getCheckDate());
-                check.setRoutineType(request.getRoutineType().toUpperCase());
-                logger.info("➕ 새 루틴 체크 생성");
-            }
+            String routineType = request.getRoutineType().toUpperCase();
             
             // JSON 문자열로 변환
             String checkedItemsJson = objectMapper.writeValueAsString(request.getCheckedItems());
-            check.setCheckedItems(checkedItemsJson);
             
-            RoutineCheck savedCheck = routineCheckRepository.save(check);
+            // 유니크 키 기반 단일 쿼리로 생성/수정 (조회 후 저장 방식의 중복 생성 경쟁 제거)
+            int affected = routineCheckRepository.upsert(
+                    userId, request.getCheckDate(), routineType, checkedItemsJson);
+            logger.info(affected == 1 ? "➕ 새 루틴 체크 생성" : "✏️ 기존 루틴 체크 수정");
+            // 저장 직후 가장 먼저 캐시 제거 (이후 조회가 실패해도 오래된 상세가 남지 않도록)
+            sharedChallengeDetailService.invalidateOverlapping(userId, request.getCheckDate(), request.getCheckDate());
+            
+            RoutineCheckView savedCheck = routineCheckRepository
+                    .findViewByUserIdAndCheckDateAndRoutineType(userId, request.getCheckDate(), routineType)
+                    .orElseThrow();
             logger.info("✅ 루틴 체크 저장 완료 - id: {}", savedCheck.getId());
+            userDataVersionService.bump(userId);
             
             RoutineCheckResponse response = convertCheckToResponse(savedCheck);
             return ResponseEntity.ok(response);
@@ -188,40 +214,41 @@ public class RoutineController {
         response.setId(routine.getId());
         response.setUserId(routine.getUserId());
         response.setRoutineType(routine.getRoutineType());
+        response.setRoutineItems(parseItems(routine.getRoutineItems()));
+        response.setCreatedAt(routine.getCreatedAt());
+        response.setUpdatedAt(routine.getUpdatedAt());
+        return response;
+    }
+
+    private RoutineResponse convertToResponse(RoutineView routine) {
+        RoutineResponse response = new RoutineResponse();
+        response.setId(routine.getId());
+        response.setUserId(routine.getUserId());
+        response.setRoutineType(routine.getRoutineType());
+        response.setRoutineItems(parseItems(routine.getRoutineItems()));
         response.setCreatedAt(routine.getCreatedAt());
         response.setUpdatedAt(routine.getUpdatedAt());
-        
-        try {
-            List<String> items = objectMapper.readValue(routine.getRoutineItems(), 
-                    new TypeReference<List<String>>() {});
-            response.setRoutineItems(items);
-        } catch (Exception e) {
-            logger.error("JSON 파싱 오류", e);
-            response.setRoutineItems(List.of());
-        }
-        
         return response;
     }
 
-    private RoutineCheckResponse convertCheckToResponse(RoutineCheck check) {
+    private RoutineCheckResponse convertCheckToResponse(RoutineCheckView check) {
         RoutineCheckResponse response = new RoutineCheckResponse();
         response.setId(check.getId());
         response.setUserId(check.getUserId());
         response.setCheckDate(check.getCheckDate());
         response.setRoutineType(check.getRoutineType());
+        response.setCheckedItems(parseItems(check.getCheckedItems()));
         response.setCreatedAt(check.getCreatedAt());
         response.setUpdatedAt(check.getUpdatedAt());
-        
+        return response;
+    }
+
+    private List<String> parseItems(String json) {
         try {
-            List<String> items = objectMapper.readValue(check.getCheckedItems(), 
-                    new TypeReference<List<String>>() {});
-            response.setCheckedItems(items);
+            return objectMapper.readValue(json, new TypeReference<List<String>>() {});
         } catch (Exception e) {
             logger.error("JSON 파싱 오류", e);
-            response.setCheckedItems(List.of());
+            return List.of();
         }
-        
-        return response;
     }
 }
-
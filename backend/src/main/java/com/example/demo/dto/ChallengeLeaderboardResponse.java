@@ -0,0 +1,24 @@
+package com.example.demo.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import java.util.List;
+
+@Getter
+@Setter
+public class ChallengeLeaderboardResponse {
+    private Long challengeId;
+    private int participants;  // 소유자 + 공유를 수락한 사용자 수
+    private List<Entry> top;  // 점수 상위 k명
+    private int myRank;  // 내 순위 (동점은 같은 순위)
+    private int myScore;
+
+    @Getter
+    @Setter
+    public static class Entry {
+        private int rank;
+        private Long userId;
+        private String name;
+        private int score;  // 기간 내 날짜별로 달성한 지표 수의 합
+    }
+}
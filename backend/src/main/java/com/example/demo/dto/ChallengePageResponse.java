@@ -0,0 +1,16 @@
+package com.example.demo.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@Setter
+public class ChallengePageResponse {
+    private List<ChallengeResponse> challenges;
+    private boolean hasNext;  // 다음 페이지 존재 여부
+    private LocalDate nextCursorEndDate;  // 다음 페이지 요청 시 cursorEndDate 로 전달
+    private LocalDate nextCursorStartDate;  // 다음 페이지 요청 시 cursorStartDate 로 전달
+    private Long nextCursorId;  // 다음 페이지 요청 시 cursorId 로 전달
+}
@@ -0,0 +1,22 @@
+package com.example.demo.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+public class ExerciseRecordImportResponse {
+    private int totalRows;  // 처리한 데이터 행 수 (헤더 제외)
+    private int importedRows;  // 저장된 행 수
+    private int failedRows;  // 검증 실패 행 수
+    private List<RowError> errors = new ArrayList<>();  // 행별 오류 (최대 개수까지만 포함)
+
+    @Getter
+    @Setter
+    public static class RowError {
+        private long line;  // 파일 기준 줄 번호 (1부터 시작)
+        private String message;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.demo.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@Setter
+public class ExerciseRecordPageResponse {
+    private List<ExerciseRecordResponse> records;
+    private boolean hasNext;  // 다음 페이지 존재 여부
+    private LocalDate nextCursorDate;  // 다음 페이지 요청 시 cursorDate 로 전달
+    private Long nextCursorId;  // 다음 페이지 요청 시 cursorId 로 전달
+}
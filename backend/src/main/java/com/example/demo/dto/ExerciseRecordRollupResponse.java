@@ -0,0 +1,31 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExerciseRecordRollupResponse {
+    private String periodType;  // WEEK, MONTH
+    private LocalDate periodStart;
+    private LocalDate periodEnd;
+    private int daysRecorded;
+    private int totalExerciseDuration;
+    private Double weightMin;
+    private Double weightMax;
+    private Double weightAvg;
+    private Double weightLast;
+    private Double bodyFatMin;
+    private Double bodyFatMax;
+    private Double bodyFatAvg;
+    private Double bodyFatLast;
+    private Double muscleMassMin;
+    private Double muscleMassMax;
+    private Double muscleMassAvg;
+    private Double muscleMassLast;
+}
@@ -0,0 +1,25 @@
+package com.example.demo.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@Setter
+public class ExerciseRecordSeriesResponse {
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private int targetPoints;  // 지표별 최대 점 개수
+    private Series weight;
+    private Series bodyFatPercentage;
+    private Series muscleMass;
+
+    @Getter
+    @Setter
+    public static class Series {
+        private int originalPoints;  // 다운샘플링 전 점 개수
+        private List<LocalDate> dates;
+        private double[] values;
+    }
+}
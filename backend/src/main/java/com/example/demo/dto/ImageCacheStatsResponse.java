@@ -0,0 +1,16 @@
+package com.example.demo.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class ImageCacheStatsResponse {
+    private long hits;  // 캐시에서 바로 응답한 횟수
+    private long misses;  // 파일에서 읽은 횟수
+    private long evictions;  // 용량 초과로 제거된 항목 수
+    private int entries;
+    private long bytes;  // 현재 사용 중인 메모리 (바이트)
+    private long maxBytes;
+    private double hitRate;
+}
@@ -0,0 +1,18 @@
+package com.example.demo.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class SharedDetailCacheStatsResponse {
+    private long hits;  // 캐시에서 바로 응답한 횟수
+    private long misses;  // DB 에서 다시 계산한 횟수
+    private long invalidations;  // 소유자 쓰기로 제거된 항목 수
+    private long evictions;  // 개수 초과로 제거된 항목 수
+    private int entries;
+    private int maxEntries;
+    private double hitRate;
+    private long averageHitAgeMs;  // 적중 시 응답한 항목이 계산된 뒤 지난 시간 (평균)
+    private long maxHitAgeMs;  // 적중 시 응답한 항목 중 가장 오래된 것
+}
@@ -0,0 +1,11 @@
+package com.example.demo.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class UploadSessionRequest {
+    private String filename;  // 원본 파일명 (확장자 판단용)
+    private Long size;  // 전체 파일 크기 (바이트)
+}
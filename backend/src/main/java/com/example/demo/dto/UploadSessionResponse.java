@@ -0,0 +1,14 @@
+package com.example.demo.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class UploadSessionResponse {
+    private String uploadId;
+    private Long offset;  // 서버에 저장 완료된 바이트 수 (다음 PATCH 의 Upload-Offset)
+    private Long size;  // 전체 파일 크기
+    private boolean completed;
+    private String imageUrl;  // 완료 시 이미지 URL
+}
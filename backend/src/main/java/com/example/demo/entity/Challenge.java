@@ -9,7 +9,10 @@ import java.time.LocalDateTime;
 @Entity
 @Getter
 @Setter
-@Table(name = "challenges")
+@Table(name = "challenges",
+        indexes = {
+                @Index(name = "idx_challenges_user_end_start", columnList = "user_id, end_date, start_date")
+        })
 public class Challenge {
 
     @Id
@@ -0,0 +1,51 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// 챌린지별 전체 진행상황 (기록 저장 시 같은 트랜잭션에서 증분 갱신)
+// 성공 여부/달성률은 목표가 바뀔 수 있으므로 저장하지 않고 조회 시 아래 값과 현재 목표로 계산
+@Entity
+@Getter
+@Setter
+@Table(name = "challenge_progress",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_challenge_progress_challenge", columnNames = {"challenge_id"})
+        })
+public class ChallengeProgress {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "challenge_id", nullable = false)
+    private Long challengeId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "recorded_days", nullable = false)
+    private int recordedDays;  // 기간 내 값이 하나라도 있는 날짜 수
+
+    @Column(name = "total_exercise_duration", nullable = false)
+    private int totalExerciseDuration;  // 기간 내 운동시간 합계 (분)
+
+    @Column(name = "last_record_date")
+    private LocalDate lastRecordDate;  // 값이 있는 마지막 기록 날짜
+
+    private Double lastWeight;
+    private Double lastBodyFatPercentage;
+    private Double lastMuscleMass;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// 종료된 챌린지의 상세 응답(JSON) 스냅샷 - 챌린지 id 로 한 번 조회해서 그대로 응답
+@Entity
+@Getter
+@Setter
+@Table(name = "challenge_snapshots",
+        indexes = {
+                @Index(name = "idx_challenge_snapshots_user_dates", columnList = "user_id, start_date, end_date")
+        })
+public class ChallengeSnapshot {
+
+    @Id
+    @Column(name = "challenge_id")
+    private Long challengeId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // 기간 내 기록이 수정되면 스냅샷을 지우기 위해 챌린지 기간도 보관
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+
+    @Column(name = "end_date", nullable = false)
+    private LocalDate endDate;
+
+    @Lob
+    @Column(name = "payload", nullable = false, columnDefinition = "LONGBLOB")
+    private byte[] payload;  // ChallengeDetailResponse JSON (UTF-8)
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -9,7 +9,13 @@ import java.time.LocalDateTime;
 @Entity
 @Getter
 @Setter
-@Table(name = "exercise_records")
+@Table(name = "exercise_records",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_exercise_records_user_date", columnNames = {"user_id", "record_date"})
+        },
+        indexes = {
+                @Index(name = "idx_exercise_records_user_date_id", columnList = "user_id, record_date, id")
+        })
 public class ExerciseRecord {
 
     @Id
@@ -0,0 +1,58 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Getter
+@Setter
+@Table(name = "exercise_record_rollups",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_exercise_record_rollups_user_period",
+                        columnNames = {"user_id", "period_type", "period_start"})
+        })
+public class ExerciseRecordRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "period_type", nullable = false, length = 10)
+    private String periodType;  // "WEEK" or "MONTH"
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;  // 주: 월요일, 월: 1일
+
+    @Column(name = "period_end", nullable = false)
+    private LocalDate periodEnd;
+
+    @Column(name = "days_recorded", nullable = false)
+    private int daysRecorded;  // 기록이 있는 날짜 수
+
+    @Column(name = "total_exercise_duration", nullable = false)
+    private int totalExerciseDuration;  // 운동시간 합계 (분)
+
+    private Double weightMin;
+    private Double weightMax;
+    private Double weightAvg;
+    private Double weightLast;  // 기간 내 마지막 기록 값
+
+    private Double bodyFatMin;
+    private Double bodyFatMax;
+    private Double bodyFatAvg;
+    private Double bodyFatLast;
+
+    private Double muscleMassMin;
+    private Double muscleMassMax;
+    private Double muscleMassAvg;
+    private Double muscleMassLast;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
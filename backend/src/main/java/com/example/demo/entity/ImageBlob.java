@@ -0,0 +1,47 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+// 내용(SHA-256) 기준으로 한 번만 저장되는 이미지 원본
+@Entity
+@Getter
+@Setter
+@Table(name = "image_blobs",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_image_blobs_hash", columnNames = {"hash"})
+        })
+public class ImageBlob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "hash", nullable = false, length = 64)
+    private String hash;  // SHA-256 (16진수 소문자)
+
+    @Column(name = "size", nullable = false)
+    private Long size;  // 바이트
+
+    @Column(name = "ref_count", nullable = false)
+    private Integer refCount;  // 이 내용을 가리키는 파일명 수
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
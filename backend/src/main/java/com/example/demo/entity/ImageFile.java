@@ -0,0 +1,41 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+// 업로드 URL 의 파일명 → 저장된 이미지 내용(hash) 매핑
+@Entity
+@Getter
+@Setter
+@Table(name = "image_files",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_image_files_filename", columnNames = {"filename"})
+        },
+        indexes = {
+                @Index(name = "idx_image_files_hash", columnList = "hash")
+        })
+public class ImageFile {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "filename", nullable = false, length = 100)
+    private String filename;  // UUID + 확장자 (/api/exercise-records/images/{filename})
+
+    @Column(name = "hash", nullable = false, length = 64)
+    private String hash;
+
+    @Column(name = "user_id")
+    private Long userId;  // 업로드한 사용자
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import java.time.LocalDate;
+
+// 기록의 imageUrl 이 참조하는 업로드 파일명 (기록 저장 시 함께 갱신, 이미지 정리 작업이 파일명으로 조회)
+@Entity
+@Getter
+@Setter
+@Table(name = "image_references",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_image_references_record_filename",
+                        columnNames = {"user_id", "record_date", "filename"})
+        },
+        indexes = {
+                @Index(name = "idx_image_references_filename", columnList = "filename")
+        })
+public class ImageReference {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "record_date", nullable = false)
+    private LocalDate recordDate;
+
+    @Column(name = "filename", nullable = false, length = 255)
+    private String filename;
+}
@@ -9,7 +9,10 @@ import java.time.LocalDateTime;
 @Entity
 @Getter
 @Setter
-@Table(name = "routine_checks")
+@Table(name = "routine_checks",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_routine_checks_user_date_type", columnNames = {"user_id", "check_date", "routine_type"})
+        })
 public class RoutineCheck {
 
     @Id
@@ -0,0 +1,62 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+// 이어받기 가능한 이미지 업로드 세션
+@Entity
+@Getter
+@Setter
+@Table(name = "upload_sessions",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_upload_sessions_upload_id", columnNames = {"upload_id"})
+        },
+        indexes = {
+                @Index(name = "idx_upload_sessions_updated_at", columnList = "updated_at")
+        })
+public class UploadSession {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "upload_id", nullable = false, length = 36)
+    private String uploadId;  // UUID (URL 에 사용)
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "original_filename")
+    private String originalFilename;
+
+    @Column(name = "total_size", nullable = false)
+    private Long totalSize;
+
+    @Column(name = "committed_offset", nullable = false)
+    private Long committedOffset;  // 디스크에 기록(fsync)된 바이트 수
+
+    @Column(name = "status", nullable = false, length = 20)
+    private String status;  // "ACTIVE" or "COMPLETED"
+
+    @Column(name = "filename", length = 100)
+    private String filename;  // 완료 후 이미지 저장소의 파일명
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
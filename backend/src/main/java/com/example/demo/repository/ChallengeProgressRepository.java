@@ -0,0 +1,26 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.ChallengeProgress;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Optional;
+
+public interface ChallengeProgressRepository extends JpaRepository<ChallengeProgress, Long> {
+    Optional<ChallengeProgress> findByChallengeId(Long challengeId);
+
+    // 같은 사용자의 동시 기록 저장이 증분을 덮어쓰지 않도록 행 잠금 후 갱신
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM ChallengeProgress p WHERE p.challengeId = :challengeId")
+    Optional<ChallengeProgress> findForUpdateByChallengeId(@Param("challengeId") Long challengeId);
+
+    // 진행상황 행이 없을 때만 빈 값으로 생성 (동시 호출이 같은 행을 두 번 만들지 않도록), 생성했으면 1
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO challenge_progress (challenge_id, user_id, recorded_days, total_exercise_duration, updated_at) " +
+                   "VALUES (:challengeId, :userId, 0, 0, NOW(6))",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("challengeId") Long challengeId, @Param("userId") Long userId);
+}
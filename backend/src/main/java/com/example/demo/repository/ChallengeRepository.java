@@ -1,15 +1,110 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.ChallengeResponse;
 import com.example.demo.entity.Challenge;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ChallengeRepository extends JpaRepository<Challenge, Long> {
+    // 조회 전용 응답 프로젝션 (진행중 여부는 :today 기준으로 쿼리에서 계산)
+    String RESPONSE_PROJECTION = "SELECT new com.example.demo.dto.ChallengeResponse(" +
+            "c.id, c.userId, c.name, c.startDate, c.endDate, c.targetWeight, c.targetBodyFatPercentage, " +
+            "c.targetMuscleMass, c.targetExerciseDuration, c.createdAt, c.updatedAt, " +
+            "CASE WHEN c.startDate <= :today AND c.endDate >= :today THEN true ELSE false END) FROM Challenge c ";
+
+    // 진행중 / 예정 / 종료 구분 (idx_challenges_user_end_start 범위 조회)
+    String ACTIVE_CONDITION = "WHERE c.userId = :userId AND c.endDate >= :today AND c.startDate <= :today ";
+    String UPCOMING_CONDITION = "WHERE c.userId = :userId AND c.endDate >= :today AND c.startDate > :today ";
+    String PAST_CONDITION = "WHERE c.userId = :userId AND c.endDate < :today ";
+    // 키셋 페이지네이션 정렬/커서 (인덱스 컬럼 순서와 같은 end_date, start_date, id)
+    String ORDER_ASC = "ORDER BY c.endDate, c.startDate, c.id";
+    String ORDER_DESC = "ORDER BY c.endDate DESC, c.startDate DESC, c.id DESC";
+    String AFTER_CURSOR_ASC = "AND (c.endDate > :cursorEndDate OR (c.endDate = :cursorEndDate " +
+            "AND (c.startDate > :cursorStartDate OR (c.startDate = :cursorStartDate AND c.id > :cursorId)))) ";
+    String AFTER_CURSOR_DESC = "AND (c.endDate < :cursorEndDate OR (c.endDate = :cursorEndDate " +
+            "AND (c.startDate < :cursorStartDate OR (c.startDate = :cursorStartDate AND c.id < :cursorId)))) ";
+
     List<Challenge> findByUserIdOrderByStartDateDesc(Long userId);
+    boolean existsByIdAndUserId(Long id, Long userId);
     List<Challenge> findByUserIdAndEndDateBeforeOrderByStartDateDesc(Long userId, LocalDate date);
     List<Challenge> findByUserIdAndEndDateGreaterThanEqualOrderByStartDateDesc(Long userId, LocalDate date);
-}
 
+    // 해당 기간에 걸치는 사용자의 챌린지 (기록 저장 시 진행상황 갱신 대상)
+    @Query("SELECT c FROM Challenge c WHERE c.userId = :userId AND c.startDate <= :endDate AND c.endDate >= :startDate")
+    List<Challenge> findOverlapping(@Param("userId") Long userId,
+                                    @Param("startDate") LocalDate startDate,
+                                    @Param("endDate") LocalDate endDate);
+
+    // 스냅샷이 없는 종료된 챌린지 (id 순 키셋 배치)
+    @Query("SELECT c.id FROM Challenge c WHERE c.endDate < :today AND c.id > :afterId " +
+           "AND NOT EXISTS (SELECT s.challengeId FROM ChallengeSnapshot s WHERE s.challengeId = c.id) ORDER BY c.id")
+    List<Long> findEndedIdsWithoutSnapshot(@Param("today") LocalDate today, @Param("afterId") Long afterId, Limit limit);
+
+    @Transactional(readOnly = true)
+    @Query(RESPONSE_PROJECTION + "WHERE c.userId = :userId ORDER BY c.startDate DESC")
+    List<ChallengeResponse> findResponsesByUserId(@Param("userId") Long userId, @Param("today") LocalDate today);
+
+    @Transactional(readOnly = true)
+    @Query(RESPONSE_PROJECTION + "WHERE c.id = :id")
+    Optional<ChallengeResponse> findResponseById(@Param("id") Long id, @Param("today") LocalDate today);
 
+    // 진행중인 챌린지 페이지 (종료일이 가까운 순)
+    @Transactional(readOnly = true)
+    @Query(RESPONSE_PROJECTION + ACTIVE_CONDITION + ORDER_ASC)
+    List<ChallengeResponse> findActivePage(@Param("userId") Long userId, @Param("today") LocalDate today, Limit limit);
 
+    @Transactional(readOnly = true)
+    @Query(RESPONSE_PROJECTION + ACTIVE_CONDITION + AFTER_CURSOR_ASC + ORDER_ASC)
+    List<ChallengeResponse> findActivePageAfterCursor(@Param("userId") Long userId,
+                                                      @Param("today") LocalDate today,
+                                                      @Param("cursorEndDate") LocalDate cursorEndDate,
+                                                      @Param("cursorStartDate") LocalDate cursorStartDate,
+                                                      @Param("cursorId") Long cursorId,
+                                                      Limit limit);
+
+    // 시작 전인 챌린지 페이지 (종료일이 가까운 순)
+    @Transactional(readOnly = true)
+    @Query(RESPONSE_PROJECTION + UPCOMING_CONDITION + ORDER_ASC)
+    List<ChallengeResponse> findUpcomingPage(@Param("userId") Long userId, @Param("today") LocalDate today, Limit limit);
+
+    @Transactional(readOnly = true)
+    @Query(RESPONSE_PROJECTION + UPCOMING_CONDITION + AFTER_CURSOR_ASC + ORDER_ASC)
+    List<ChallengeResponse> findUpcomingPageAfterCursor(@Param("userId") Long userId,
+                                                        @Param("today") LocalDate today,
+                                                        @Param("cursorEndDate") LocalDate cursorEndDate,
+                                                        @Param("cursorStartDate") LocalDate cursorStartDate,
+                                                        @Param("cursorId") Long cursorId,
+                                                        Limit limit);
+
+    // 종료된 챌린지 페이지 (최근 종료 순)
+    @Transactional(readOnly = true)
+    @Query(RESPONSE_PROJECTION + PAST_CONDITION + ORDER_DESC)
+    List<ChallengeResponse> findPastPage(@Param("userId") Long userId, @Param("today") LocalDate today, Limit limit);
+
+    @Transactional(readOnly = true)
+    @Query(RESPONSE_PROJECTION + PAST_CONDITION + AFTER_CURSOR_DESC + ORDER_DESC)
+    List<ChallengeResponse> findPastPageAfterCursor(@Param("userId") Long userId,
+                                                    @Param("today") LocalDate today,
+                                                    @Param("cursorEndDate") LocalDate cursorEndDate,
+                                                    @Param("cursorStartDate") LocalDate cursorStartDate,
+                                                    @Param("cursorId") Long cursorId,
+                                                    Limit limit);
+
+    // 전체 챌린지 스트리밍 조회 (트랜잭션 안에서만 사용)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM Challenge c WHERE c.userId = :userId ORDER BY c.startDate, c.id")
+    Stream<Challenge> streamByUserId(@Param("userId") Long userId);
+}
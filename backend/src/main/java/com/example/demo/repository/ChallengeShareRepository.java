@@ -2,6 +2,8 @@ package com.example.demo.repository;
 
 import com.example.demo.entity.ChallengeShare;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.List;
 
 public interface ChallengeShareRepository extends JpaRepository<ChallengeShare, Long> {
@@ -16,6 +18,13 @@ public interface ChallengeShareRepository extends JpaRepository<ChallengeShare,
     
     // 특정 챌린지와 사용자로 공유 조회
     List<ChallengeShare> findByChallengeIdAndToUserIdAndStatus(Long challengeId, Long toUserId, String status);
+
+    // 공유를 수락했는지만 확인 (리더보드 참가 여부)
+    boolean existsByChallengeIdAndToUserIdAndStatus(Long challengeId, Long toUserId, String status);
+
+    // 챌린지를 수락한 사용자 id (리더보드 참가자)
+    @Query("SELECT DISTINCT s.toUserId FROM ChallengeShare s WHERE s.challengeId = :challengeId AND s.status = :status")
+    List<Long> findToUserIdsByChallengeIdAndStatus(@Param("challengeId") Long challengeId, @Param("status") String status);
 }
 
 
@@ -0,0 +1,25 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.ChallengeSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
+
+public interface ChallengeSnapshotRepository extends JpaRepository<ChallengeSnapshot, Long> {
+
+    // 기간에 걸치는 사용자의 스냅샷 삭제 (기록 수정 시)
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ChallengeSnapshot s WHERE s.userId = :userId AND s.startDate <= :endDate AND s.endDate >= :startDate")
+    int deleteOverlapping(@Param("userId") Long userId,
+                          @Param("startDate") LocalDate startDate,
+                          @Param("endDate") LocalDate endDate);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ChallengeSnapshot s WHERE s.challengeId = :challengeId")
+    int deleteByChallengeId(@Param("challengeId") Long challengeId);
+}
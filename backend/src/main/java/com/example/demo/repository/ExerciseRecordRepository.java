@@ -1,16 +1,120 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.ExerciseRecordResponse;
 import com.example.demo.entity.ExerciseRecord;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ExerciseRecordRepository extends JpaRepository<ExerciseRecord, Long> {
+    // 조회 전용 응답 프로젝션 (엔티티를 영속성 컨텍스트에 올리지 않고 결과셋에서 바로 응답 생성)
+    String RESPONSE_PROJECTION = "SELECT new com.example.demo.dto.ExerciseRecordResponse(" +
+            "r.id, r.userId, r.recordDate, r.weight, r.bodyFatPercentage, r.muscleMass, " +
+            "r.exerciseType, r.exerciseDuration, r.imageUrl, r.createdAt, r.updatedAt) FROM ExerciseRecord r ";
+
     Optional<ExerciseRecord> findByUserIdAndRecordDate(Long userId, LocalDate recordDate);
-    List<ExerciseRecord> findByUserIdOrderByRecordDateDesc(Long userId);
     List<ExerciseRecord> findByUserIdAndRecordDateBetween(Long userId, LocalDate startDate, LocalDate endDate);
-}
 
+    // 저장 직전 이전 값 조회 (잠금 읽기라 다른 트랜잭션이 커밋한 최신 값을 읽음)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM ExerciseRecord r WHERE r.userId = :userId AND r.recordDate = :recordDate")
+    Optional<ExerciseRecord> findForUpdateByUserIdAndRecordDate(@Param("userId") Long userId,
+                                                               @Param("recordDate") LocalDate recordDate);
+
+    @Transactional(readOnly = true)
+    @Query(RESPONSE_PROJECTION + "WHERE r.userId = :userId AND r.recordDate = :recordDate")
+    Optional<ExerciseRecordResponse> findResponseByUserIdAndRecordDate(@Param("userId") Long userId,
+                                                                      @Param("recordDate") LocalDate recordDate);
+
+    @Transactional(readOnly = true)
+    @Query(RESPONSE_PROJECTION + "WHERE r.userId = :userId AND r.recordDate BETWEEN :startDate AND :endDate")
+    List<ExerciseRecordResponse> findResponsesByUserIdAndRecordDateBetween(@Param("userId") Long userId,
+                                                                          @Param("startDate") LocalDate startDate,
+                                                                          @Param("endDate") LocalDate endDate);
+
+    @Transactional(readOnly = true)
+    @Query(RESPONSE_PROJECTION + "WHERE r.userId IN :userIds AND r.recordDate BETWEEN :startDate AND :endDate")
+    List<ExerciseRecordResponse> findResponsesByUserIdInAndRecordDateBetween(@Param("userIds") Collection<Long> userIds,
+                                                                            @Param("startDate") LocalDate startDate,
+                                                                            @Param("endDate") LocalDate endDate);
+
+    // 차트용 지표만 날짜순 조회 (recordDate, weight, bodyFatPercentage, muscleMass)
+    @Query("SELECT r.recordDate, r.weight, r.bodyFatPercentage, r.muscleMass FROM ExerciseRecord r " +
+           "WHERE r.userId = :userId AND r.recordDate BETWEEN :startDate AND :endDate ORDER BY r.recordDate")
+    List<Object[]> findMetricsByUserIdAndRecordDateBetween(@Param("userId") Long userId,
+                                                           @Param("startDate") LocalDate startDate,
+                                                           @Param("endDate") LocalDate endDate);
 
+    // 키셋 페이지네이션 - 첫 페이지 (record_date, id 내림차순)
+    @Query(RESPONSE_PROJECTION + "WHERE r.userId = :userId ORDER BY r.recordDate DESC, r.id DESC")
+    List<ExerciseRecordResponse> findFirstPage(@Param("userId") Long userId, Limit limit);
 
+    // 키셋 페이지네이션 - 커서 (recordDate, id) 이후 페이지
+    @Query(RESPONSE_PROJECTION + "WHERE r.userId = :userId " +
+           "AND (r.recordDate < :cursorDate OR (r.recordDate = :cursorDate AND r.id < :cursorId)) " +
+           "ORDER BY r.recordDate DESC, r.id DESC")
+    List<ExerciseRecordResponse> findPageAfterCursor(@Param("userId") Long userId,
+                                                     @Param("cursorDate") LocalDate cursorDate,
+                                                     @Param("cursorId") Long cursorId,
+                                                     Limit limit);
+
+    // 전체 기록 스트리밍 조회 (트랜잭션 안에서만 사용, 행 단위로 읽어옴)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT r FROM ExerciseRecord r WHERE r.userId = :userId ORDER BY r.recordDate DESC, r.id DESC")
+    Stream<ExerciseRecord> streamByUserId(@Param("userId") Long userId);
+
+    // 전체 기록 응답 스트리밍 조회 (관리되는 엔티티가 없어 분리(detach) 불필요)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(RESPONSE_PROJECTION + "WHERE r.userId = :userId ORDER BY r.recordDate DESC, r.id DESC")
+    Stream<ExerciseRecordResponse> streamResponsesByUserId(@Param("userId") Long userId);
+
+    // 이미지가 첨부된 기록 (id, userId, recordDate, imageUrl) 을 id 순으로 한 배치씩 (이미지 참조 백필용)
+    @Transactional(readOnly = true)
+    @Query("SELECT r.id, r.userId, r.recordDate, r.imageUrl FROM ExerciseRecord r " +
+           "WHERE r.id > :afterId AND r.imageUrl IS NOT NULL AND r.imageUrl <> '' ORDER BY r.id")
+    List<Object[]> findImageUrlsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    // 집계 계산용 기간 내 기록 (record_date, weight, body_fat_percentage, muscle_mass, exercise_duration)
+    // 공유 잠금 읽기라서 트랜잭션 시작 시점 스냅샷이 아니라 커밋된 최신 행을 읽음 (집계 행을 잠근 뒤 호출)
+    @Query(value = "SELECT record_date, weight, body_fat_percentage, muscle_mass, exercise_duration FROM exercise_records " +
+                   "WHERE user_id = :userId AND record_date BETWEEN :startDate AND :endDate LOCK IN SHARE MODE",
+           nativeQuery = true)
+    List<Object[]> findRollupRowsLocked(@Param("userId") Long userId,
+                                        @Param("startDate") LocalDate startDate,
+                                        @Param("endDate") LocalDate endDate);
+
+    // (user_id, record_date) 유니크 키 기반 단일 쿼리 저장/수정 (동시 요청에도 중복 행이 생기지 않음)
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO exercise_records " +
+                   "(user_id, record_date, weight, body_fat_percentage, muscle_mass, exercise_type, exercise_duration, image_url, created_at, updated_at) " +
+                   "VALUES (:userId, :recordDate, :weight, :bodyFatPercentage, :muscleMass, :exerciseType, :exerciseDuration, :imageUrl, NOW(6), NOW(6)) " +
+                   "ON DUPLICATE KEY UPDATE weight = VALUES(weight), body_fat_percentage = VALUES(body_fat_percentage), " +
+                   "muscle_mass = VALUES(muscle_mass), exercise_type = VALUES(exercise_type), " +
+                   "exercise_duration = VALUES(exercise_duration), image_url = VALUES(image_url), updated_at = NOW(6)",
+           nativeQuery = true)
+    int upsert(@Param("userId") Long userId,
+               @Param("recordDate") LocalDate recordDate,
+               @Param("weight") Double weight,
+               @Param("bodyFatPercentage") Double bodyFatPercentage,
+               @Param("muscleMass") Double muscleMass,
+               @Param("exerciseType") String exerciseType,
+               @Param("exerciseDuration") Integer exerciseDuration,
+               @Param("imageUrl") String imageUrl);
+}
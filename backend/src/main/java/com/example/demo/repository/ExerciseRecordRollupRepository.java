@@ -0,0 +1,73 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.ExerciseRecordRollupResponse;
+import com.example.demo.entity.ExerciseRecordRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ExerciseRecordRollupRepository extends JpaRepository<ExerciseRecordRollup, Long> {
+
+    // 기간 범위에 걸치는 집계 조회 (주 단위 1년 ≈ 52행, 월 단위 3년 ≈ 36행)
+    @Query("SELECT new com.example.demo.dto.ExerciseRecordRollupResponse(" +
+           "r.periodType, r.periodStart, r.periodEnd, r.daysRecorded, r.totalExerciseDuration, " +
+           "r.weightMin, r.weightMax, r.weightAvg, r.weightLast, " +
+           "r.bodyFatMin, r.bodyFatMax, r.bodyFatAvg, r.bodyFatLast, " +
+           "r.muscleMassMin, r.muscleMassMax, r.muscleMassAvg, r.muscleMassLast) " +
+           "FROM ExerciseRecordRollup r WHERE r.userId = :userId AND r.periodType = :periodType " +
+           "AND r.periodEnd >= :startDate AND r.periodStart <= :endDate ORDER BY r.periodStart")
+    List<ExerciseRecordRollupResponse> findResponses(@Param("userId") Long userId,
+                                                     @Param("periodType") String periodType,
+                                                     @Param("startDate") LocalDate startDate,
+                                                     @Param("endDate") LocalDate endDate);
+
+    @Modifying
+    @Query(value = "INSERT INTO exercise_record_rollups (user_id, period_type, period_start, period_end, " +
+                   "days_recorded, total_exercise_duration, weight_min, weight_max, weight_avg, weight_last, " +
+                   "body_fat_min, body_fat_max, body_fat_avg, body_fat_last, " +
+                   "muscle_mass_min, muscle_mass_max, muscle_mass_avg, muscle_mass_last, updated_at) " +
+                   "VALUES (:#{#r.userId}, :#{#r.periodType}, :#{#r.periodStart}, :#{#r.periodEnd}, " +
+                   ":#{#r.daysRecorded}, :#{#r.totalExerciseDuration}, " +
+                   ":#{#r.weightMin}, :#{#r.weightMax}, :#{#r.weightAvg}, :#{#r.weightLast}, " +
+                   ":#{#r.bodyFatMin}, :#{#r.bodyFatMax}, :#{#r.bodyFatAvg}, :#{#r.bodyFatLast}, " +
+                   ":#{#r.muscleMassMin}, :#{#r.muscleMassMax}, :#{#r.muscleMassAvg}, :#{#r.muscleMassLast}, NOW(6)) " +
+                   "ON DUPLICATE KEY UPDATE days_recorded = VALUES(days_recorded), " +
+                   "total_exercise_duration = VALUES(total_exercise_duration), " +
+                   "weight_min = VALUES(weight_min), weight_max = VALUES(weight_max), " +
+                   "weight_avg = VALUES(weight_avg), weight_last = VALUES(weight_last), " +
+                   "body_fat_min = VALUES(body_fat_min), body_fat_max = VALUES(body_fat_max), " +
+                   "body_fat_avg = VALUES(body_fat_avg), body_fat_last = VALUES(body_fat_last), " +
+                   "muscle_mass_min = VALUES(muscle_mass_min), muscle_mass_max = VALUES(muscle_mass_max), " +
+                   "muscle_mass_avg = VALUES(muscle_mass_avg), muscle_mass_last = VALUES(muscle_mass_last), " +
+                   "updated_at = NOW(6)",
+           nativeQuery = true)
+    int upsert(@Param("r") ExerciseRecordRollup r);
+
+    // 버킷 행이 없으면 빈 값으로 생성 (잠글 행을 먼저 만들어 두기 위함, 같은 트랜잭션에서 다시 계산해 채움)
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO exercise_record_rollups (user_id, period_type, period_start, period_end, " +
+                   "days_recorded, total_exercise_duration, updated_at) " +
+                   "VALUES (:userId, :periodType, :periodStart, :periodEnd, 0, 0, NOW(6))",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId,
+                       @Param("periodType") String periodType,
+                       @Param("periodStart") LocalDate periodStart,
+                       @Param("periodEnd") LocalDate periodEnd);
+
+    // 같은 버킷을 다시 계산하는 트랜잭션끼리 순서를 정하기 위한 행 잠금
+    @Query(value = "SELECT id FROM exercise_record_rollups " +
+                   "WHERE user_id = :userId AND period_type = :periodType AND period_start = :periodStart FOR UPDATE",
+           nativeQuery = true)
+    List<Long> lockPeriod(@Param("userId") Long userId,
+                          @Param("periodType") String periodType,
+                          @Param("periodStart") LocalDate periodStart);
+
+    @Modifying
+    @Query("DELETE FROM ExerciseRecordRollup r WHERE r.userId = :userId AND r.periodType = :periodType AND r.periodStart = :periodStart")
+    int deletePeriod(@Param("userId") Long userId,
+                     @Param("periodType") String periodType,
+                     @Param("periodStart") LocalDate periodStart);
+}
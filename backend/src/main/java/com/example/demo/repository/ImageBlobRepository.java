@@ -0,0 +1,30 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.ImageBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Optional;
+
+public interface ImageBlobRepository extends JpaRepository<ImageBlob, Long> {
+    Optional<ImageBlob> findByHash(String hash);
+
+    // 같은 내용이 이미 있으면 참조 수만 증가
+    @Modifying
+    @Query(value = "INSERT INTO image_blobs (hash, size, ref_count, created_at, updated_at) " +
+                   "VALUES (:hash, :size, 1, NOW(6), NOW(6)) " +
+                   "ON DUPLICATE KEY UPDATE ref_count = ref_count + 1, updated_at = NOW(6)",
+           nativeQuery = true)
+    int addReference(@Param("hash") String hash, @Param("size") long size);
+
+    @Modifying
+    @Query(value = "UPDATE image_blobs SET ref_count = GREATEST(ref_count - 1, 0), updated_at = NOW(6) WHERE hash = :hash",
+           nativeQuery = true)
+    int removeReference(@Param("hash") String hash);
+
+    // 더 이상 참조가 없을 때만 삭제 (그 사이 같은 내용이 다시 업로드됐으면 0 반환)
+    @Modifying
+    @Query(value = "DELETE FROM image_blobs WHERE hash = :hash AND ref_count = 0", nativeQuery = true)
+    int deleteIfUnreferenced(@Param("hash") String hash);
+}
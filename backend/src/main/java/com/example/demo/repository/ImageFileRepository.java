@@ -0,0 +1,22 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.ImageFile;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.List;
+import java.util.Optional;
+
+public interface ImageFileRepository extends JpaRepository<ImageFile, Long> {
+    Optional<ImageFile> findByFilename(String filename);
+
+    // 정리 작업이 id 커서 이후부터 조금씩 훑어볼 때 사용
+    List<ImageFile> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // 이미지 요청마다 엔티티를 올리지 않도록 hash 만 조회
+    @Transactional(readOnly = true)
+    @Query("SELECT f.hash FROM ImageFile f WHERE f.filename = :filename")
+    Optional<String> findHashByFilename(@Param("filename") String filename);
+}
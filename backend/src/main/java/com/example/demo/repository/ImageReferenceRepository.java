@@ -0,0 +1,33 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.ImageReference;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface ImageReferenceRepository extends JpaRepository<ImageReference, Long> {
+
+    // 후보 파일명 중 기록에서 참조되는 것만 (filename 인덱스 조회)
+    @Transactional(readOnly = true)
+    @Query("SELECT DISTINCT r.filename FROM ImageReference r WHERE r.filename IN :filenames")
+    List<String> findReferencedFilenames(@Param("filenames") Collection<String> filenames);
+
+    // 기록 저장 트랜잭션 안에서 호출 (해당 날짜 기록의 참조를 새 imageUrl 기준으로 교체)
+    @Modifying
+    @Query(value = "DELETE FROM image_references WHERE user_id = :userId AND record_date = :recordDate",
+           nativeQuery = true)
+    int deleteByRecord(@Param("userId") Long userId, @Param("recordDate") LocalDate recordDate);
+
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO image_references (user_id, record_date, filename) " +
+                   "VALUES (:userId, :recordDate, :filename)",
+           nativeQuery = true)
+    int insertIgnore(@Param("userId") Long userId,
+                     @Param("recordDate") LocalDate recordDate,
+                     @Param("filename") String filename);
+}
@@ -1,15 +1,47 @@
 package com.example.demo.repository;
 
 import com.example.demo.entity.RoutineCheck;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface RoutineCheckRepository extends JpaRepository<RoutineCheck, Long> {
     List<RoutineCheck> findByUserId(Long userId);
     Optional<RoutineCheck> findByUserIdAndCheckDateAndRoutineType(Long userId, LocalDate checkDate, String routineType);
     List<RoutineCheck> findByUserIdAndCheckDate(Long userId, LocalDate checkDate);
     List<RoutineCheck> findByUserIdAndCheckDateBetween(Long userId, LocalDate startDate, LocalDate endDate);
-}
 
+    // 조회 전용 프로젝션
+    List<RoutineCheckView> findViewsByUserIdAndCheckDate(Long userId, LocalDate checkDate);
+    Optional<RoutineCheckView> findViewByUserIdAndCheckDateAndRoutineType(Long userId, LocalDate checkDate, String routineType);
+    List<RoutineCheckView> findViewsByUserIdAndCheckDateBetween(Long userId, LocalDate startDate, LocalDate endDate);
+
+    // 전체 루틴 체크 스트리밍 조회 (트랜잭션 안에서만 사용)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM RoutineCheck c WHERE c.userId = :userId ORDER BY c.checkDate, c.id")
+    Stream<RoutineCheck> streamByUserId(@Param("userId") Long userId);
+
+    // (user_id, check_date, routine_type) 유니크 키 기반 단일 쿼리 저장/수정
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO routine_checks (user_id, check_date, routine_type, checked_items, created_at, updated_at) " +
+                   "VALUES (:userId, :checkDate, :routineType, :checkedItems, NOW(6), NOW(6)) " +
+                   "ON DUPLICATE KEY UPDATE checked_items = VALUES(checked_items), updated_at = NOW(6)",
+           nativeQuery = true)
+    int upsert(@Param("userId") Long userId,
+               @Param("checkDate") LocalDate checkDate,
+               @Param("routineType") String routineType,
+               @Param("checkedItems") String checkedItems);
+}
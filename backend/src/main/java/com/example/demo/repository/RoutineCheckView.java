@@ -0,0 +1,15 @@
+package com.example.demo.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// 루틴 체크 조회 전용 프로젝션 (필요한 컬럼만 조회, 엔티티 스냅샷 없음)
+public interface RoutineCheckView {
+    Long getId();
+    Long getUserId();
+    LocalDate getCheckDate();
+    String getRoutineType();
+    String getCheckedItems();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getUpdatedAt();
+}
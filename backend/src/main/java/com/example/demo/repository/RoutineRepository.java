@@ -2,11 +2,17 @@ package com.example.demo.repository;
 
 import com.example.demo.entity.Routine;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 import java.util.Optional;
 
 public interface RoutineRepository extends JpaRepository<Routine, Long> {
     List<Routine> findByUserId(Long userId);
     Optional<Routine> findByUserIdAndRoutineType(Long userId, String routineType);
+
+    // 조회 전용 프로젝션
+    @Transactional(readOnly = true)
+    List<RoutineView> findViewsByUserId(Long userId);
+    Optional<RoutineView> findViewByUserIdAndRoutineType(Long userId, String routineType);
 }
 
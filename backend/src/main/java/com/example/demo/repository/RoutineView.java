@@ -0,0 +1,13 @@
+package com.example.demo.repository;
+
+import java.time.LocalDateTime;
+
+// 루틴 조회 전용 프로젝션 (필요한 컬럼만 조회, 엔티티 스냅샷 없음)
+public interface RoutineView {
+    Long getId();
+    Long getUserId();
+    String getRoutineType();
+    String getRoutineItems();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getUpdatedAt();
+}
@@ -0,0 +1,15 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.UploadSession;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface UploadSessionRepository extends JpaRepository<UploadSession, Long> {
+    Optional<UploadSession> findByUploadId(String uploadId);
+
+    // 오래 방치된 세션 정리용
+    List<UploadSession> findByUpdatedAtBefore(LocalDateTime threshold, Limit limit);
+}
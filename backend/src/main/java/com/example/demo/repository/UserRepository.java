@@ -1,15 +1,35 @@
 package com.example.demo.repository;
 
 import com.example.demo.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     boolean existsByUsername(String username);
-    List<User> findByUsernameContainingIgnoreCase(String username);
-}
-
 
+    // 검색 인덱스 적재 전 대체 조회: 인덱스와 같이 username 또는 이름에 포함, afterId 이후 id 순으로 limit 명
+    // pattern 은 소문자로 바꾸고 %, _, \ 를 이스케이프한 '%검색어%'
+    @Query("SELECT u FROM User u WHERE u.id > :afterId AND u.id <> :excludeUserId " +
+           "AND (LOWER(u.username) LIKE :pattern ESCAPE '\\' OR LOWER(u.name) LIKE :pattern ESCAPE '\\') ORDER BY u.id")
+    List<User> searchByUsernameOrName(@Param("pattern") String pattern,
+                                      @Param("excludeUserId") Long excludeUserId,
+                                      @Param("afterId") Long afterId,
+                                      Limit limit);
 
+    // 사용자 검색 인덱스 적재용 (id, username, name) 스트리밍 조회 (트랜잭션 안에서만 사용)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT u.id, u.username, u.name FROM User u ORDER BY u.id")
+    Stream<Object[]> streamSearchFields();
+}
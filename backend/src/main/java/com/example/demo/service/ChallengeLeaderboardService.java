@@ -0,0 +1,341 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ChallengeLeaderboardResponse;
+import com.example.demo.dto.ChallengeResponse;
+import com.example.demo.dto.ExerciseRecordResponse;
+import com.example.demo.entity.User;
+import com.example.demo.repository.ChallengeRepository;
+import com.example.demo.repository.ChallengeShareRepository;
+import com.example.demo.repository.ExerciseRecordRepository;
+import com.example.demo.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+// 챌린지 리더보드 (소유자 + 공유를 수락한 사용자)
+// 챌린지별 순위 구조를 메모리에 두고 기록 저장 시 해당 사용자 점수만 갱신
+// 상위 k명: 점수순 TreeSet 앞에서부터 (O(log n + k)), 내 순위: 점수별 인원 수 펜윅 트리 (O(log 최대점수))
+@Service
+public class ChallengeLeaderboardService {
+
+    private static final String ACCEPTED = "ACCEPTED";
+    private static final int SCORE_LOCK_STRIPES = 64;
+
+    private final ChallengeRepository challengeRepository;
+    private final ChallengeShareRepository challengeShareRepository;
+    private final ExerciseRecordRepository exerciseRecordRepository;
+    private final UserRepository userRepository;
+    private final int maxBoards;
+
+    private final LinkedHashMap<Long, Board> boards;
+    // 사용자 → 그 사용자가 참가한 (메모리에 있는) 챌린지 id
+    private final Map<Long, Set<Long>> challengesByUser = new ConcurrentHashMap<>();
+    // 순위 구조를 읽는 동안 기록 저장/무효화가 있었는지 확인용 (있었으면 결과를 보관하지 않음)
+    private final AtomicLong generation = new AtomicLong();
+    // (챌린지, 사용자)별 점수 재계산 ~ 반영 순서 보장 (늦게 시작한 재계산이 먼저 반영된 뒤 이전 값으로 덮이지 않도록)
+    // 재계산이 DB 조회라 가상 스레드가 캐리어 스레드를 잡지 않도록 ReentrantLock 사용
+    private final ReentrantLock[] scoreLocks = new ReentrantLock[SCORE_LOCK_STRIPES];
+
+    public ChallengeLeaderboardService(
+            ChallengeRepository challengeRepository,
+            ChallengeShareRepository challengeShareRepository,
+            ExerciseRecordRepository exerciseRecordRepository,
+            UserRepository userRepository,
+            @Value("${challenge.leaderboard.max-boards:1000}") int maxBoards) {
+        this.challengeRepository = challengeRepository;
+        this.challengeShareRepository = challengeShareRepository;
+        this.exerciseRecordRepository = exerciseRecordRepository;
+        this.userRepository = userRepository;
+        this.maxBoards = maxBoards;
+        this.boards = new LinkedHashMap<>(64, 0.75f, true);
+        for (int i = 0; i < SCORE_LOCK_STRIPES; i++) {
+            scoreLocks[i] = new ReentrantLock();
+        }
+    }
+
+    // 참가자가 아니거나 챌린지가 없으면 empty
+    public Optional<ChallengeLeaderboardResponse> getLeaderboard(Long challengeId, Long userId, int limit) {
+        // 메모리에 없는 리더보드는 참가 여부를 먼저 가벼운 조회로 확인 (참가자가 아닌 요청으로 순위 구조를 만들지 않도록)
+        if (!isCached(challengeId) && !isParticipant(challengeId, userId)) {
+            return Optional.empty();
+        }
+        Board board = boardFor(challengeId);
+        if (board == null || !board.contains(userId)) {
+            return Optional.empty();
+        }
+
+        List<Entry> top;
+        int myRank;
+        int myScore;
+        int participants;
+        synchronized (board) {
+            top = board.top(limit);
+            myScore = board.scoreOf(userId);
+            myRank = board.rankOf(myScore);
+            participants = board.size();
+        }
+
+        // 표시 이름은 상위 k명 + 나만 한 번에 조회
+        Set<Long> userIds = new LinkedHashSet<>();
+        for (Entry entry : top) {
+            userIds.add(entry.userId);
+        }
+        Map<Long, String> names = new HashMap<>();
+        for (User user : userRepository.findAllById(userIds)) {
+            names.put(user.getId(), user.getName() != null ? user.getName() : user.getUsername());
+        }
+
+        ChallengeLeaderboardResponse response = new ChallengeLeaderboardResponse();
+        response.setChallengeId(challengeId);
+        response.setParticipants(participants);
+        response.setMyRank(myRank);
+        response.setMyScore(myScore);
+        List<ChallengeLeaderboardResponse.Entry> entries = new ArrayList<>(top.size());
+        int rank = 0;
+        int previousScore = -1;
+        for (int i = 0; i < top.size(); i++) {
+            Entry entry = top.get(i);
+            if (entry.score != previousScore) {
+                rank = i + 1;
+                previousScore = entry.score;
+            }
+            ChallengeLeaderboardResponse.Entry item = new ChallengeLeaderboardResponse.Entry();
+            item.setRank(rank);
+            item.setUserId(entry.userId);
+            item.setName(names.get(entry.userId));
+            item.setScore(entry.score);
+            entries.add(item);
+        }
+        response.setTop(entries);
+        return Optional.of(response);
+    }
+
+    // 기록 저장 후 호출 (커밋 이후): 그 날짜를 포함하는 챌린지 리더보드에서 해당 사용자 점수만 다시 계산
+    public void onRecordWritten(Long userId, LocalDate startDate, LocalDate endDate) {
+        generation.incrementAndGet();
+        Set<Long> challengeIds = challengesByUser.get(userId);
+        if (challengeIds == null) {
+            return;
+        }
+        for (Long challengeId : List.copyOf(challengeIds)) {
+            Board board;
+            synchronized (boards) {
+                board = boards.get(challengeId);
+            }
+            if (board == null || board.challenge.getStartDate().isAfter(endDate)
+                    || board.challenge.getEndDate().isBefore(startDate)) {
+                continue;
+            }
+            ReentrantLock lock = scoreLockFor(challengeId, userId);
+            lock.lock();
+            try {
+                int score = scoreOf(board.challenge, userId);
+                synchronized (board) {
+                    board.update(userId, score);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // 참가자(공유 수락) 또는 목표가 바뀌었을 때: 다음 조회 때 다시 생성
+    public void invalidate(Long challengeId) {
+        generation.incrementAndGet();
+        Board removed;
+        synchronized (boards) {
+            removed = boards.remove(challengeId);
+        }
+        if (removed != null) {
+            unindex(removed);
+        }
+    }
+
+    private Board boardFor(Long challengeId) {
+        synchronized (boards) {
+            Board board = boards.get(challengeId);
+            if (board != null) {
+                return board;
+            }
+        }
+
+        // DB 조회는 잠금 밖에서 (참가자 전원의 기간 내 기록을 한 번에 조회)
+        long startGeneration = generation.get();
+        ChallengeResponse challenge = challengeRepository.findResponseById(challengeId, LocalDate.now()).orElse(null);
+        if (challenge == null) {
+            return null;
+        }
+        Set<Long> participants = new LinkedHashSet<>();
+        participants.add(challenge.getUserId());
+        participants.addAll(challengeShareRepository.findToUserIdsByChallengeIdAndStatus(challengeId, ACCEPTED));
+
+        Map<Long, List<ExerciseRecordResponse>> recordsByUser = new HashMap<>();
+        for (ExerciseRecordResponse record : exerciseRecordRepository.findResponsesByUserIdInAndRecordDateBetween(
+                participants, challenge.getStartDate(), challenge.getEndDate())) {
+            recordsByUser.computeIfAbsent(record.getUserId(), id -> new ArrayList<>()).add(record);
+        }
+
+        Board board = new Board(challenge);
+        for (Long participant : participants) {
+            List<ExerciseRecordResponse> records = recordsByUser.getOrDefault(participant, List.of());
+            board.update(participant, ChallengeProgressEngine.score(challenge,
+                    ChallengeProgressEngine.DaySeries.of(challenge.getStartDate(), challenge.getEndDate(), records)));
+        }
+
+        // 읽는 동안 기록 저장/무효화가 있었으면 이번 결과만 사용하고 보관하지 않음
+        if (generation.get() != startGeneration) {
+            return board;
+        }
+        Board evicted = null;
+        synchronized (boards) {
+            Board existing = boards.get(challengeId);
+            if (existing != null) {
+                return existing;
+            }
+            boards.put(challengeId, board);
+            for (Long participant : participants) {
+                challengesByUser.computeIfAbsent(participant, id -> ConcurrentHashMap.newKeySet()).add(challengeId);
+            }
+            if (boards.size() > maxBoards) {
+                Map.Entry<Long, Board> eldest = boards.entrySet().iterator().next();
+                boards.remove(eldest.getKey());
+                evicted = eldest.getValue();
+            }
+        }
+        if (evicted != null) {
+            unindex(evicted);
+        }
+        return board;
+    }
+
+    private boolean isCached(Long challengeId) {
+        synchronized (boards) {
+            return boards.containsKey(challengeId);
+        }
+    }
+
+    // 소유자이거나 공유를 수락한 사용자
+    private boolean isParticipant(Long challengeId, Long userId) {
+        return challengeRepository.existsByIdAndUserId(challengeId, userId)
+                || challengeShareRepository.existsByChallengeIdAndToUserIdAndStatus(challengeId, userId, ACCEPTED);
+    }
+
+    private ReentrantLock scoreLockFor(Long challengeId, Long userId) {
+        return scoreLocks[Math.floorMod(Objects.hash(challengeId, userId), SCORE_LOCK_STRIPES)];
+    }
+
+    private int scoreOf(ChallengeResponse challenge, Long userId) {
+        List<ExerciseRecordResponse> records = exerciseRecordRepository
+                .findResponsesByUserIdAndRecordDateBetween(userId, challenge.getStartDate(), challenge.getEndDate());
+        return ChallengeProgressEngine.score(challenge,
+                ChallengeProgressEngine.DaySeries.of(challenge.getStartDate(), challenge.getEndDate(), records));
+    }
+
+    private void unindex(Board board) {
+        Long challengeId = board.challenge.getId();
+        for (Long participant : board.participants()) {
+            challengesByUser.computeIfPresent(participant, (id, ids) -> {
+                ids.remove(challengeId);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    private record Entry(Long userId, int score) {
+    }
+
+    // 점수 내림차순 (동점은 userId 오름차순)
+    private static final Comparator<Entry> RANKING = Comparator.comparingInt(Entry::score).reversed()
+            .thenComparing(Entry::userId);
+
+    // 챌린지 하나의 순위 구조 (호출하는 쪽에서 board 로 동기화)
+    private static final class Board {
+        private final ChallengeResponse challenge;
+        private final TreeSet<Entry> ranking = new TreeSet<>(RANKING);
+        private final Map<Long, Entry> entries = new HashMap<>();
+        // 점수별 인원 수 펜윅 트리 (인덱스 = 점수 + 1)
+        private final int[] counts;
+
+        Board(ChallengeResponse challenge) {
+            this.challenge = challenge;
+            this.counts = new int[ChallengeProgressEngine.maxScore(challenge.getStartDate(), challenge.getEndDate()) + 2];
+        }
+
+        void update(Long userId, int score) {
+            Entry previous = entries.get(userId);
+            if (previous != null) {
+                if (previous.score == score) {
+                    return;
+                }
+                ranking.remove(previous);
+                add(previous.score, -1);
+            }
+            Entry entry = new Entry(userId, score);
+            entries.put(userId, entry);
+            ranking.add(entry);
+            add(score, 1);
+        }
+
+        boolean contains(Long userId) {
+            return entries.containsKey(userId);
+        }
+
+        Set<Long> participants() {
+            return entries.keySet();
+        }
+
+        int size() {
+            return entries.size();
+        }
+
+        int scoreOf(Long userId) {
+            Entry entry = entries.get(userId);
+            return entry != null ? entry.score : 0;
+        }
+
+        // 나보다 점수가 높은 인원 + 1
+        int rankOf(int score) {
+            return entries.size() - countAtMost(score) + 1;
+        }
+
+        List<Entry> top(int limit) {
+            List<Entry> top = new ArrayList<>(Math.min(limit, ranking.size()));
+            for (Entry entry : ranking) {
+                if (top.size() >= limit) {
+                    break;
+                }
+                top.add(entry);
+            }
+            return top;
+        }
+
+        private void add(int score, int delta) {
+            for (int i = score + 1; i < counts.length; i += i & -i) {
+                counts[i] += delta;
+            }
+        }
+
+        private int countAtMost(int score) {
+            int count = 0;
+            for (int i = Math.min(score + 1, counts.length - 1); i > 0; i -= i & -i) {
+                count += counts[i];
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,358 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ChallengeDetailResponse;
+import com.example.demo.dto.ChallengeResponse;
+import com.example.demo.dto.ExerciseRecordResponse;
+import com.example.demo.dto.SharedChallengeDetailResponse;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// 챌린지 진행상황 계산 (챌린지 상세 / 공유된 챌린지 상세 공통)
+// 기간을 날짜 인덱스(epoch day - 시작일) 원시 배열로 펼치고, 값이 없는 날은 NaN / NO_VALUE 로 표시해서 한 번의 순회로 계산
+public final class ChallengeProgressEngine {
+
+    private static final int NO_VALUE = Integer.MIN_VALUE;
+
+    private ChallengeProgressEngine() {
+    }
+
+    // 챌린지 기간의 날짜별 지표 (인덱스 0 = 시작일)
+    public static final class DaySeries {
+        private final LocalDate startDate;
+        private final long startEpochDay;
+        private final int length;
+        private final double[] weight;
+        private final double[] bodyFat;
+        private final double[] muscleMass;
+        private final int[] exerciseDuration;
+        private int[] morningChecked;
+        private int[] eveningChecked;
+
+        private DaySeries(LocalDate startDate, LocalDate endDate) {
+            this.startDate = startDate;
+            this.startEpochDay = startDate.toEpochDay();
+            this.length = (int) Math.max(0, endDate.toEpochDay() - startEpochDay + 1);
+            this.weight = filled(length);
+            this.bodyFat = filled(length);
+            this.muscleMass = filled(length);
+            this.exerciseDuration = new int[length];
+            Arrays.fill(exerciseDuration, NO_VALUE);
+        }
+
+        public static DaySeries of(LocalDate startDate, LocalDate endDate, List<ExerciseRecordResponse> records) {
+            DaySeries series = new DaySeries(startDate, endDate);
+            for (ExerciseRecordResponse record : records) {
+                int index = series.indexOf(record.getRecordDate());
+                if (index < 0) {
+                    continue;
+                }
+                series.weight[index] = record.getWeight() != null ? record.getWeight() : Double.NaN;
+                series.bodyFat[index] = record.getBodyFatPercentage() != null ? record.getBodyFatPercentage() : Double.NaN;
+                series.muscleMass[index] = record.getMuscleMass() != null ? record.getMuscleMass() : Double.NaN;
+                series.exerciseDuration[index] = record.getExerciseDuration() != null ? record.getExerciseDuration() : NO_VALUE;
+            }
+            return series;
+        }
+
+        // 루틴 체크 개수 기록 (routineType: "MORNING" / "EVENING")
+        public void putRoutineChecked(LocalDate date, String routineType, int checkedCount) {
+            int index = indexOf(date);
+            if (index < 0) {
+                return;
+            }
+            if ("MORNING".equals(routineType)) {
+                if (morningChecked == null) {
+                    morningChecked = new int[length];
+                }
+                morningChecked[index] = checkedCount;
+            } else if ("EVENING".equals(routineType)) {
+                if (eveningChecked == null) {
+                    eveningChecked = new int[length];
+                }
+                eveningChecked[index] = checkedCount;
+            }
+        }
+
+        private int indexOf(LocalDate date) {
+            long index = date.toEpochDay() - startEpochDay;
+            return index >= 0 && index < length ? (int) index : -1;
+        }
+
+        private static double[] filled(int length) {
+            double[] values = new double[length];
+            Arrays.fill(values, Double.NaN);
+            return values;
+        }
+    }
+
+    // 챌린지 상세의 전체 진행상황 계산에 필요한 값 (challenge_progress 테이블에 저장되는 값과 같음)
+    public record Summary(int recordedDays, int totalExerciseDuration, LocalDate lastRecordDate,
+                          Double lastWeight, Double lastBodyFatPercentage, Double lastMuscleMass) {
+        public static final Summary EMPTY = new Summary(0, 0, null, null, null, null);
+    }
+
+    // 기간 전체(until 까지)에서 값이 있는 날짜 수, 운동시간 합계, 마지막 기록 값
+    public static Summary summarize(DaySeries series, LocalDate until) {
+        return scan(null, series, until, null);
+    }
+
+    // 챌린지 상세: 오늘까지 기록이 있는 날만 일별 진행상황으로, 전체 진행상황은 마지막 기록일 기준
+    public static void fillDetail(ChallengeDetailResponse response, ChallengeResponse challenge,
+                                  DaySeries series, LocalDate today) {
+        fillDetail(response, challenge, series, today, null);
+    }
+
+    // stored 가 있으면 (저장된 진행상황) 전체 진행상황은 그 값으로 계산하고 순회는 일별 진행상황에만 사용
+    public static void fillDetail(ChallengeDetailResponse response, ChallengeResponse challenge,
+                                  DaySeries series, LocalDate today, Summary stored) {
+        List<ChallengeDetailResponse.DailyProgress> dailyProgress = new ArrayList<>();
+        Summary computed = scan(challenge, series, today, dailyProgress);
+        response.setDailyProgress(dailyProgress);
+        response.setOverallProgress(overallProgress(challenge, stored != null ? stored : computed));
+    }
+
+    // 전체 진행상황 - 마지막날 기록과 목표 비교 (달성률 = 실제 / 목표 * 100), 운동시간은 기간 합산
+    public static ChallengeDetailResponse.OverallProgress overallProgress(ChallengeResponse challenge, Summary summary) {
+        double targetWeight = valueOf(challenge.getTargetWeight());
+        double targetBodyFat = valueOf(challenge.getTargetBodyFatPercentage());
+        double targetMuscleMass = valueOf(challenge.getTargetMuscleMass());
+        double targetDuration = valueOf(challenge.getTargetExerciseDuration());
+        double lastWeight = valueOf(summary.lastWeight());
+        double lastBodyFat = valueOf(summary.lastBodyFatPercentage());
+        double lastMuscleMass = valueOf(summary.lastMuscleMass());
+        int totalExerciseDuration = summary.totalExerciseDuration();
+
+        ChallengeDetailResponse.OverallProgress overall = new ChallengeDetailResponse.OverallProgress();
+        overall.setTotalDays(summary.recordedDays());
+        if (!Double.isNaN(lastWeight) && !Double.isNaN(targetWeight)) {
+            overall.setWeightSuccessRate(lastWeight / targetWeight * 100);
+            overall.setWeightSuccessCount(lastWeight <= targetWeight ? 1 : 0);
+        }
+        if (!Double.isNaN(lastBodyFat) && !Double.isNaN(targetBodyFat)) {
+            overall.setBodyFatSuccessRate(lastBodyFat / targetBodyFat * 100);
+            overall.setBodyFatSuccessCount(lastBodyFat <= targetBodyFat ? 1 : 0);
+        }
+        if (!Double.isNaN(lastMuscleMass) && !Double.isNaN(targetMuscleMass)) {
+            overall.setMuscleMassSuccessRate(lastMuscleMass / targetMuscleMass * 100);
+            overall.setMuscleMassSuccessCount(lastMuscleMass >= targetMuscleMass ? 1 : 0);
+        }
+        if (!Double.isNaN(targetDuration) && targetDuration > 0) {
+            overall.setExerciseDurationSuccessRate(totalExerciseDuration / targetDuration * 100);
+            overall.setExerciseDurationSuccessCount(totalExerciseDuration >= targetDuration ? 1 : 0);
+        }
+
+        // 기록이 있는 날짜 수는 마지막날 기록 기준으로 1로 설정 (표시용)
+        overall.setWeightRecordedDays(Double.isNaN(lastWeight) ? 0 : 1);
+        overall.setBodyFatRecordedDays(Double.isNaN(lastBodyFat) ? 0 : 1);
+        overall.setMuscleMassRecordedDays(Double.isNaN(lastMuscleMass) ? 0 : 1);
+        overall.setExerciseDurationRecordedDays(totalExerciseDuration > 0 ? 1 : 0);
+        return overall;
+    }
+
+    // until 까지 값이 있는 날을 한 번 순회 (dailyProgress 가 있으면 일별 진행상황도 함께 생성)
+    private static Summary scan(ChallengeResponse challenge, DaySeries series, LocalDate until,
+                                List<ChallengeDetailResponse.DailyProgress> dailyProgress) {
+        double targetWeight = challenge != null ? valueOf(challenge.getTargetWeight()) : Double.NaN;
+        double targetBodyFat = challenge != null ? valueOf(challenge.getTargetBodyFatPercentage()) : Double.NaN;
+        double targetMuscleMass = challenge != null ? valueOf(challenge.getTargetMuscleMass()) : Double.NaN;
+        double targetDuration = challenge != null ? valueOf(challenge.getTargetExerciseDuration()) : Double.NaN;
+
+        // until 이후 날짜는 제외
+        int lastIndex = (int) Math.min(series.length - 1, until.toEpochDay() - series.startEpochDay);
+        int recordedDays = 0;
+        int lastRecordIndex = -1;
+        int totalExerciseDuration = 0;
+
+        for (int i = 0; i <= lastIndex; i++) {
+            double weight = series.weight[i];
+            double bodyFat = series.bodyFat[i];
+            double muscleMass = series.muscleMass[i];
+            int duration = series.exerciseDuration[i];
+
+            // 실제 데이터가 있는지 확인 (모든 필드가 비어 있으면 제외)
+            if (Double.isNaN(weight) && Double.isNaN(bodyFat) && Double.isNaN(muscleMass) && duration == NO_VALUE) {
+                continue;
+            }
+            recordedDays++;
+            lastRecordIndex = i;
+            if (duration != NO_VALUE) {
+                totalExerciseDuration += duration;
+            }
+            if (dailyProgress == null) {
+                continue;
+            }
+
+            ChallengeDetailResponse.DailyProgress progress = new ChallengeDetailResponse.DailyProgress();
+            progress.setDate(series.startDate.plusDays(i));
+            progress.setWeight(boxed(weight));
+            progress.setBodyFatPercentage(boxed(bodyFat));
+            progress.setMuscleMass(boxed(muscleMass));
+            progress.setExerciseDuration(duration != NO_VALUE ? duration : null);
+            // 체중·체지방률은 낮아야, 근육량·운동시간은 높아야 성공
+            progress.setWeightSuccess(atMost(weight, targetWeight));
+            progress.setBodyFatSuccess(atMost(bodyFat, targetBodyFat));
+            progress.setMuscleMassSuccess(atLeast(muscleMass, targetMuscleMass));
+            progress.setExerciseDurationSuccess(duration != NO_VALUE && atLeast(duration, targetDuration));
+            dailyProgress.add(progress);
+        }
+
+        if (lastRecordIndex < 0) {
+            return Summary.EMPTY;
+        }
+        return new Summary(recordedDays, totalExerciseDuration, series.startDate.plusDays(lastRecordIndex),
+                boxed(series.weight[lastRecordIndex]), boxed(series.bodyFat[lastRecordIndex]),
+                boxed(series.muscleMass[lastRecordIndex]));
+    }
+
+    // 공유된 챌린지 상세: 기간 전체 날짜별 목표 대비 차이 + 루틴 체크, 전체 진행상황은 같은 순회에서 누적
+    public static void fillSharedDetail(SharedChallengeDetailResponse response, ChallengeResponse challenge,
+                                        DaySeries series, int morningRoutineTotal, int eveningRoutineTotal) {
+        double targetWeight = valueOf(challenge.getTargetWeight());
+        double targetBodyFat = valueOf(challenge.getTargetBodyFatPercentage());
+        double targetMuscleMass = valueOf(challenge.getTargetMuscleMass());
+        Integer targetDuration = challenge.getTargetExerciseDuration();
+
+        List<SharedChallengeDetailResponse.DailyProgress> dailyProgress = new ArrayList<>(series.length);
+        int weightSuccess = 0, bodyFatSuccess = 0, muscleMassSuccess = 0, exerciseDurationSuccess = 0;
+        int weightRecordedDays = 0, bodyFatRecordedDays = 0, muscleMassRecordedDays = 0, exerciseDurationRecordedDays = 0;
+        int morningRoutineSuccessDays = 0, eveningRoutineSuccessDays = 0;
+
+        for (int i = 0; i < series.length; i++) {
+            double weight = series.weight[i];
+            double bodyFat = series.bodyFat[i];
+            double muscleMass = series.muscleMass[i];
+            int duration = series.exerciseDuration[i];
+
+            SharedChallengeDetailResponse.DailyProgress progress = new SharedChallengeDetailResponse.DailyProgress();
+            progress.setDate(series.startDate.plusDays(i));
+
+            boolean success = atMost(weight, targetWeight);
+            progress.setWeightSuccess(success);
+            if (!Double.isNaN(weight) && !Double.isNaN(targetWeight)) {
+                progress.setWeightDiff(weight - targetWeight);
+                weightRecordedDays++;
+                weightSuccess += success ? 1 : 0;
+            }
+
+            success = atMost(bodyFat, targetBodyFat);
+            progress.setBodyFatSuccess(success);
+            if (!Double.isNaN(bodyFat) && !Double.isNaN(targetBodyFat)) {
+                progress.setBodyFatDiff(bodyFat - targetBodyFat);
+                bodyFatRecordedDays++;
+                bodyFatSuccess += success ? 1 : 0;
+            }
+
+            success = atLeast(muscleMass, targetMuscleMass);
+            progress.setMuscleMassSuccess(success);
+            if (!Double.isNaN(muscleMass) && !Double.isNaN(targetMuscleMass)) {
+                progress.setMuscleMassDiff(muscleMass - targetMuscleMass);
+                muscleMassRecordedDays++;
+                muscleMassSuccess += success ? 1 : 0;
+            }
+
+            success = duration != NO_VALUE && targetDuration != null && duration >= targetDuration;
+            progress.setExerciseDurationSuccess(success);
+            if (duration != NO_VALUE && targetDuration != null) {
+                progress.setExerciseDurationDiff(duration - targetDuration);
+                exerciseDurationRecordedDays++;
+                exerciseDurationSuccess += success ? 1 : 0;
+            }
+
+            // 루틴 체크: 설정된 항목을 모두 체크한 날이 성공
+            int morningChecked = series.morningChecked != null ? series.morningChecked[i] : 0;
+            int eveningChecked = series.eveningChecked != null ? series.eveningChecked[i] : 0;
+            progress.setMorningRoutineTotal(morningRoutineTotal);
+            progress.setMorningRoutineChecked(morningChecked);
+            progress.setEveningRoutineTotal(eveningRoutineTotal);
+            progress.setEveningRoutineChecked(eveningChecked);
+            if (morningRoutineTotal > 0 && morningChecked == morningRoutineTotal) {
+                morningRoutineSuccessDays++;
+            }
+            if (eveningRoutineTotal > 0 && eveningChecked == eveningRoutineTotal) {
+                eveningRoutineSuccessDays++;
+            }
+
+            dailyProgress.add(progress);
+        }
+        response.setDailyProgress(dailyProgress);
+
+        SharedChallengeDetailResponse.OverallProgress overall = new SharedChallengeDetailResponse.OverallProgress();
+        overall.setTotalDays(series.length);
+        overall.setWeightSuccessCount(weightSuccess);
+        overall.setBodyFatSuccessCount(bodyFatSuccess);
+        overall.setMuscleMassSuccessCount(muscleMassSuccess);
+        overall.setExerciseDurationSuccessCount(exerciseDurationSuccess);
+        overall.setWeightRecordedDays(weightRecordedDays);
+        overall.setBodyFatRecordedDays(bodyFatRecordedDays);
+        overall.setMuscleMassRecordedDays(muscleMassRecordedDays);
+        overall.setExerciseDurationRecordedDays(exerciseDurationRecordedDays);
+        overall.setWeightSuccessRate(rate(weightSuccess, weightRecordedDays));
+        overall.setBodyFatSuccessRate(rate(bodyFatSuccess, bodyFatRecordedDays));
+        overall.setMuscleMassSuccessRate(rate(muscleMassSuccess, muscleMassRecordedDays));
+        overall.setExerciseDurationSuccessRate(rate(exerciseDurationSuccess, exerciseDurationRecordedDays));
+
+        // 루틴 항목이 설정되어 있으면 기간의 모든 날이 기록 대상
+        int morningRoutineRecordedDays = morningRoutineTotal > 0 ? series.length : 0;
+        int eveningRoutineRecordedDays = eveningRoutineTotal > 0 ? series.length : 0;
+        overall.setMorningRoutineSuccessDays(morningRoutineSuccessDays);
+        overall.setEveningRoutineSuccessDays(eveningRoutineSuccessDays);
+        overall.setMorningRoutineRecordedDays(morningRoutineRecordedDays);
+        overall.setEveningRoutineRecordedDays(eveningRoutineRecordedDays);
+        overall.setMorningRoutineSuccessRate(rate(morningRoutineSuccessDays, morningRoutineRecordedDays));
+        overall.setEveningRoutineSuccessRate(rate(eveningRoutineSuccessDays, eveningRoutineRecordedDays));
+        response.setOverallProgress(overall);
+    }
+
+    // 리더보드 점수: 기간 내 날짜별로 달성한 지표 수의 합 (공유된 챌린지 상세의 일별 성공 기준과 같음)
+    public static int score(ChallengeResponse challenge, DaySeries series) {
+        double targetWeight = valueOf(challenge.getTargetWeight());
+        double targetBodyFat = valueOf(challenge.getTargetBodyFatPercentage());
+        double targetMuscleMass = valueOf(challenge.getTargetMuscleMass());
+        double targetDuration = valueOf(challenge.getTargetExerciseDuration());
+        int score = 0;
+        for (int i = 0; i < series.length; i++) {
+            if (atMost(series.weight[i], targetWeight)) {
+                score++;
+            }
+            if (atMost(series.bodyFat[i], targetBodyFat)) {
+                score++;
+            }
+            if (atLeast(series.muscleMass[i], targetMuscleMass)) {
+                score++;
+            }
+            if (series.exerciseDuration[i] != NO_VALUE && atLeast(series.exerciseDuration[i], targetDuration)) {
+                score++;
+            }
+        }
+        return score;
+    }
+
+    // 점수가 가질 수 있는 최대값 (하루 최대 4개 지표)
+    public static int maxScore(LocalDate startDate, LocalDate endDate) {
+        return (int) Math.max(0, endDate.toEpochDay() - startDate.toEpochDay() + 1) * 4;
+    }
+
+    private static double valueOf(Number value) {
+        return value != null ? value.doubleValue() : Double.NaN;
+    }
+
+    private static Double boxed(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    // NaN 과의 비교는 항상 false 이므로 값/목표가 없으면 실패
+    private static boolean atMost(double actual, double target) {
+        return actual <= target;
+    }
+
+    private static boolean atLeast(double actual, double target) {
+        return actual >= target;
+    }
+
+    private static double rate(int success, int recorded) {
+        return recorded > 0 ? (double) success / recorded * 100 : 0;
+    }
+}
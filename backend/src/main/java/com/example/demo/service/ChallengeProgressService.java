@@ -0,0 +1,152 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ChallengeDetailResponse;
+import com.example.demo.dto.ChallengeResponse;
+import com.example.demo.dto.ExerciseRecordResponse;
+import com.example.demo.entity.Challenge;
+import com.example.demo.entity.ChallengeProgress;
+import com.example.demo.entity.ExerciseRecord;
+import com.example.demo.repository.ChallengeProgressRepository;
+import com.example.demo.repository.ChallengeRepository;
+import com.example.demo.repository.ExerciseRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+// 챌린지별 전체 진행상황 유지 (기록 저장 시 이전 값과의 차이만 반영, 불일치 시 기간 전체를 다시 읽어 재생성)
+@Service
+public class ChallengeProgressService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChallengeProgressService.class);
+
+    private final ChallengeRepository challengeRepository;
+    private final ChallengeProgressRepository challengeProgressRepository;
+    private final ExerciseRecordRepository exerciseRecordRepository;
+
+    public ChallengeProgressService(
+            ChallengeRepository challengeRepository,
+            ChallengeProgressRepository challengeProgressRepository,
+            ExerciseRecordRepository exerciseRecordRepository) {
+        this.challengeRepository = challengeRepository;
+        this.challengeProgressRepository = challengeProgressRepository;
+        this.exerciseRecordRepository = exerciseRecordRepository;
+    }
+
+    // 기록 저장 전에 호출: 해당 날짜를 포함하는 챌린지의 진행상황 행을 잠금 (없으면 현재 기록으로 생성)
+    // 같은 사용자의 동시 저장이 이전 값 조회 ~ 증분 반영 사이에 끼어들지 않도록 함
+    @Transactional
+    public List<ChallengeProgress> lockForRecordWrite(Long userId, LocalDate recordDate) {
+        List<ChallengeProgress> locked = new ArrayList<>();
+        for (Challenge challenge : challengeRepository.findOverlapping(userId, recordDate, recordDate)) {
+            // 행이 없으면 먼저 만들어 두고 잠금 (새로 만든 행은 기간 기록으로 채움)
+            if (challengeProgressRepository.insertIfAbsent(challenge.getId(), challenge.getUserId()) > 0) {
+                locked.add(rebuild(challenge));
+            } else {
+                locked.add(challengeProgressRepository.findForUpdateByChallengeId(challenge.getId()).orElseThrow());
+            }
+        }
+        return locked;
+    }
+
+    // 기록 저장 후 같은 트랜잭션에서 호출: 이전 기록(before, 없으면 null)과 저장된 기록(after)의 차이만 반영
+    @Transactional
+    public void onRecordWritten(List<ChallengeProgress> locked, LocalDate recordDate,
+                                ExerciseRecord before, ExerciseRecordResponse after) {
+        boolean hadValue = before != null && hasValue(before.getWeight(), before.getBodyFatPercentage(),
+                before.getMuscleMass(), before.getExerciseDuration());
+        boolean hasValue = after != null && hasValue(after.getWeight(), after.getBodyFatPercentage(),
+                after.getMuscleMass(), after.getExerciseDuration());
+        int durationBefore = before != null && before.getExerciseDuration() != null ? before.getExerciseDuration() : 0;
+        int durationAfter = after != null && after.getExerciseDuration() != null ? after.getExerciseDuration() : 0;
+
+        for (ChallengeProgress progress : locked) {
+            LocalDate lastRecordDate = progress.getLastRecordDate();
+            if (!hasValue && recordDate.equals(lastRecordDate)) {
+                // 마지막 기록의 값이 모두 지워진 경우: 그 이전 마지막 기록을 알 수 없으므로 기간을 다시 읽음
+                challengeRepository.findById(progress.getChallengeId()).ifPresent(this::rebuild);
+                continue;
+            }
+
+            progress.setRecordedDays(progress.getRecordedDays() + (hasValue ? 1 : 0) - (hadValue ? 1 : 0));
+            progress.setTotalExerciseDuration(progress.getTotalExerciseDuration() + durationAfter - durationBefore);
+            if (hasValue && (lastRecordDate == null || !recordDate.isBefore(lastRecordDate))) {
+                progress.setLastRecordDate(recordDate);
+                progress.setLastWeight(after.getWeight());
+                progress.setLastBodyFatPercentage(after.getBodyFatPercentage());
+                progress.setLastMuscleMass(after.getMuscleMass());
+            }
+            challengeProgressRepository.save(progress);
+        }
+    }
+
+    // 챌린지 하나의 진행상황을 기간 내 기록에서 다시 계산해 저장
+    @Transactional
+    public ChallengeProgress rebuild(Challenge challenge) {
+        List<ExerciseRecordResponse> records = exerciseRecordRepository
+                .findResponsesByUserIdAndRecordDateBetween(challenge.getUserId(), challenge.getStartDate(), challenge.getEndDate());
+        ChallengeProgressEngine.Summary summary = ChallengeProgressEngine.summarize(
+                ChallengeProgressEngine.DaySeries.of(challenge.getStartDate(), challenge.getEndDate(), records),
+                challenge.getEndDate());
+
+        challengeProgressRepository.insertIfAbsent(challenge.getId(), challenge.getUserId());
+        ChallengeProgress progress = challengeProgressRepository.findForUpdateByChallengeId(challenge.getId())
+                .orElseThrow();
+        progress.setRecordedDays(summary.recordedDays());
+        progress.setTotalExerciseDuration(summary.totalExerciseDuration());
+        progress.setLastRecordDate(summary.lastRecordDate());
+        progress.setLastWeight(summary.lastWeight());
+        progress.setLastBodyFatPercentage(summary.lastBodyFatPercentage());
+        progress.setLastMuscleMass(summary.lastMuscleMass());
+        return challengeProgressRepository.save(progress);
+    }
+
+    // 기간에 걸치는 사용자의 모든 챌린지 진행상황 재생성 (가져오기 후 / 불일치 복구용)
+    @Transactional
+    public int rebuildOverlapping(Long userId, LocalDate startDate, LocalDate endDate) {
+        List<Challenge> challenges = challengeRepository.findOverlapping(userId, startDate, endDate);
+        for (Challenge challenge : challenges) {
+            rebuild(challenge);
+        }
+        logger.info("🔄 챌린지 진행상황 재생성 - userId: {}, {} ~ {}, challenges: {}",
+                userId, startDate, endDate, challenges.size());
+        return challenges.size();
+    }
+
+    // 챌린지 상세 생성: 일별 진행상황은 기간 내 기록에서, 전체 진행상황은 저장된 값이 있으면 그 값으로
+    @Transactional(readOnly = true)
+    public ChallengeDetailResponse buildDetail(ChallengeResponse challenge, LocalDate today) {
+        ChallengeDetailResponse response = new ChallengeDetailResponse();
+        response.setChallenge(challenge);
+        List<ExerciseRecordResponse> records = exerciseRecordRepository
+                .findResponsesByUserIdAndRecordDateBetween(challenge.getUserId(), challenge.getStartDate(), challenge.getEndDate());
+        ChallengeProgressEngine.Summary stored = findSummary(challenge.getId(), today).orElse(null);
+        ChallengeProgressEngine.DaySeries series =
+                ChallengeProgressEngine.DaySeries.of(challenge.getStartDate(), challenge.getEndDate(), records);
+        ChallengeProgressEngine.fillDetail(response, challenge, series, today, stored);
+        return response;
+    }
+
+    // 저장된 진행상황 (오늘 이후 날짜의 기록이 섞여 있으면 상세 화면 기준과 달라지므로 사용하지 않음)
+    @Transactional(readOnly = true)
+    public Optional<ChallengeProgressEngine.Summary> findSummary(Long challengeId, LocalDate today) {
+        return challengeProgressRepository.findByChallengeId(challengeId)
+                .filter(progress -> progress.getLastRecordDate() == null || !progress.getLastRecordDate().isAfter(today))
+                .map(progress -> new ChallengeProgressEngine.Summary(
+                        progress.getRecordedDays(),
+                        progress.getTotalExerciseDuration(),
+                        progress.getLastRecordDate(),
+                        progress.getLastWeight(),
+                        progress.getLastBodyFatPercentage(),
+                        progress.getLastMuscleMass()));
+    }
+
+    private static boolean hasValue(Double weight, Double bodyFatPercentage, Double muscleMass, Integer exerciseDuration) {
+        return weight != null || bodyFatPercentage != null || muscleMass != null || exerciseDuration != null;
+    }
+}
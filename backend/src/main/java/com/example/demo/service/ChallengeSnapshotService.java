@@ -0,0 +1,137 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ChallengeDetailResponse;
+import com.example.demo.dto.ChallengeResponse;
+import com.example.demo.entity.Challenge;
+import com.example.demo.entity.ChallengeSnapshot;
+import com.example.demo.repository.ChallengeProgressRepository;
+import com.example.demo.repository.ChallengeRepository;
+import com.example.demo.repository.ChallengeSnapshotRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+// 종료된 챌린지 상세 스냅샷: 매일 밤 종료된 챌린지의 상세 응답을 JSON 으로 고정해 두고 조회 시 그대로 응답
+// 기간 내 기록이나 목표가 바뀌면 스냅샷을 지우고 다음 실행 때 다시 생성
+@Service
+public class ChallengeSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChallengeSnapshotService.class);
+    private static final int BATCH_SIZE = 200;
+
+    private final ChallengeRepository challengeRepository;
+    private final ChallengeSnapshotRepository challengeSnapshotRepository;
+    private final ChallengeProgressRepository challengeProgressRepository;
+    private final ChallengeProgressService challengeProgressService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${challenge.snapshot.enabled:true}")
+    private boolean enabled;
+
+    public ChallengeSnapshotService(
+            ChallengeRepository challengeRepository,
+            ChallengeSnapshotRepository challengeSnapshotRepository,
+            ChallengeProgressRepository challengeProgressRepository,
+            ChallengeProgressService challengeProgressService,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager) {
+        this.challengeRepository = challengeRepository;
+        this.challengeSnapshotRepository = challengeSnapshotRepository;
+        this.challengeProgressRepository = challengeProgressRepository;
+        this.challengeProgressService = challengeProgressService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public Optional<ChallengeSnapshot> find(Long challengeId) {
+        return challengeSnapshotRepository.findById(challengeId);
+    }
+
+    // 기록 저장/가져오기 후 호출 (기록 저장 시에는 같은 트랜잭션 안에서)
+    public void invalidateOverlapping(Long userId, LocalDate startDate, LocalDate endDate) {
+        int deleted = challengeSnapshotRepository.deleteOverlapping(userId, startDate, endDate);
+        if (deleted > 0) {
+            logger.info("🗑️ 챌린지 스냅샷 무효화 - userId: {}, {} ~ {}, {}개", userId, startDate, endDate, deleted);
+        }
+    }
+
+    // 목표 수정 / 진행상황 재생성 후 호출
+    public void invalidate(Long challengeId) {
+        challengeSnapshotRepository.deleteByChallengeId(challengeId);
+    }
+
+    @Scheduled(cron = "${challenge.snapshot.cron:0 10 0 * * *}")
+    public void freezeEndedChallenges() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            LocalDate today = LocalDate.now();
+            long afterId = 0L;
+            int frozen = 0;
+            List<Long> challengeIds;
+            do {
+                challengeIds = challengeRepository.findEndedIdsWithoutSnapshot(today, afterId, Limit.of(BATCH_SIZE));
+                for (Long challengeId : challengeIds) {
+                    afterId = challengeId;
+                    try {
+                        if (freeze(challengeId, today)) {
+                            frozen++;
+                        }
+                    } catch (Exception e) {
+                        logger.warn("⚠️ 챌린지 스냅샷 생성 실패 - challengeId: {}", challengeId, e);
+                    }
+                }
+            } while (challengeIds.size() == BATCH_SIZE);
+            if (frozen > 0) {
+                logger.info("🧊 종료된 챌린지 스냅샷 생성 - {}개", frozen);
+            }
+        } catch (Exception e) {
+            logger.error("❌ 챌린지 스냅샷 생성 중 오류 발생", e);
+        }
+    }
+
+    // 진행상황 행을 먼저 잠가서 같은 기간의 기록 저장(같은 행을 잠금)과 순서가 엇갈려 오래된 스냅샷이 남지 않도록 함
+    private boolean freeze(Long challengeId, LocalDate today) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            if (challengeProgressRepository.findForUpdateByChallengeId(challengeId).isEmpty()) {
+                Optional<Challenge> challenge = challengeRepository.findById(challengeId);
+                if (challenge.isEmpty()) {
+                    return false;
+                }
+                challengeProgressService.rebuild(challenge.get());
+            }
+
+            ChallengeResponse challenge = challengeRepository.findResponseById(challengeId, today).orElse(null);
+            if (challenge == null) {
+                return false;
+            }
+            ChallengeDetailResponse detail = challengeProgressService.buildDetail(challenge, today);
+
+            ChallengeSnapshot snapshot = new ChallengeSnapshot();
+            snapshot.setChallengeId(challengeId);
+            snapshot.setUserId(challenge.getUserId());
+            snapshot.setStartDate(challenge.getStartDate());
+            snapshot.setEndDate(challenge.getEndDate());
+            try {
+                snapshot.setPayload(objectMapper.writeValueAsBytes(detail));
+            } catch (Exception e) {
+                throw new IllegalStateException("챌린지 상세 직렬화 실패", e);
+            }
+            challengeSnapshotRepository.save(snapshot);
+            return true;
+        }));
+    }
+}
@@ -0,0 +1,412 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ExerciseRecordImportResponse;
+import com.example.demo.dto.ExerciseRecordRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+// 운동 기록 대량 가져오기 (NDJSON / CSV 를 줄 단위로 읽으며 JDBC 배치로 저장)
+@Service
+public class ExerciseRecordImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExerciseRecordImportService.class);
+    private static final int BATCH_SIZE = 1000;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    // 한 줄 최대 길이 (문자 수): 정상 행은 1KB 안팎이므로 넉넉히, 줄바꿈 없는 큰 파일 하나로 메모리를 다 쓰지 않도록
+    private static final int MAX_LINE_LENGTH = 16 * 1024;
+    private static final String UPSERT_SQL = "INSERT INTO exercise_records " +
+            "(user_id, record_date, weight, body_fat_percentage, muscle_mass, exercise_type, exercise_duration, image_url, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, NOW(6), NOW(6)) " +
+            "ON DUPLICATE KEY UPDATE weight = VALUES(weight), body_fat_percentage = VALUES(body_fat_percentage), " +
+            "muscle_mass = VALUES(muscle_mass), exercise_type = VALUES(exercise_type), " +
+            "exercise_duration = VALUES(exercise_duration), image_url = VALUES(image_url), updated_at = NOW(6)";
+
+    public enum Format {
+        NDJSON, CSV
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ExerciseRecordRollupService rollupService;
+    private final ChallengeProgressService challengeProgressService;
+    private final ChallengeSnapshotService challengeSnapshotService;
+    private final ChallengeLeaderboardService challengeLeaderboardService;
+    private final SharedChallengeDetailService sharedChallengeDetailService;
+    private final ImageReferenceService imageReferenceService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    public ExerciseRecordImportService(
+            JdbcTemplate jdbcTemplate,
+            ExerciseRecordRollupService rollupService,
+            ChallengeProgressService challengeProgressService,
+            ChallengeSnapshotService challengeSnapshotService,
+            ChallengeLeaderboardService challengeLeaderboardService,
+            SharedChallengeDetailService sharedChallengeDetailService,
+            ImageReferenceService imageReferenceService,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.rollupService = rollupService;
+        this.challengeProgressService = challengeProgressService;
+        this.challengeSnapshotService = challengeSnapshotService;
+        this.challengeLeaderboardService = challengeLeaderboardService;
+        this.sharedChallengeDetailService = sharedChallengeDetailService;
+        this.imageReferenceService = imageReferenceService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+    }
+
+    public ExerciseRecordImportResponse importRecords(Long userId, InputStream inputStream, Format format) throws IOException {
+        ExerciseRecordImportResponse result = new ExerciseRecordImportResponse();
+        Batch batch = new Batch();
+        Committed committed = new Committed();
+
+        try {
+            LineReader reader = new LineReader(
+                    new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8)), MAX_LINE_LENGTH);
+            Map<String, Integer> csvColumns = null;
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (reader.isTooLong()) {
+                    // 나머지는 읽고 버린 상태, 해당 줄만 실패로 기록하고 계속 진행
+                    result.setTotalRows(result.getTotalRows() + 1);
+                    addError(result, lineNumber, "줄이 너무 깁니다. (최대 " + MAX_LINE_LENGTH + "자)");
+                    continue;
+                }
+                if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+                    line = line.substring(1);
+                }
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                // CSV 는 첫 줄을 헤더로 사용
+                if (format == Format.CSV && csvColumns == null) {
+                    csvColumns = parseCsvHeader(line);
+                    continue;
+                }
+
+                result.setTotalRows(result.getTotalRows() + 1);
+                try {
+                    ExerciseRecordRequest row = format == Format.CSV
+                            ? parseCsvRow(line, csvColumns)
+                            : objectMapper.readValue(line, ExerciseRecordRequest.class);
+                    validate(row);
+                    batch.add(lineNumber, row.getRecordDate(), row.getImageUrl(), toParameters(userId, row));
+                } catch (Exception e) {
+                    addError(result, lineNumber, e.getMessage());
+                    continue;
+                }
+
+                if (batch.size() >= BATCH_SIZE) {
+                    flush(userId, batch, result, committed);
+                }
+            }
+            flush(userId, batch, result, committed);
+        } finally {
+            // 중간에 실패해도 이미 커밋된 배치의 날짜에 대해서는 집계/챌린지 데이터 갱신
+            refreshDerived(userId, committed);
+        }
+
+        logger.info("✅ 기록 가져오기 완료 - userId: {}, total: {}, imported: {}, failed: {}",
+                userId, result.getTotalRows(), result.getImportedRows(), result.getFailedRows());
+        return result;
+    }
+
+    // 배치 단위로 커밋: 저장에 실패한 배치는 해당 줄들을 실패로 기록하고 계속 진행 (이전 배치는 유지)
+    private void flush(Long userId, Batch batch, ExerciseRecordImportResponse result, Committed committed) {
+        if (batch.size() == 0) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // 기록 저장과 같은 순서로 집계 행을 먼저 잠금 (집계 재계산과 서로 기다리지 않도록)
+                rollupService.lockForRecordWrites(userId, batch.dates);
+                jdbcTemplate.batchUpdate(UPSERT_SQL, batch.parameters);
+                imageReferenceService.replaceBatch(userId, batch.dates, batch.imageUrls);
+            });
+            result.setImportedRows(result.getImportedRows() + batch.size());
+            for (LocalDate date : batch.dates) {
+                committed.add(date);
+            }
+        } catch (DataAccessException e) {
+            logger.error("❌ 기록 가져오기 배치 저장 실패 - lines: {}~{}",
+                    batch.lineNumbers.get(0), batch.lineNumbers.get(batch.size() - 1), e);
+            String message = "저장 실패: " + e.getMostSpecificCause().getMessage();
+            for (Long lineNumber : batch.lineNumbers) {
+                addError(result, lineNumber, message);
+            }
+        }
+        batch.clear();
+    }
+
+    // 갱신 작업은 서로 독립적으로 실행 (하나가 실패해도 나머지는 진행)
+    private void refreshDerived(Long userId, Committed committed) {
+        if (committed.firstDate == null) {
+            return;
+        }
+        LocalDate firstDate = committed.firstDate;
+        LocalDate lastDate = committed.lastDate;
+        runQuietly("공유된 챌린지 상세 캐시 제거", userId,
+                () -> sharedChallengeDetailService.invalidateOverlapping(userId, firstDate, lastDate));
+        runQuietly("주/월 집계 갱신", userId, () -> {
+            for (LocalDate month : committed.months) {
+                rollupService.refreshPeriod(userId, ExerciseRecordRollupService.MONTH, month);
+            }
+            for (LocalDate week : committed.weeks) {
+                rollupService.refreshPeriod(userId, ExerciseRecordRollupService.WEEK, week);
+            }
+        });
+        runQuietly("챌린지 진행상황 재생성", userId, () -> {
+            challengeProgressService.rebuildOverlapping(userId, firstDate, lastDate);
+            challengeSnapshotService.invalidateOverlapping(userId, firstDate, lastDate);
+        });
+        runQuietly("챌린지 리더보드 갱신", userId,
+                () -> challengeLeaderboardService.onRecordWritten(userId, firstDate, lastDate));
+    }
+
+    private void runQuietly(String task, Long userId, Runnable action) {
+        try {
+            action.run();
+        } catch (Exception e) {
+            logger.error("❌ 기록 가져오기 후 {} 중 오류 발생 - userId: {}", task, userId, e);
+        }
+    }
+
+    // 길이 제한이 있는 줄 읽기 (\n 또는 \r\n 구분, 제한을 넘는 부분은 버리고 isTooLong() 으로 알림)
+    private static final class LineReader {
+        private final Reader reader;
+        private final int maxLength;
+        private final StringBuilder line = new StringBuilder();
+        private boolean tooLong;
+
+        LineReader(Reader reader, int maxLength) {
+            this.reader = reader;
+            this.maxLength = maxLength;
+        }
+
+        String readLine() throws IOException {
+            line.setLength(0);
+            tooLong = false;
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            while (c != -1 && c != '\n') {
+                if (line.length() < maxLength) {
+                    line.append((char) c);
+                } else if (c != '\r') {
+                    tooLong = true;
+                }
+                c = reader.read();
+            }
+            int length = line.length();
+            if (length > 0 && line.charAt(length - 1) == '\r') {
+                line.setLength(length - 1);
+            }
+            return tooLong ? "" : line.toString();
+        }
+
+        boolean isTooLong() {
+            return tooLong;
+        }
+    }
+
+    // 아직 저장하지 않은 행들 (실패 시 줄 번호 보고용)
+    private static final class Batch {
+        private final List<Object[]> parameters = new ArrayList<>(BATCH_SIZE);
+        private final List<Long> lineNumbers = new ArrayList<>(BATCH_SIZE);
+        private final List<LocalDate> dates = new ArrayList<>(BATCH_SIZE);
+        private final List<String> imageUrls = new ArrayList<>(BATCH_SIZE);
+
+        void add(long lineNumber, LocalDate date, String imageUrl, Object[] row) {
+            parameters.add(row);
+            lineNumbers.add(lineNumber);
+            dates.add(date);
+            imageUrls.add(imageUrl);
+        }
+
+        int size() {
+            return parameters.size();
+        }
+
+        void clear() {
+            parameters.clear();
+            lineNumbers.clear();
+            dates.clear();
+            imageUrls.clear();
+        }
+    }
+
+    // 커밋된 기록이 속한 주/월과 날짜 범위 (파일 크기와 무관하게 기간 수만큼만 보관)
+    private static final class Committed {
+        private final Set<LocalDate> weeks = new TreeSet<>();
+        private final Set<LocalDate> months = new TreeSet<>();
+        private LocalDate firstDate;
+        private LocalDate lastDate;
+
+        void add(LocalDate date) {
+            weeks.add(ExerciseRecordRollupService.periodStart(ExerciseRecordRollupService.WEEK, date));
+            months.add(ExerciseRecordRollupService.periodStart(ExerciseRecordRollupService.MONTH, date));
+            if (firstDate == null || date.isBefore(firstDate)) {
+                firstDate = date;
+            }
+            if (lastDate == null || date.isAfter(lastDate)) {
+                lastDate = date;
+            }
+        }
+    }
+
+    private Object[] toParameters(Long userId, ExerciseRecordRequest row) {
+        return new Object[] {
+                userId,
+                Date.valueOf(row.getRecordDate()),
+                row.getWeight(),
+                row.getBodyFatPercentage(),
+                row.getMuscleMass(),
+                row.getExerciseType(),
+                row.getExerciseDuration(),
+                row.getImageUrl()
+        };
+    }
+
+    private void validate(ExerciseRecordRequest row) {
+        if (row.getRecordDate() == null) {
+            throw new IllegalArgumentException("recordDate 는 필수입니다.");
+        }
+        checkNonNegative("weight", row.getWeight());
+        checkNonNegative("bodyFatPercentage", row.getBodyFatPercentage());
+        checkNonNegative("muscleMass", row.getMuscleMass());
+        if (row.getBodyFatPercentage() != null && row.getBodyFatPercentage() > 100) {
+            throw new IllegalArgumentException("bodyFatPercentage 는 100 이하여야 합니다.");
+        }
+        if (row.getExerciseDuration() != null && row.getExerciseDuration() < 0) {
+            throw new IllegalArgumentException("exerciseDuration 은 0 이상이어야 합니다.");
+        }
+        if (row.getExerciseType() != null && row.getExerciseType().length() > 255) {
+            throw new IllegalArgumentException("exerciseType 이 너무 깁니다.");
+        }
+        if (row.getImageUrl() != null && row.getImageUrl().length() > 500) {
+            throw new IllegalArgumentException("imageUrl 이 너무 깁니다.");
+        }
+    }
+
+    private void checkNonNegative(String field, Double value) {
+        if (value != null && (value.isNaN() || value < 0)) {
+            throw new IllegalArgumentException(field + " 는 0 이상이어야 합니다.");
+        }
+    }
+
+    private void addError(ExerciseRecordImportResponse result, long lineNumber, String message) {
+        result.setFailedRows(result.getFailedRows() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            ExerciseRecordImportResponse.RowError error = new ExerciseRecordImportResponse.RowError();
+            error.setLine(lineNumber);
+            error.setMessage(message);
+            result.getErrors().add(error);
+        }
+    }
+
+    private Map<String, Integer> parseCsvHeader(String line) {
+        List<String> names = splitCsvLine(line);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim(), i);
+        }
+        if (!columns.containsKey("recordDate")) {
+            throw new IllegalArgumentException("CSV 헤더에 recordDate 컬럼이 필요합니다.");
+        }
+        return columns;
+    }
+
+    private ExerciseRecordRequest parseCsvRow(String line, Map<String, Integer> columns) {
+        List<String> values = splitCsvLine(line);
+        ExerciseRecordRequest row = new ExerciseRecordRequest();
+        try {
+            String recordDate = column(values, columns, "recordDate");
+            row.setRecordDate(recordDate != null ? LocalDate.parse(recordDate) : null);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("recordDate 형식이 올바르지 않습니다. (YYYY-MM-DD)");
+        }
+        try {
+            String weight = column(values, columns, "weight");
+            String bodyFat = column(values, columns, "bodyFatPercentage");
+            String muscleMass = column(values, columns, "muscleMass");
+            String duration = column(values, columns, "exerciseDuration");
+            row.setWeight(weight != null ? Double.valueOf(weight) : null);
+            row.setBodyFatPercentage(bodyFat != null ? Double.valueOf(bodyFat) : null);
+            row.setMuscleMass(muscleMass != null ? Double.valueOf(muscleMass) : null);
+            row.setExerciseDuration(duration != null ? Integer.valueOf(duration) : null);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("숫자 형식이 올바르지 않습니다: " + e.getMessage());
+        }
+        row.setExerciseType(column(values, columns, "exerciseType"));
+        row.setImageUrl(column(values, columns, "imageUrl"));
+        return row;
+    }
+
+    // 빈 값은 null 로 취급
+    private String column(List<String> values, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= values.size()) {
+            return null;
+        }
+        String value = values.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    // 큰따옴표로 감싼 필드와 "" 이스케이프를 지원하는 한 줄 CSV 분리
+    private List<String> splitCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+}
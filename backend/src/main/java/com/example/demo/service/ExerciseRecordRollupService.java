@@ -0,0 +1,219 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ExerciseRecordRollupResponse;
+import com.example.demo.entity.ExerciseRecordRollup;
+import com.example.demo.repository.ExerciseRecordRepository;
+import com.example.demo.repository.ExerciseRecordRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+// 주/월 단위 체성분·운동시간 집계 (기록 저장 시 해당 주·월 버킷만 다시 계산)
+// 같은 버킷을 동시에 다시 계산하면 서로의 기록을 못 본 값으로 덮어쓸 수 있으므로,
+// 버킷 행을 먼저 잠그고 (없으면 INSERT IGNORE 로 만든 뒤) 기간 내 기록은 잠금 읽기로 최신 값을 읽음
+// 잠금 순서는 항상 월 → 주 (재생성도 월 전체 → 주 전체 순) 라서 서로 교착되지 않음
+@Service
+public class ExerciseRecordRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExerciseRecordRollupService.class);
+    public static final String WEEK = "WEEK";
+    public static final String MONTH = "MONTH";
+    // 재생성 한 번에 허용하는 최대 기간 (한 트랜잭션 안에서 처리하므로 제한)
+    public static final int MAX_REBUILD_YEARS = 5;
+
+    private final ExerciseRecordRepository exerciseRecordRepository;
+    private final ExerciseRecordRollupRepository rollupRepository;
+
+    public ExerciseRecordRollupService(
+            ExerciseRecordRepository exerciseRecordRepository,
+            ExerciseRecordRollupRepository rollupRepository) {
+        this.exerciseRecordRepository = exerciseRecordRepository;
+        this.rollupRepository = rollupRepository;
+    }
+
+    public static LocalDate periodStart(String periodType, LocalDate date) {
+        return WEEK.equals(periodType)
+                ? date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+                : date.withDayOfMonth(1);
+    }
+
+    public static LocalDate periodEnd(String periodType, LocalDate periodStart) {
+        return WEEK.equals(periodType)
+                ? periodStart.plusDays(6)
+                : periodStart.with(TemporalAdjusters.lastDayOfMonth());
+    }
+
+    // 기록 저장 트랜잭션 맨 앞에서 호출 (기록 행을 쓰기 전에): 해당 날짜의 월·주 집계 행 잠금
+    // 기록을 먼저 쓰고 집계 행을 기다리면, 집계 행을 잡은 쪽의 잠금 읽기와 서로 기다리게 됨
+    @Transactional
+    public void lockForRecordWrite(Long userId, LocalDate recordDate) {
+        lockPeriod(userId, MONTH, periodStart(MONTH, recordDate));
+        lockPeriod(userId, WEEK, periodStart(WEEK, recordDate));
+    }
+
+    // 여러 날짜를 한 트랜잭션에서 쓸 때 (가져오기 배치): 월 전체 → 주 전체를 날짜순으로 잠금
+    @Transactional
+    public void lockForRecordWrites(Long userId, Collection<LocalDate> recordDates) {
+        Set<LocalDate> months = new TreeSet<>();
+        Set<LocalDate> weeks = new TreeSet<>();
+        for (LocalDate recordDate : recordDates) {
+            months.add(periodStart(MONTH, recordDate));
+            weeks.add(periodStart(WEEK, recordDate));
+        }
+        for (LocalDate month : months) {
+            lockPeriod(userId, MONTH, month);
+        }
+        for (LocalDate week : weeks) {
+            lockPeriod(userId, WEEK, week);
+        }
+    }
+
+    // 기록 한 건이 바뀌었을 때: 해당 날짜가 속한 월·주 집계 갱신
+    @Transactional
+    public void onRecordWritten(Long userId, LocalDate recordDate) {
+        refreshPeriod(userId, MONTH, periodStart(MONTH, recordDate));
+        refreshPeriod(userId, WEEK, periodStart(WEEK, recordDate));
+    }
+
+    // 버킷 하나를 원본 기록(최대 31행)에서 다시 계산해 저장 (버킷 행을 잠근 뒤 기록을 읽음)
+    @Transactional
+    public void refreshPeriod(Long userId, String periodType, LocalDate periodStart) {
+        LocalDate periodEnd = lockPeriod(userId, periodType, periodStart);
+        List<Object[]> rows = exerciseRecordRepository.findRollupRowsLocked(userId, periodStart, periodEnd);
+
+        if (rows.isEmpty()) {
+            rollupRepository.deletePeriod(userId, periodType, periodStart);
+            return;
+        }
+
+        MetricAccumulator weight = new MetricAccumulator();
+        MetricAccumulator bodyFat = new MetricAccumulator();
+        MetricAccumulator muscleMass = new MetricAccumulator();
+        int totalDuration = 0;
+        for (Object[] row : rows) {
+            LocalDate recordDate = toLocalDate(row[0]);
+            weight.add(recordDate, toDouble(row[1]));
+            bodyFat.add(recordDate, toDouble(row[2]));
+            muscleMass.add(recordDate, toDouble(row[3]));
+            if (row[4] != null) {
+                totalDuration += ((Number) row[4]).intValue();
+            }
+        }
+
+        ExerciseRecordRollup rollup = new ExerciseRecordRollup();
+        rollup.setUserId(userId);
+        rollup.setPeriodType(periodType);
+        rollup.setPeriodStart(periodStart);
+        rollup.setPeriodEnd(periodEnd);
+        rollup.setDaysRecorded(rows.size());
+        rollup.setTotalExerciseDuration(totalDuration);
+        rollup.setWeightMin(weight.min());
+        rollup.setWeightMax(weight.max());
+        rollup.setWeightAvg(weight.avg());
+        rollup.setWeightLast(weight.last());
+        rollup.setBodyFatMin(bodyFat.min());
+        rollup.setBodyFatMax(bodyFat.max());
+        rollup.setBodyFatAvg(bodyFat.avg());
+        rollup.setBodyFatLast(bodyFat.last());
+        rollup.setMuscleMassMin(muscleMass.min());
+        rollup.setMuscleMassMax(muscleMass.max());
+        rollup.setMuscleMassAvg(muscleMass.avg());
+        rollup.setMuscleMassLast(muscleMass.last());
+        rollupRepository.upsert(rollup);
+    }
+
+    // 기존 기록에 대한 집계 재생성 (버킷 단위로 진행해서 한 번에 한 달치만 메모리에 올림)
+    // 기간이 거꾸로이거나 MAX_REBUILD_YEARS 를 넘으면 IllegalArgumentException
+    @Transactional
+    public void rebuild(Long userId, LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("endDate 는 startDate 이후여야 합니다.");
+        }
+        if (endDate.isAfter(startDate.plusYears(MAX_REBUILD_YEARS))) {
+            throw new IllegalArgumentException("재생성 기간은 최대 " + MAX_REBUILD_YEARS + "년입니다.");
+        }
+        logger.info("🔄 집계 재생성 - userId: {}, {} ~ {}", userId, startDate, endDate);
+        LocalDate month = periodStart(MONTH, startDate);
+        while (!month.isAfter(endDate)) {
+            refreshPeriod(userId, MONTH, month);
+            month = month.plusMonths(1);
+        }
+        LocalDate week = periodStart(WEEK, startDate);
+        while (!week.isAfter(endDate)) {
+            refreshPeriod(userId, WEEK, week);
+            week = week.plusWeeks(1);
+        }
+    }
+
+    // 행이 없으면 만든 뒤 잠금 (같은 트랜잭션에서 이미 잠갔으면 그대로 통과), 기간 끝 날짜 반환
+    private LocalDate lockPeriod(Long userId, String periodType, LocalDate periodStart) {
+        LocalDate periodEnd = periodEnd(periodType, periodStart);
+        rollupRepository.insertIfAbsent(userId, periodType, periodStart, periodEnd);
+        rollupRepository.lockPeriod(userId, periodType, periodStart);
+        return periodEnd;
+    }
+
+    // 네이티브 쿼리 결과 변환 (드라이버에 따라 java.sql.Date / LocalDate)
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof Date date ? date.toLocalDate() : (LocalDate) value;
+    }
+
+    private static Double toDouble(Object value) {
+        return value != null ? ((Number) value).doubleValue() : null;
+    }
+
+    @Transactional(readOnly = true)
+    public List<ExerciseRecordRollupResponse> findRollups(Long userId, String periodType, LocalDate startDate, LocalDate endDate) {
+        return rollupRepository.findResponses(userId, periodType, startDate, endDate);
+    }
+
+    // 지표 하나의 최소/최대/평균/마지막 값을 한 번의 순회로 계산
+    private static class MetricAccumulator {
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+        private double sum;
+        private int count;
+        private LocalDate lastDate;
+        private double last;
+
+        void add(LocalDate date, Double value) {
+            if (value == null) {
+                return;
+            }
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            sum += value;
+            count++;
+            if (lastDate == null || date.isAfter(lastDate)) {
+                lastDate = date;
+                last = value;
+            }
+        }
+
+        Double min() {
+            return count > 0 ? min : null;
+        }
+
+        Double max() {
+            return count > 0 ? max : null;
+        }
+
+        Double avg() {
+            return count > 0 ? sum / count : null;
+        }
+
+        Double last() {
+            return count > 0 ? last : null;
+        }
+    }
+}
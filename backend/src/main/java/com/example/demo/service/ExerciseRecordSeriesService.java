@@ -0,0 +1,78 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ExerciseRecordSeriesResponse;
+import com.example.demo.repository.ExerciseRecordRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// 긴 기간 체성분 시계열을 지표별로 목표 점 개수 이하로 줄여서 제공
+@Service
+public class ExerciseRecordSeriesService {
+
+    private final ExerciseRecordRepository exerciseRecordRepository;
+
+    public ExerciseRecordSeriesService(ExerciseRecordRepository exerciseRecordRepository) {
+        this.exerciseRecordRepository = exerciseRecordRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public ExerciseRecordSeriesResponse buildSeries(Long userId, LocalDate startDate, LocalDate endDate, int targetPoints) {
+        List<Object[]> rows = exerciseRecordRepository.findMetricsByUserIdAndRecordDateBetween(userId, startDate, endDate);
+
+        // 지표별로 값이 있는 날짜만 원시 배열에 모음 (x = epoch day)
+        int size = rows.size();
+        double[] weightX = new double[size];
+        double[] weightY = new double[size];
+        double[] bodyFatX = new double[size];
+        double[] bodyFatY = new double[size];
+        double[] muscleX = new double[size];
+        double[] muscleY = new double[size];
+        int weightCount = 0;
+        int bodyFatCount = 0;
+        int muscleCount = 0;
+        for (Object[] row : rows) {
+            double day = ((LocalDate) row[0]).toEpochDay();
+            if (row[1] != null) {
+                weightX[weightCount] = day;
+                weightY[weightCount++] = (Double) row[1];
+            }
+            if (row[2] != null) {
+                bodyFatX[bodyFatCount] = day;
+                bodyFatY[bodyFatCount++] = (Double) row[2];
+            }
+            if (row[3] != null) {
+                muscleX[muscleCount] = day;
+                muscleY[muscleCount++] = (Double) row[3];
+            }
+        }
+
+        ExerciseRecordSeriesResponse response = new ExerciseRecordSeriesResponse();
+        response.setStartDate(startDate);
+        response.setEndDate(endDate);
+        response.setTargetPoints(targetPoints);
+        response.setWeight(downsample(weightX, weightY, weightCount, targetPoints));
+        response.setBodyFatPercentage(downsample(bodyFatX, bodyFatY, bodyFatCount, targetPoints));
+        response.setMuscleMass(downsample(muscleX, muscleY, muscleCount, targetPoints));
+        return response;
+    }
+
+    private ExerciseRecordSeriesResponse.Series downsample(double[] x, double[] y, int length, int targetPoints) {
+        int[] indices = SeriesDownsampler.lttb(x, y, length, targetPoints);
+        List<LocalDate> dates = new ArrayList<>(indices.length);
+        double[] values = new double[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            dates.add(LocalDate.ofEpochDay((long) x[indices[i]]));
+            values[i] = y[indices[i]];
+        }
+
+        ExerciseRecordSeriesResponse.Series series = new ExerciseRecordSeriesResponse.Series();
+        series.setOriginalPoints(length);
+        series.setDates(dates);
+        series.setValues(values);
+        return series;
+    }
+}
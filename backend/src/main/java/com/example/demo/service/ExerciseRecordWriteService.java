@@ -0,0 +1,102 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ExerciseRecordRequest;
+import com.example.demo.dto.ExerciseRecordResponse;
+import com.example.demo.entity.ChallengeProgress;
+import com.example.demo.entity.ExerciseRecord;
+import com.example.demo.repository.ExerciseRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// 운동 기록 한 건 저장과 그에 따른 파생 데이터 갱신 (집계, 챌린지 진행상황/스냅샷/리더보드, 이미지 참조, 공유 상세 캐시)
+@Service
+public class ExerciseRecordWriteService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExerciseRecordWriteService.class);
+
+    private final ExerciseRecordRepository exerciseRecordRepository;
+    private final ExerciseRecordRollupService exerciseRecordRollupService;
+    private final ChallengeProgressService challengeProgressService;
+    private final ChallengeSnapshotService challengeSnapshotService;
+    private final ChallengeLeaderboardService challengeLeaderboardService;
+    private final SharedChallengeDetailService sharedChallengeDetailService;
+    private final ImageReferenceService imageReferenceService;
+    private final TransactionTemplate writeTransaction;
+
+    public ExerciseRecordWriteService(
+            ExerciseRecordRepository exerciseRecordRepository,
+            ExerciseRecordRollupService exerciseRecordRollupService,
+            ChallengeProgressService challengeProgressService,
+            ChallengeSnapshotService challengeSnapshotService,
+            ChallengeLeaderboardService challengeLeaderboardService,
+            SharedChallengeDetailService sharedChallengeDetailService,
+            ImageReferenceService imageReferenceService,
+            PlatformTransactionManager transactionManager) {
+        this.exerciseRecordRepository = exerciseRecordRepository;
+        this.exerciseRecordRollupService = exerciseRecordRollupService;
+        this.challengeProgressService = challengeProgressService;
+        this.challengeSnapshotService = challengeSnapshotService;
+        this.challengeLeaderboardService = challengeLeaderboardService;
+        this.sharedChallengeDetailService = sharedChallengeDetailService;
+        this.imageReferenceService = imageReferenceService;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    // 기록 저장과 챌린지 진행상황/집계 갱신을 한 트랜잭션으로 처리한 뒤, 커밋 이후 작업 실행
+    public ExerciseRecordResponse save(Long userId, ExerciseRecordRequest request) {
+        LocalDate recordDate = request.getRecordDate();
+        ExerciseRecordResponse response = writeTransaction.execute(status -> {
+            // 기록을 쓰기 전에 주/월 집계 행부터 잠금 (같은 주·월의 동시 저장이 집계를 덮어쓰지 않도록)
+            exerciseRecordRollupService.lockForRecordWrite(userId, recordDate);
+            List<ChallengeProgress> progress = challengeProgressService.lockForRecordWrite(userId, recordDate);
+            // 진행상황 증분 계산용 이전 값 (해당 날짜를 포함하는 챌린지가 없으면 조회하지 않음)
+            ExerciseRecord before = progress.isEmpty() ? null : exerciseRecordRepository
+                    .findForUpdateByUserIdAndRecordDate(userId, recordDate)
+                    .orElse(null);
+
+            // 유니크 키 기반 단일 쿼리로 생성/수정 (조회 후 저장 방식의 중복 생성 경쟁 제거)
+            int affected = exerciseRecordRepository.upsert(
+                    userId,
+                    recordDate,
+                    request.getWeight(),
+                    request.getBodyFatPercentage(),
+                    request.getMuscleMass(),
+                    request.getExerciseType(),
+                    request.getExerciseDuration(),
+                    request.getImageUrl());
+            // MariaDB 반환값: 1 = 새로 생성, 2 = 기존 행 수정, 0 = 변경 없음
+            logger.info(affected == 1 ? "➕ 새 기록 생성" : "✏️ 기존 기록 수정");
+
+            ExerciseRecordResponse saved = exerciseRecordRepository
+                    .findResponseByUserIdAndRecordDate(userId, recordDate)
+                    .orElseThrow();
+            challengeProgressService.onRecordWritten(progress, recordDate, before, saved);
+            challengeSnapshotService.invalidateOverlapping(userId, recordDate, recordDate);
+            imageReferenceService.replace(userId, recordDate, request.getImageUrl());
+            // 주/월 집계도 같은 트랜잭션에서 갱신 (버킷당 최대 31행)
+            exerciseRecordRollupService.onRecordWritten(userId, recordDate);
+            return saved;
+        });
+
+        // 커밋 직후 가장 먼저 공유된 챌린지 상세 캐시 제거 (이후 작업이 실패해도 오래된 상세가 남지 않도록)
+        sharedChallengeDetailService.invalidateOverlapping(userId, recordDate, recordDate);
+        // 커밋 이후 작업: 실패해도 이미 저장된 기록이므로 로그만 남기고 진행
+        runAfterCommit("챌린지 리더보드 갱신", () -> challengeLeaderboardService
+                .onRecordWritten(userId, recordDate, recordDate));
+        return response;
+    }
+
+    private void runAfterCommit(String task, Runnable action) {
+        try {
+            action.run();
+        } catch (Exception e) {
+            logger.error("❌ 기록 저장 후 {} 중 오류 발생", task, e);
+        }
+    }
+}
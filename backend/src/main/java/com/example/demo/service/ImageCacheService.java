@@ -0,0 +1,143 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ImageCacheStatsResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// 자주 조회되는 이미지/축소본 바이트를 메모리에 보관 (바이트 크기 기준 LRU, 힙 밖 direct ByteBuffer)
+// 한 번만 조회되는 이미지가 캐시를 밀어내지 않도록 두 번째 조회부터 적재
+@Service
+public class ImageCacheService {
+
+    private static final int MAX_DOORKEEPER_ENTRIES = 20_000;
+
+    // 캐시된 응답: 본문과 함께 헤더 값도 보관해서 적중 시 파일 시스템을 전혀 거치지 않음
+    public record CachedImage(ByteBuffer data, String contentType, String etag, String cacheControl) {
+    }
+
+    private final long maxBytes;
+    private final long maxEntryBytes;
+    private long currentBytes;
+    private final LinkedHashMap<String, CachedImage> entries = new LinkedHashMap<>(256, 0.75f, true);
+    // 최근 한 번 조회된 키 (두 번째 조회 시 적재)
+    private final LinkedHashMap<String, Boolean> doorkeeper = new LinkedHashMap<>(256, 0.75f, false) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > MAX_DOORKEEPER_ENTRIES;
+        }
+    };
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ImageCacheService(
+            @Value("${image.cache.max-bytes:67108864}") long maxBytes,
+            @Value("${image.cache.max-entry-bytes:2097152}") long maxEntryBytes) {
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = Math.min(maxEntryBytes, maxBytes);
+    }
+
+    public static String key(String filename, ImageVariantService.Variant variant) {
+        return variant == null ? filename : filename + "?" + variant.getKey();
+    }
+
+    public CachedImage get(String key) {
+        CachedImage image;
+        synchronized (this) {
+            image = entries.get(key);
+        }
+        if (image == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return image;
+    }
+
+    // 조회 실패 후 호출: 두 번째 조회이고 크기 제한 안이면 파일을 읽어 적재 (적재되지 않으면 null)
+    public CachedImage load(String key, Path file, String contentType, String etag, String cacheControl) throws IOException {
+        if (maxBytes <= 0) {
+            return null;
+        }
+        synchronized (this) {
+            if (doorkeeper.remove(key) == null) {
+                doorkeeper.put(key, Boolean.TRUE);
+                return null;
+            }
+        }
+
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0 || size > maxEntryBytes) {
+                return null;
+            }
+            buffer = ByteBuffer.allocateDirect((int) size);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, buffer.position()) < 0) {
+                    return null;
+                }
+            }
+            buffer.flip();
+        }
+
+        CachedImage image = new CachedImage(buffer.asReadOnlyBuffer(), contentType, etag, cacheControl);
+        put(key, image);
+        return image;
+    }
+
+    // 원본이 삭제된 이미지의 캐시 항목 제거 (원본 + 모든 축소본)
+    public synchronized void invalidate(String filename) {
+        remove(key(filename, null));
+        for (ImageVariantService.Variant variant : ImageVariantService.Variant.values()) {
+            remove(key(filename, variant));
+        }
+    }
+
+    public synchronized ImageCacheStatsResponse stats() {
+        ImageCacheStatsResponse response = new ImageCacheStatsResponse();
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        response.setHits(hitCount);
+        response.setMisses(missCount);
+        response.setEvictions(evictions.sum());
+        response.setEntries(entries.size());
+        response.setBytes(currentBytes);
+        response.setMaxBytes(maxBytes);
+        response.setHitRate(hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        return response;
+    }
+
+    private synchronized void put(String key, CachedImage image) {
+        remove(key);
+        entries.put(key, image);
+        currentBytes += image.data().capacity();
+
+        // 용량을 넘으면 가장 오래 조회되지 않은 항목부터 제거
+        Iterator<Map.Entry<String, CachedImage>> iterator = entries.entrySet().iterator();
+        while (currentBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<String, CachedImage> eldest = iterator.next();
+            iterator.remove();
+            currentBytes -= eldest.getValue().data().capacity();
+            evictions.increment();
+        }
+    }
+
+    private void remove(String key) {
+        CachedImage removed = entries.remove(key);
+        if (removed != null) {
+            currentBytes -= removed.data().capacity();
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.ImageFile;
+import com.example.demo.repository.ExerciseRecordRepository;
+import com.example.demo.repository.ImageBlobRepository;
+import com.example.demo.repository.ImageFileRepository;
+import com.example.demo.repository.ImageReferenceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+// 기록에 저장되지 않은 업로드 이미지 정리
+// 한 번에 조금씩 훑고(커서는 파일로 유지), 삭제 사이에 쉬어서 이미지 제공과 디스크를 다투지 않도록 함
+// 참조 여부는 image_references 에서 후보 파일명만 인덱스로 조회 (처음 한 번은 기존 기록으로 백필한 뒤 시작)
+@Service
+public class ImageGarbageCollector {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageGarbageCollector.class);
+    // 참조 백필 → 매핑된 업로드(image_files) → 기존 평면 디렉토리 파일 순서로 번갈아 훑음
+    private static final String PHASE_BACKFILL = "BACKFILL";
+    private static final String PHASE_MAPPED = "MAPPED";
+    private static final String PHASE_LEGACY = "LEGACY";
+
+    private final Path root;
+    private final Path stateFile;
+    private final ImageFileRepository imageFileRepository;
+    private final ImageBlobRepository imageBlobRepository;
+    private final ExerciseRecordRepository exerciseRecordRepository;
+    private final ImageReferenceRepository imageReferenceRepository;
+    private final ImageReferenceService imageReferenceService;
+    private final ImageStoreService imageStoreService;
+    private final ImageVariantService imageVariantService;
+    private final ImageCacheService imageCacheService;
+    private final TransactionTemplate transactionTemplate;
+    // 기존 평면 디렉토리 목록 (배치마다 다시 나열하지 않도록 다 훑을 때까지 유지, 정리 작업 스레드에서만 사용)
+    private DirectoryStream<Path> legacyListing;
+    private Iterator<Path> legacyEntries;
+
+    @Value("${image.gc.enabled:true}")
+    private boolean enabled;
+
+    @Value("${image.gc.grace-hours:24}")
+    private long graceHours;
+
+    @Value("${image.gc.batch-size:500}")
+    private int batchSize;
+
+    @Value("${image.gc.batches-per-run:4}")
+    private int batchesPerRun;
+
+    @Value("${image.gc.delete-interval-ms:50}")
+    private long deleteIntervalMs;
+
+    public ImageGarbageCollector(
+            @Value("${file.upload-dir:uploads/images}") String uploadDir,
+            ImageFileRepository imageFileRepository,
+            ImageBlobRepository imageBlobRepository,
+            ExerciseRecordRepository exerciseRecordRepository,
+            ImageReferenceRepository imageReferenceRepository,
+            ImageReferenceService imageReferenceService,
+            ImageStoreService imageStoreService,
+            ImageVariantService imageVariantService,
+            ImageCacheService imageCacheService,
+            PlatformTransactionManager transactionManager) {
+        this.root = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.stateFile = root.resolve(".gc-state");
+        this.imageFileRepository = imageFileRepository;
+        this.imageBlobRepository = imageBlobRepository;
+        this.exerciseRecordRepository = exerciseRecordRepository;
+        this.imageReferenceRepository = imageReferenceRepository;
+        this.imageReferenceService = imageReferenceService;
+        this.imageStoreService = imageStoreService;
+        this.imageVariantService = imageVariantService;
+        this.imageCacheService = imageCacheService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(initialDelayString = "${image.gc.initial-delay-ms:300000}",
+               fixedDelayString = "${image.gc.interval-ms:600000}")
+    public void collect() {
+        if (!enabled || !Files.isDirectory(root)) {
+            return;
+        }
+
+        try {
+            GcState state = loadState();
+            int deleted = 0;
+            for (int i = 0; i < batchesPerRun; i++) {
+                if (PHASE_BACKFILL.equals(state.phase)) {
+                    backfillBatch(state);
+                } else {
+                    deleted += PHASE_MAPPED.equals(state.phase) ? collectMappedBatch(state) : collectLegacyBatch(state);
+                }
+                saveState(state);
+            }
+            if (deleted > 0) {
+                logger.info("🧹 사용되지 않는 이미지 정리 - {}개 삭제, 다음 위치: {} {}", deleted, state.phase, state.cursor);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            closeLegacyListing();
+            logger.error("❌ 이미지 정리 중 오류 발생", e);
+        }
+    }
+
+    // image_references 도입 이전 기록의 참조를 id 순으로 한 배치씩 채움 (끝나기 전에는 아무것도 삭제하지 않음)
+    // 그 사이 기록이 수정돼 옛 파일명이 남더라도 파일이 덜 지워질 뿐 잘못 지워지지는 않음
+    private void backfillBatch(GcState state) {
+        long cursorId = state.cursor.isEmpty() ? 0L : Long.parseLong(state.cursor);
+        List<Object[]> rows = exerciseRecordRepository.findImageUrlsAfter(cursorId, Limit.of(batchSize));
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Object[] row : rows) {
+                imageReferenceService.addAll((Long) row[1], (LocalDate) row[2], (String) row[3]);
+            }
+        });
+        if (rows.size() < batchSize) {
+            logger.info("🧹 이미지 참조 백필 완료");
+            state.moveTo(PHASE_MAPPED);
+        } else {
+            state.cursor = String.valueOf(rows.get(rows.size() - 1)[0]);
+        }
+    }
+
+    // image_files 를 id 순으로 한 배치씩 확인
+    private int collectMappedBatch(GcState state) throws IOException, InterruptedException {
+        long cursorId = state.cursor.isEmpty() ? 0L : Long.parseLong(state.cursor);
+        List<ImageFile> files = imageFileRepository.findByIdGreaterThanOrderByIdAsc(cursorId, Limit.of(batchSize));
+        if (files.size() < batchSize) {
+            state.moveTo(PHASE_LEGACY);
+        } else {
+            state.cursor = String.valueOf(files.get(files.size() - 1).getId());
+        }
+
+        LocalDateTime threshold = LocalDateTime.now().minusHours(graceHours);
+        Map<String, ImageFile> candidates = new LinkedHashMap<>();
+        for (ImageFile file : files) {
+            if (file.getCreatedAt() != null && file.getCreatedAt().isBefore(threshold)) {
+                candidates.put(file.getFilename(), file);
+            }
+        }
+
+        Set<String> referenced = findReferenced(candidates.keySet());
+        int deleted = 0;
+        for (ImageFile file : candidates.values()) {
+            if (!referenced.contains(file.getFilename())) {
+                deleteMapped(file);
+                deleted++;
+                Thread.sleep(deleteIntervalMs);
+            }
+        }
+        return deleted;
+    }
+
+    // 기존 평면 디렉토리 파일을 한 배치씩 확인 (디렉토리 목록은 한 번 열어서 끝까지 이어서 읽음)
+    // 서버가 재시작되면 목록을 처음부터 다시 훑음
+    private int collectLegacyBatch(GcState state) throws IOException, InterruptedException {
+        if (legacyEntries == null) {
+            legacyListing = Files.newDirectoryStream(root);
+            legacyEntries = legacyListing.iterator();
+        }
+        List<String> names = new ArrayList<>(batchSize);
+        while (names.size() < batchSize && legacyEntries.hasNext()) {
+            Path entry = legacyEntries.next();
+            String name = entry.getFileName().toString();
+            if (!name.startsWith(".") && Files.isRegularFile(entry)) {
+                names.add(name);
+            }
+        }
+        if (!legacyEntries.hasNext()) {
+            closeLegacyListing();
+            state.moveTo(PHASE_MAPPED);
+        } else if (!names.isEmpty()) {
+            state.cursor = names.get(names.size() - 1);
+        }
+
+        Instant threshold = Instant.now().minusSeconds(graceHours * 3600);
+        Map<String, Path> candidates = new LinkedHashMap<>();
+        for (String name : names) {
+            Path path = root.resolve(name);
+            if (Files.getLastModifiedTime(path).toInstant().isBefore(threshold)) {
+                candidates.put(name, path);
+            }
+        }
+
+        Set<String> referenced = findReferenced(candidates.keySet());
+        int deleted = 0;
+        for (Map.Entry<String, Path> candidate : candidates.entrySet()) {
+            if (!referenced.contains(candidate.getKey())) {
+                Files.deleteIfExists(candidate.getValue());
+                imageVariantService.deleteVariants(candidate.getKey());
+                imageCacheService.invalidate(candidate.getKey());
+                deleted++;
+                Thread.sleep(deleteIntervalMs);
+            }
+        }
+        return deleted;
+    }
+
+    // 후보 파일명 중 기록에서 참조되는 것만 추림 (image_references 의 filename 인덱스 조회 한 번)
+    private Set<String> findReferenced(Set<String> candidates) {
+        if (candidates.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(imageReferenceRepository.findReferencedFilenames(candidates));
+    }
+
+    private void closeLegacyListing() {
+        if (legacyListing != null) {
+            try {
+                legacyListing.close();
+            } catch (IOException e) {
+                logger.warn("기존 이미지 디렉토리 목록 닫기 실패", e);
+            }
+        }
+        legacyListing = null;
+        legacyEntries = null;
+    }
+
+    // 매핑 삭제 → 참조 수 감소 → 마지막 참조였으면 원본과 축소본 파일 삭제
+    private void deleteMapped(ImageFile file) throws IOException {
+        String hash = file.getHash();
+        ReentrantLock lock = imageStoreService.lockFor(hash);
+        lock.lock();
+        try {
+            Boolean released = transactionTemplate.execute(status -> {
+                imageFileRepository.deleteById(file.getId());
+                imageBlobRepository.removeReference(hash);
+                return imageBlobRepository.deleteIfUnreferenced(hash) == 1;
+            });
+            imageStoreService.evictMapping(file.getFilename());
+            imageCacheService.invalidate(file.getFilename());
+            if (Boolean.TRUE.equals(released)) {
+                Files.deleteIfExists(imageStoreService.blobPath(hash));
+                imageVariantService.deleteVariants(hash);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private GcState loadState() throws IOException {
+        GcState state = new GcState();
+        if (Files.isRegularFile(stateFile)) {
+            Properties properties = new Properties();
+            try (InputStream input = Files.newInputStream(stateFile)) {
+                properties.load(input);
+            }
+            state.phase = properties.getProperty("phase", PHASE_MAPPED);
+            state.cursor = properties.getProperty("cursor", "");
+            // image_references 도입 이전 상태 파일이면 백필부터
+            if (!Boolean.parseBoolean(properties.getProperty("referencesReady", "false"))
+                    && !PHASE_BACKFILL.equals(state.phase)) {
+                state.moveTo(PHASE_BACKFILL);
+            }
+        }
+        // 재시작 후 평면 디렉토리 단계는 목록을 처음부터 다시 훑음
+        if (PHASE_LEGACY.equals(state.phase) && legacyEntries == null) {
+            state.cursor = "";
+        }
+        return state;
+    }
+
+    // 중간에 서버가 내려가도 이어서 진행할 수 있도록 배치마다 커서 저장
+    private void saveState(GcState state) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("phase", state.phase);
+        properties.setProperty("cursor", state.cursor);
+        properties.setProperty("referencesReady", String.valueOf(!PHASE_BACKFILL.equals(state.phase)));
+        Path temp = Files.createTempFile(root, ".gc-state-", ".tmp");
+        try {
+            try (OutputStream output = Files.newOutputStream(temp)) {
+                properties.store(output, null);
+            }
+            Files.move(temp, stateFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static class GcState {
+        private String phase = PHASE_BACKFILL;
+        private String cursor = "";
+
+        void moveTo(String nextPhase) {
+            phase = nextPhase;
+            cursor = "";
+        }
+    }
+}
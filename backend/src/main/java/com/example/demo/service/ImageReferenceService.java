@@ -0,0 +1,77 @@
+package com.example.demo.service;
+
+import com.example.demo.repository.ImageReferenceRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// 기록 imageUrl → 참조 파일명 목록 유지 (이미지 정리 작업이 전체 기록을 훑지 않고 후보 파일명만 조회하도록)
+// 모든 메서드는 기록 저장 트랜잭션 안에서 호출
+@Service
+public class ImageReferenceService {
+
+    private static final Pattern IMAGE_FILENAME = Pattern.compile("/images/([A-Za-z0-9._-]+)");
+    private static final String DELETE_SQL = "DELETE FROM image_references WHERE user_id = ? AND record_date = ?";
+    private static final String INSERT_SQL = "INSERT IGNORE INTO image_references (user_id, record_date, filename) VALUES (?, ?, ?)";
+
+    private final ImageReferenceRepository imageReferenceRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    public ImageReferenceService(ImageReferenceRepository imageReferenceRepository, JdbcTemplate jdbcTemplate) {
+        this.imageReferenceRepository = imageReferenceRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // imageUrl 에 들어 있는 업로드 파일명 (여러 개일 수 있음)
+    public static Set<String> filenamesOf(String imageUrl) {
+        Set<String> filenames = new LinkedHashSet<>();
+        if (imageUrl == null || imageUrl.isEmpty()) {
+            return filenames;
+        }
+        Matcher matcher = IMAGE_FILENAME.matcher(imageUrl);
+        while (matcher.find()) {
+            filenames.add(matcher.group(1));
+        }
+        return filenames;
+    }
+
+    // 기록 한 건 저장/수정
+    public void replace(Long userId, LocalDate recordDate, String imageUrl) {
+        imageReferenceRepository.deleteByRecord(userId, recordDate);
+        for (String filename : filenamesOf(imageUrl)) {
+            imageReferenceRepository.insertIgnore(userId, recordDate, filename);
+        }
+    }
+
+    // 대량 가져오기 배치 (같은 배치의 JDBC 트랜잭션 안에서 호출)
+    public void replaceBatch(Long userId, List<LocalDate> recordDates, List<String> imageUrls) {
+        List<Object[]> deletes = new ArrayList<>(recordDates.size());
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < recordDates.size(); i++) {
+            Date recordDate = Date.valueOf(recordDates.get(i));
+            deletes.add(new Object[] {userId, recordDate});
+            for (String filename : filenamesOf(imageUrls.get(i))) {
+                inserts.add(new Object[] {userId, recordDate, filename});
+            }
+        }
+        jdbcTemplate.batchUpdate(DELETE_SQL, deletes);
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+        }
+    }
+
+    // 기존 기록 백필용 (참조만 추가)
+    public void addAll(Long userId, LocalDate recordDate, String imageUrl) {
+        for (String filename : filenamesOf(imageUrl)) {
+            imageReferenceRepository.insertIgnore(userId, recordDate, filename);
+        }
+    }
+}
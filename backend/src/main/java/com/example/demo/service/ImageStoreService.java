@@ -0,0 +1,230 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.ImageFile;
+import com.example.demo.repository.ImageBlobRepository;
+import com.example.demo.repository.ImageFileRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+// 내용 주소 기반 이미지 저장소 (SHA-256 으로 중복 제거, blobs/ab/cd/<hash> 분산 디렉토리)
+@Service
+public class ImageStoreService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageStoreService.class);
+    private static final int MAPPING_CACHE_SIZE = 10_000;
+    private static final int LOCK_STRIPES = 64;
+    // 매핑이 없는 파일명 (기존 평면 디렉토리에 저장된 파일)
+    private static final String LEGACY = "";
+
+    // 조회 결과: 실제 파일 경로와 축소본 키 (매핑된 파일은 hash, 기존 파일은 파일명)
+    public record StoredImage(Path path, String key) {
+    }
+
+    private final Path root;
+    private final Path blobRoot;
+    private final Path tempDir;
+    private final ImageBlobRepository imageBlobRepository;
+    private final ImageFileRepository imageFileRepository;
+    private final ImageVariantService imageVariantService;
+    private final TransactionTemplate transactionTemplate;
+    // 가상 스레드에서 DB/파일 작업 중 캐리어 스레드가 묶이지 않도록 synchronized 대신 ReentrantLock 사용
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+    // 파일명 → hash (이미지 요청마다 DB 를 조회하지 않도록 최근 것만 보관)
+    private final Map<String, String> mappingCache = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                    return size() > MAPPING_CACHE_SIZE;
+                }
+            });
+
+    public ImageStoreService(
+            @Value("${file.upload-dir:uploads/images}") String uploadDir,
+            ImageBlobRepository imageBlobRepository,
+            ImageFileRepository imageFileRepository,
+            ImageVariantService imageVariantService,
+            PlatformTransactionManager transactionManager) {
+        this.root = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.blobRoot = root.resolve("blobs");
+        this.tempDir = root.resolve(".tmp");
+        this.imageBlobRepository = imageBlobRepository;
+        this.imageFileRepository = imageFileRepository;
+        this.imageVariantService = imageVariantService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        // multipart 임시 경로(spring.servlet.multipart.location)로도 쓰이므로 첫 업로드 전에 생성
+        try {
+            Files.createDirectories(tempDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // 키 앞 4글자로 두 단계 분산 (ab/cd/<key>)
+    public static Path shardedPath(Path base, String key) {
+        if (key.length() < 4) {
+            return base.resolve(key);
+        }
+        return base.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+    }
+
+    public Path blobPath(String hash) {
+        return shardedPath(blobRoot, hash);
+    }
+
+    // 업로드 파일 저장: 디스크에 있는 multipart 파트는 복사 없이 같은 파일시스템의 임시 경로로 이동
+    public String store(MultipartFile file, Long userId) throws IOException {
+        Files.createDirectories(tempDir);
+        Path temp = tempDir.resolve("upload-" + UUID.randomUUID() + ".tmp");
+        try {
+            // transferTo(File) 은 파트 파일 이름만 바꾸고, transferTo(Path) 는 스트림으로 복사함
+            file.transferTo(temp.toFile());
+            return storeFile(temp, file.getOriginalFilename(), userId);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // 이미 디스크에 받아둔 파일을 hash 계산 후 저장소로 이동 (새 내용이면 blob 으로 이동, 같은 내용이면 참조만 추가)
+    public String storeFile(Path source, String originalFilename, Long userId) throws IOException {
+        return storeFile(source, originalFilename, userId, filename -> { });
+    }
+
+    // inTransaction: 참조 저장과 같은 트랜잭션에서 실행할 작업 (새 파일명을 받음)
+    // 실패하면 참조와 함께 롤백되고, 이번에 옮긴 파일은 source 로 되돌려 호출자가 다시 시도할 수 있음
+    public String storeFile(Path source, String originalFilename, Long userId,
+                            Consumer<String> inTransaction) throws IOException {
+        String filename = UUID.randomUUID() + extensionOf(originalFilename);
+        String hash = hashOf(source);
+        long size = Files.size(source);
+
+        boolean created;
+        // 같은 hash 의 저장과 정리(GC)가 엇갈리지 않도록 hash 단위로 직렬화
+        ReentrantLock lock = lockFor(hash);
+        lock.lock();
+        try {
+            // 파일을 먼저 blob 위치에 둔 뒤 참조를 커밋 (이동이 실패하면 DB 는 그대로, 없는 blob 을 가리키는 매핑이 생기지 않음)
+            Path target = blobPath(hash);
+            created = !Files.exists(target);
+            if (created) {
+                Files.createDirectories(target.getParent());
+                Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    imageBlobRepository.addReference(hash, size);
+                    ImageFile imageFile = new ImageFile();
+                    imageFile.setFilename(filename);
+                    imageFile.setHash(hash);
+                    imageFile.setUserId(userId);
+                    imageFileRepository.save(imageFile);
+                    inTransaction.accept(filename);
+                });
+            } catch (RuntimeException e) {
+                // 참조 커밋 실패: 이번에 새로 만든 blob 은 다른 참조가 없으므로 원래 위치로 되돌림
+                if (created) {
+                    try {
+                        Files.move(target, source, StandardCopyOption.ATOMIC_MOVE);
+                    } catch (IOException moveError) {
+                        e.addSuppressed(moveError);
+                        Files.deleteIfExists(target);
+                    }
+                }
+                throw e;
+            }
+            if (!created) {
+                Files.deleteIfExists(source);
+            }
+        } finally {
+            lock.unlock();
+        }
+        mappingCache.put(filename, hash);
+
+        if (created) {
+            imageVariantService.submit(hash, blobPath(hash));
+        } else {
+            logger.info("♻️ 같은 내용의 이미지가 있어 참조만 추가 - hash: {}", hash);
+        }
+        return filename;
+    }
+
+    // 파일명으로 저장된 이미지 찾기 (매핑 → blob, 매핑이 없으면 기존 평면 디렉토리)
+    public StoredImage resolve(String filename) {
+        String hash = mappingCache.get(filename);
+        if (hash == null) {
+            hash = imageFileRepository.findHashByFilename(filename).orElse(LEGACY);
+            mappingCache.put(filename, hash);
+        }
+        if (!hash.isEmpty()) {
+            Path blob = blobPath(hash);
+            if (Files.isRegularFile(blob)) {
+                return new StoredImage(blob, hash);
+            }
+        }
+
+        Path legacy = root.resolve(filename).normalize();
+        if (root.equals(legacy.getParent()) && Files.isRegularFile(legacy)) {
+            return new StoredImage(legacy, filename);
+        }
+        return null;
+    }
+
+    public void evictMapping(String filename) {
+        mappingCache.remove(filename);
+    }
+
+    public ReentrantLock lockFor(String hash) {
+        return locks[Math.floorMod(hash.hashCode(), LOCK_STRIPES)];
+    }
+
+    private String extensionOf(String originalFilename) {
+        if (originalFilename == null || !originalFilename.contains(".")) {
+            return "";
+        }
+        String extension = originalFilename.substring(originalFilename.lastIndexOf("."));
+        // URL 경로에 그대로 쓰이므로 영문/숫자 확장자만 허용
+        return extension.matches("\\.[A-Za-z0-9]{1,10}") ? extension.toLowerCase() : "";
+    }
+
+    private String hashOf(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream input = Files.newInputStream(file)) {
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
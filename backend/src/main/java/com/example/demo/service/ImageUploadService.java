@@ -0,0 +1,118 @@
+package com.example.demo.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+// 업로드 디스크 쓰기 동시 실행 제한 (전역 세마포어, 파일 단위 슬롯) + 여러 파일은 가상 스레드로 hash/이동 병렬 처리
+// multipart 본문은 파트를 처음 읽을 때 한꺼번에 임시 디스크에 기록되므로 (resolve-lazily) 컨트롤러가 파트를 읽기 전에 슬롯 1개를 확보
+// 병렬로 처리되는 것은 이미 기록된 파트의 hash 계산과 저장소 이동/참조 저장뿐 (본문 수신/기록은 요청 스레드에서 순차)
+@Service
+public class ImageUploadService {
+
+    // 쓰기 슬롯이 모자랄 때 (컨트롤러에서 503 + Retry-After 로 응답)
+    public static class UploadBusyException extends Exception {
+        public UploadBusyException() {
+            super("업로드 요청이 많아 잠시 후 다시 시도해주세요.");
+        }
+    }
+
+    private final ImageStoreService imageStoreService;
+    private final Semaphore diskWriteSlots;
+    private final int maxParallelPerRequest;
+
+    public ImageUploadService(
+            ImageStoreService imageStoreService,
+            @Value("${image.upload.max-concurrent-writes:8}") int maxConcurrentWrites,
+            @Value("${image.upload.max-parallel-per-request:4}") int maxParallelPerRequest) {
+        this.imageStoreService = imageStoreService;
+        this.diskWriteSlots = new Semaphore(maxConcurrentWrites);
+        this.maxParallelPerRequest = Math.max(1, Math.min(maxParallelPerRequest, maxConcurrentWrites));
+    }
+
+    public boolean tryAcquireWriteSlot() {
+        return diskWriteSlots.tryAcquire();
+    }
+
+    public void releaseWriteSlot() {
+        diskWriteSlots.release();
+    }
+
+    // 호출 전에 쓰기 슬롯을 확보해 두어야 함
+    public String store(MultipartFile file, Long userId) throws IOException {
+        return imageStoreService.store(file, userId);
+    }
+
+    // 호출 전에 쓰기 슬롯 1개를 확보해 두어야 함 (그 슬롯으로 파일을 하나씩 처리)
+    // 전역 슬롯이 남아 있으면 파일마다 1개씩 더 빌려 병렬로 처리하고 끝나면 바로 반납 (요청이 슬롯을 미리 쌓아두지 않음)
+    public List<String> storeAll(List<MultipartFile> files, Long userId) throws IOException {
+        if (files.isEmpty()) {
+            return List.of();
+        }
+        try {
+            if (files.size() == 1) {
+                return List.of(imageStoreService.store(files.get(0), userId));
+            }
+            // 요청당 동시 처리 파일 수 제한, ownSlot 은 호출자가 확보한 슬롯
+            Semaphore requestSlots = new Semaphore(maxParallelPerRequest);
+            Semaphore ownSlot = new Semaphore(1);
+            List<Future<String>> futures = new ArrayList<>(files.size());
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (MultipartFile file : files) {
+                    futures.add(executor.submit(() -> {
+                        requestSlots.acquire();
+                        try {
+                            if (diskWriteSlots.tryAcquire()) {
+                                try {
+                                    return imageStoreService.store(file, userId);
+                                } finally {
+                                    diskWriteSlots.release();
+                                }
+                            }
+                            ownSlot.acquire();
+                            try {
+                                return imageStoreService.store(file, userId);
+                            } finally {
+                                ownSlot.release();
+                            }
+                        } finally {
+                            requestSlots.release();
+                        }
+                    }));
+                }
+            }
+
+            // 업로드 순서대로 결과 수집
+            List<String> filenames = new ArrayList<>(files.size());
+            for (Future<String> future : futures) {
+                filenames.add(future.get());
+            }
+            return filenames;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("업로드가 중단되었습니다.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (cause instanceof UncheckedIOException uncheckedIOException) {
+                throw uncheckedIOException.getCause();
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException(cause);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.demo.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 업로드 이미지 축소본(썸네일/중간 크기) 백그라운드 생성
+@Service
+public class ImageVariantService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageVariantService.class);
+    private static final int MAX_UNSUPPORTED_KEYS = 10_000;
+
+    // 큰 것부터 순서대로 생성 (작은 축소본은 바로 앞 축소본에서 다시 줄여서 품질 유지)
+    public enum Variant {
+        MEDIUM("medium", 800),
+        THUMB("thumb", 200);
+
+        private final String key;
+        private final int maxSize;
+
+        Variant(String key, int maxSize) {
+            this.key = key;
+            this.maxSize = maxSize;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public static Variant fromKey(String key) {
+            for (Variant variant : values()) {
+                if (variant.key.equalsIgnoreCase(key)) {
+                    return variant;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final Path variantRoot;
+    private final ThreadPoolExecutor executor;
+    // 같은 키를 중복 예약하지 않도록 진행 중인 키 보관
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    // 디코딩할 수 없는 원본은 요청마다 다시 시도하지 않음
+    private final Set<String> unsupported = ConcurrentHashMap.newKeySet();
+
+    public ImageVariantService(
+            @Value("${file.upload-dir:uploads/images}") String uploadDir,
+            @Value("${image.variant.threads:2}") int threads,
+            @Value("${image.variant.queue-capacity:200}") int queueCapacity) {
+        this.variantRoot = Paths.get(uploadDir).resolve("variants");
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-variant-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    // 축소본 생성 예약 (큐가 가득 차면 건너뛰고 원본으로 계속 제공)
+    public void submit(String key, Path original) {
+        if (unsupported.contains(key) || !inFlight.add(key)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(key, original);
+                } finally {
+                    inFlight.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key);
+            logger.warn("축소본 생성 대기열이 가득 차서 건너뜀: {}", key);
+        }
+    }
+
+    // 생성이 끝난 축소본 경로 (없으면 null → 원본 사용)
+    public Path resolve(String key, Variant variant) {
+        Path path = variantPath(key, variant);
+        return Files.isRegularFile(path) ? path : null;
+    }
+
+    // 원본이 삭제될 때 축소본도 함께 정리
+    public void deleteVariants(String key) throws IOException {
+        for (Variant variant : Variant.values()) {
+            Files.deleteIfExists(variantPath(key, variant));
+        }
+    }
+
+    public Path variantPath(String key, Variant variant) {
+        return ImageStoreService.shardedPath(variantRoot.resolve(variant.key), key + ".jpg");
+    }
+
+    private void generate(String key, Path original) {
+        try {
+            // 원본은 한 번만 디코딩
+            BufferedImage source = ImageIO.read(original.toFile());
+            if (source == null) {
+                logger.info("이미지가 아니거나 지원하지 않는 형식이라 축소본 생략: {}", key);
+                if (unsupported.size() < MAX_UNSUPPORTED_KEYS) {
+                    unsupported.add(key);
+                }
+                return;
+            }
+            for (Variant variant : Variant.values()) {
+                source = scaleDown(source, variant.maxSize);
+                writeJpeg(source, variantPath(key, variant));
+            }
+            logger.info("✅ 축소본 생성 완료 - {}", key);
+        } catch (Exception e) {
+            logger.error("축소본 생성 실패: {}", key, e);
+        }
+    }
+
+    private BufferedImage scaleDown(BufferedImage source, int maxSize) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double scale = Math.min(1.0, (double) maxSize / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        // JPEG 로 저장하므로 알파 채널은 흰 배경으로 합성
+        BufferedImage target = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, targetWidth, targetHeight, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    // 임시 파일에 쓴 뒤 이동해서, 읽는 쪽이 쓰다 만 파일을 보지 않도록 함
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), "variant-", ".tmp");
+        try {
+            Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpeg");
+            ImageWriter writer = writers.next();
+            try (ImageOutputStream output = ImageIO.createImageOutputStream(temp.toFile())) {
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(0.82f);
+                writer.setOutput(output);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.UploadSession;
+import com.example.demo.repository.UploadSessionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.ReentrantLock;
+
+// 이어받기 가능한 업로드: 세션 생성 → offset 기준 PATCH 조각 기록 → 전체 수신 시 이미지 저장소로 이동
+@Service
+public class ResumableUploadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResumableUploadService.class);
+    public static final String ACTIVE = "ACTIVE";
+    public static final String COMPLETED = "COMPLETED";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int CLEANUP_BATCH_SIZE = 200;
+
+    // 요청한 offset 이 저장된 위치와 다르거나, 같은 세션에 다른 PATCH 가 진행 중일 때 (409)
+    public static class UploadConflictException extends Exception {
+        private final long currentOffset;
+
+        public UploadConflictException(String message, long currentOffset) {
+            super(message);
+            this.currentOffset = currentOffset;
+        }
+
+        public long getCurrentOffset() {
+            return currentOffset;
+        }
+    }
+
+    private final Path partDir;
+    private final UploadSessionRepository uploadSessionRepository;
+    private final ImageStoreService imageStoreService;
+    // 조각 요청은 네트워크 수신 시간 동안 슬롯을 잡고 있으므로 multipart 업로드의 디스크 쓰기 슬롯과 따로 제한
+    private final Semaphore chunkSlots;
+    private final Map<String, ReentrantLock> sessionLocks = new ConcurrentHashMap<>();
+
+    @Value("${image.upload.max-size:10485760}")
+    private long maxSize;
+
+    @Value("${image.upload.session-expire-hours:24}")
+    private long sessionExpireHours;
+
+    public ResumableUploadService(
+            @Value("${file.upload-dir:uploads/images}") String uploadDir,
+            UploadSessionRepository uploadSessionRepository,
+            ImageStoreService imageStoreService,
+            @Value("${image.upload.max-concurrent-chunks:32}") int maxConcurrentChunks) {
+        // 완료 시 이동(rename)만 하도록 이미지 저장소와 같은 파일시스템에 둠
+        this.partDir = Paths.get(uploadDir).toAbsolutePath().normalize().resolve(".uploads");
+        this.uploadSessionRepository = uploadSessionRepository;
+        this.imageStoreService = imageStoreService;
+        this.chunkSlots = new Semaphore(maxConcurrentChunks);
+    }
+
+    public UploadSession create(Long userId, String originalFilename, Long size) throws IOException {
+        if (size == null || size <= 0 || size > maxSize) {
+            throw new IllegalArgumentException("파일 크기가 올바르지 않습니다. (최대 " + maxSize + " 바이트)");
+        }
+        UploadSession session = new UploadSession();
+        session.setUploadId(UUID.randomUUID().toString());
+        session.setUserId(userId);
+        session.setOriginalFilename(originalFilename);
+        session.setTotalSize(size);
+        session.setCommittedOffset(0L);
+        session.setStatus(ACTIVE);
+
+        Files.createDirectories(partDir);
+        Files.deleteIfExists(partPath(session.getUploadId()));
+        Files.createFile(partPath(session.getUploadId()));
+        return uploadSessionRepository.save(session);
+    }
+
+    // 다른 사용자의 세션은 없는 것으로 취급
+    public Optional<UploadSession> find(Long userId, String uploadId) {
+        return uploadSessionRepository.findByUploadId(uploadId)
+                .filter(session -> session.getUserId().equals(userId));
+    }
+
+    // offset 위치부터 본문을 기록하고, 디스크에 반영(fsync)된 만큼만 committedOffset 으로 저장
+    // 전송이 중간에 끊겨도 받은 만큼은 커밋되어 다음 요청이 그 위치부터 이어서 보냄
+    public UploadSession append(Long userId, String uploadId, long offset, InputStream body)
+            throws IOException, UploadConflictException, ImageUploadService.UploadBusyException {
+        UploadSession session = find(userId, uploadId).orElseThrow(NoSuchElementException::new);
+        if (COMPLETED.equals(session.getStatus())) {
+            return session;
+        }
+
+        ReentrantLock lock = tryLockSession(uploadId);
+        if (lock == null) {
+            throw new UploadConflictException("같은 업로드에 대한 다른 요청이 진행 중입니다.", session.getCommittedOffset());
+        }
+        try {
+            // 락을 잡은 뒤 최신 상태로 다시 확인
+            session = uploadSessionRepository.findByUploadId(uploadId).orElseThrow(NoSuchElementException::new);
+            if (COMPLETED.equals(session.getStatus())) {
+                return session;
+            }
+            if (offset != session.getCommittedOffset()) {
+                throw new UploadConflictException("Upload-Offset 이 저장된 위치와 다릅니다.", session.getCommittedOffset());
+            }
+
+            if (offset < session.getTotalSize()) {
+                long position = writeChunk(session, offset, body);
+                session.setCommittedOffset(position);
+                session = uploadSessionRepository.save(session);
+            }
+
+            if (session.getCommittedOffset().equals(session.getTotalSize())) {
+                session = complete(session);
+            }
+            return session;
+        } finally {
+            lock.unlock();
+            sessionLocks.remove(uploadId, lock);
+        }
+    }
+
+    private long writeChunk(UploadSession session, long offset, InputStream body)
+            throws IOException, ImageUploadService.UploadBusyException {
+        if (!chunkSlots.tryAcquire()) {
+            throw new ImageUploadService.UploadBusyException();
+        }
+        long position = offset;
+        IOException interrupted = null;
+        try (FileChannel channel = FileChannel.open(partPath(session.getUploadId()),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            try {
+                int read;
+                while ((read = body.read(buffer)) != -1) {
+                    if (position + read > session.getTotalSize()) {
+                        throw new IllegalArgumentException("선언한 파일 크기를 초과했습니다.");
+                    }
+                    ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, read);
+                    while (chunk.hasRemaining()) {
+                        position += channel.write(chunk, position);
+                    }
+                }
+            } catch (IOException e) {
+                // 연결 끊김 등: 여기까지 기록된 바이트는 커밋하고 예외는 그대로 전달
+                interrupted = e;
+            }
+            channel.force(false);
+        } finally {
+            chunkSlots.release();
+        }
+
+        if (interrupted != null) {
+            session.setCommittedOffset(position);
+            uploadSessionRepository.save(session);
+            logger.warn("⚠️ 업로드 조각 수신 중단 - uploadId: {}, 저장된 위치: {}", session.getUploadId(), position);
+            throw interrupted;
+        }
+        return position;
+    }
+
+    // 전체 수신 완료: 조각 파일을 이미지 저장소로 이동 (같은 파일시스템이라 복사 없음)
+    // 파일명/COMPLETED 는 이미지 참조와 같은 트랜잭션에서 저장 (저장이 실패하면 조각 파일이 제자리로 돌아와 다음 요청이 다시 완료 시도)
+    private UploadSession complete(UploadSession session) throws IOException {
+        UploadSession[] completed = new UploadSession[1];
+        String filename = imageStoreService.storeFile(
+                partPath(session.getUploadId()), session.getOriginalFilename(), session.getUserId(), stored -> {
+                    session.setFilename(stored);
+                    session.setStatus(COMPLETED);
+                    completed[0] = uploadSessionRepository.save(session);
+                });
+        logger.info("✅ 이어받기 업로드 완료 - userId: {}, uploadId: {}, filename: {}",
+                session.getUserId(), session.getUploadId(), filename);
+        return completed[0];
+    }
+
+    // 오래 방치된 세션과 조각 파일 정리
+    // 조각을 받는 중인 세션(락이 잡힌 세션)은 건너뛰고, 락을 잡은 뒤 갱신 시각을 다시 확인
+    @Scheduled(initialDelayString = "${image.upload.session-cleanup-initial-delay-ms:600000}",
+               fixedDelayString = "${image.upload.session-cleanup-interval-ms:3600000}")
+    public void cleanupExpiredSessions() {
+        try {
+            LocalDateTime threshold = LocalDateTime.now().minusHours(sessionExpireHours);
+            List<UploadSession> expired;
+            int removed;
+            do {
+                expired = uploadSessionRepository.findByUpdatedAtBefore(threshold, Limit.of(CLEANUP_BATCH_SIZE));
+                removed = 0;
+                for (UploadSession session : expired) {
+                    if (removeIfExpired(session.getUploadId(), threshold)) {
+                        removed++;
+                    }
+                }
+                // 모두 건너뛴 배치면 같은 세션만 다시 조회되므로 다음 실행으로 미룸
+            } while (expired.size() == CLEANUP_BATCH_SIZE && removed > 0);
+        } catch (Exception e) {
+            logger.error("❌ 업로드 세션 정리 중 오류 발생", e);
+        }
+    }
+
+    private boolean removeIfExpired(String uploadId, LocalDateTime threshold) throws IOException {
+        ReentrantLock lock = tryLockSession(uploadId);
+        if (lock == null) {
+            return false;
+        }
+        try {
+            Optional<UploadSession> current = uploadSessionRepository.findByUploadId(uploadId);
+            if (current.isEmpty() || !current.get().getUpdatedAt().isBefore(threshold)) {
+                return false;
+            }
+            Files.deleteIfExists(partPath(uploadId));
+            uploadSessionRepository.delete(current.get());
+            return true;
+        } finally {
+            lock.unlock();
+            sessionLocks.remove(uploadId, lock);
+        }
+    }
+
+    // 세션 락 획득 (다른 요청이 잡고 있으면 null)
+    // 해제 직후 맵에서 빠진 락을 잡은 경우 새 락과 동시에 진행될 수 있으므로 맵에 남아 있는 락인지 확인
+    private ReentrantLock tryLockSession(String uploadId) {
+        while (true) {
+            ReentrantLock lock = sessionLocks.computeIfAbsent(uploadId, key -> new ReentrantLock());
+            if (!lock.tryLock()) {
+                return null;
+            }
+            if (sessionLocks.get(uploadId) == lock) {
+                return lock;
+            }
+            lock.unlock();
+        }
+    }
+
+    private Path partPath(String uploadId) {
+        return partDir.resolve(uploadId + ".part");
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.demo.service;
+
+// 시계열 다운샘플링 (Largest-Triangle-Three-Buckets, 원시 배열 기반)
+public final class SeriesDownsampler {
+
+    private SeriesDownsampler() {
+    }
+
+    // x, y 의 앞쪽 length 개 점 중 모양을 유지하는 threshold 개 점의 인덱스를 반환
+    public static int[] lttb(double[] x, double[] y, int length, int threshold) {
+        if (threshold >= length || threshold < 3) {
+            int[] all = new int[length];
+            for (int i = 0; i < length; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+
+        int[] sampled = new int[threshold];
+        int sampledIndex = 0;
+        double every = (double) (length - 2) / (threshold - 2);
+        int a = 0;
+        sampled[sampledIndex++] = a;
+
+        for (int i = 0; i < threshold - 2; i++) {
+            // 다음 버킷의 평균점
+            int avgRangeStart = (int) Math.floor((i + 1) * every) + 1;
+            int avgRangeEnd = Math.min((int) Math.floor((i + 2) * every) + 1, length);
+            double avgX = 0;
+            double avgY = 0;
+            for (int j = avgRangeStart; j < avgRangeEnd; j++) {
+                avgX += x[j];
+                avgY += y[j];
+            }
+            int avgRangeLength = avgRangeEnd - avgRangeStart;
+            avgX /= avgRangeLength;
+            avgY /= avgRangeLength;
+
+            // 현재 버킷에서 이전 선택점, 다음 평균점과 가장 큰 삼각형을 만드는 점 선택
+            int rangeStart = (int) Math.floor(i * every) + 1;
+            int rangeEnd = (int) Math.floor((i + 1) * every) + 1;
+            double pointAX = x[a];
+            double pointAY = y[a];
+            double maxArea = -1;
+            int next = rangeStart;
+            for (int j = rangeStart; j < rangeEnd; j++) {
+                double area = Math.abs((pointAX - avgX) * (y[j] - pointAY) - (pointAX - x[j]) * (avgY - pointAY));
+                if (area > maxArea) {
+                    maxArea = area;
+                    next = j;
+                }
+            }
+            sampled[sampledIndex++] = next;
+            a = next;
+        }
+
+        sampled[sampledIndex] = length - 1;
+        return sampled;
+    }
+}
@@ -0,0 +1,267 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ChallengeShareResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+// 공유 요청 생성/상태 변경 이벤트를 사용자별 SSE 연결로 전송 (목록 폴링 대체)
+// 연결은 비동기 요청으로 유지하므로 스레드를 점유하지 않음, 주기적으로 heartbeat 전송
+// 전송(블로킹 I/O)은 채널 잠금 밖에서 전용 가상 스레드로: 잠금 안에서는 연결별 대기열에 넣기만 하고 연결마다 순서대로 보냄
+// 이벤트 id = "{bootId}-{순번}": 재연결 시 Last-Event-ID 이후 이벤트를 최근 버퍼에서 다시 보내고,
+// 버퍼에서 이미 빠졌거나 서버가 재시작된 경우에는 resync 이벤트로 목록을 다시 조회하게 함
+@Service
+public class ShareEventService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShareEventService.class);
+
+    public static final String SHARE_CREATED = "share-created";
+    public static final String SHARE_STATUS = "share-status";
+    public static final String RESYNC = "resync";
+
+    private record StoredEvent(long id, String name, ChallengeShareResponse data) {
+    }
+
+    // 사용자 한 명의 연결들과 최근 이벤트 (잠금 안에서는 대기열에 넣기만 함)
+    private static final class Channel {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final List<Subscriber> subscribers = new ArrayList<>();
+        private final ArrayDeque<StoredEvent> recent = new ArrayDeque<>();
+        // 이 id 이하의 이벤트는 버퍼에 없음 (채널 생성 이전이거나 오래되어 제거됨)
+        private long floor;
+        private long lastActivityMillis = System.currentTimeMillis();
+
+        Channel(long floor) {
+            this.floor = floor;
+        }
+    }
+
+    // 연결 하나의 전송 대기열: 한 번에 하나의 작업만 비우므로 연결별 순서 유지
+    private final class Subscriber {
+        private final Channel channel;
+        private final SseEmitter emitter;
+        private final ArrayDeque<SseEmitter.SseEventBuilder> pending = new ArrayDeque<>();
+        private boolean draining;
+        private boolean closed;
+
+        Subscriber(Channel channel, SseEmitter emitter) {
+            this.channel = channel;
+            this.emitter = emitter;
+        }
+
+        void enqueue(SseEmitter.SseEventBuilder event) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                pending.addLast(event);
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            sendExecutor.execute(this::drain);
+        }
+
+        private void drain() {
+            while (true) {
+                SseEmitter.SseEventBuilder event;
+                synchronized (this) {
+                    event = pending.pollFirst();
+                    if (event == null) {
+                        draining = false;
+                        return;
+                    }
+                }
+                try {
+                    emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    // 클라이언트가 끊은 연결
+                    close();
+                    detach(channel, this);
+                    emitter.completeWithError(e);
+                    return;
+                }
+            }
+        }
+
+        synchronized void close() {
+            closed = true;
+            pending.clear();
+        }
+    }
+
+    private final ExecutorService sendExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Long, Channel> channels = new ConcurrentHashMap<>();
+    private final long timeoutMs;
+    private final int replaySize;
+    private final long retentionMs;
+
+    public ShareEventService(
+            @Value("${share.events.timeout-ms:600000}") long timeoutMs,
+            @Value("${share.events.replay-size:100}") int replaySize,
+            @Value("${share.events.retention-ms:3600000}") long retentionMs) {
+        this.timeoutMs = timeoutMs;
+        this.replaySize = replaySize;
+        this.retentionMs = retentionMs;
+    }
+
+    // lastEventId: 브라우저 재연결 시 Last-Event-ID (처음 연결이면 null)
+    public SseEmitter subscribe(Long userId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Channel channel = lockChannel(userId);
+        try {
+            Subscriber subscriber = new Subscriber(channel, emitter);
+            Runnable remove = () -> {
+                subscriber.close();
+                detach(channel, subscriber);
+            };
+            emitter.onCompletion(remove);
+            emitter.onTimeout(remove);
+            emitter.onError(error -> remove.run());
+
+            // 놓친 이벤트를 넣는 것과 연결 등록을 같은 잠금 안에서 처리해서 그 사이 이벤트가 빠지거나 중복되지 않게 함
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                replay(channel, subscriber, lastEventId.trim());
+            } else {
+                subscriber.enqueue(SseEmitter.event().comment("connected"));
+            }
+            channel.subscribers.add(subscriber);
+            channel.lastActivityMillis = System.currentTimeMillis();
+        } finally {
+            channel.lock.unlock();
+        }
+        logger.info("📡 공유 이벤트 구독 - userId: {}, lastEventId: {}", userId, lastEventId);
+        return emitter;
+    }
+
+    // 공유 생성/상태 변경 후 호출: 보낸 사람과 받은 사람에게 모두 전송
+    public void publish(String name, ChallengeShareResponse share) {
+        send(share.getFromUserId(), name, share);
+        if (!Objects.equals(share.getToUserId(), share.getFromUserId())) {
+            send(share.getToUserId(), name, share);
+        }
+    }
+
+    // 프록시/브라우저가 유휴 연결을 끊지 않도록 주기적으로 주석 전송 (끊긴 연결은 전송 실패 시 정리)
+    // 대기열에 넣기만 하므로 스케줄러 스레드를 오래 잡지 않음
+    @Scheduled(fixedDelayString = "${share.events.heartbeat-ms:25000}")
+    public void heartbeat() {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<Long, Channel> entry : channels.entrySet()) {
+            Channel channel = entry.getValue();
+            channel.lock.lock();
+            try {
+                for (Subscriber subscriber : channel.subscribers) {
+                    subscriber.enqueue(SseEmitter.event().comment("heartbeat"));
+                }
+                // 연결이 없고 오래 조용한 사용자의 버퍼는 제거 (이후 재연결은 resync)
+                if (channel.subscribers.isEmpty() && now - channel.lastActivityMillis > retentionMs) {
+                    channels.remove(entry.getKey(), channel);
+                }
+            } finally {
+                channel.lock.unlock();
+            }
+        }
+    }
+
+    private void send(Long userId, String name, ChallengeShareResponse data) {
+        if (userId == null) {
+            return;
+        }
+        Channel channel = lockChannel(userId);
+        try {
+            StoredEvent event = new StoredEvent(sequence.incrementAndGet(), name, data);
+            channel.recent.addLast(event);
+            while (channel.recent.size() > replaySize) {
+                channel.floor = channel.recent.removeFirst().id();
+            }
+            channel.lastActivityMillis = System.currentTimeMillis();
+            for (Subscriber subscriber : channel.subscribers) {
+                subscriber.enqueue(toBuilder(event));
+            }
+        } finally {
+            channel.lock.unlock();
+        }
+    }
+
+    private void replay(Channel channel, Subscriber subscriber, String lastEventId) {
+        long lastId = parseId(lastEventId);
+        if (lastId < channel.floor || lastId > sequence.get()) {
+            // 놓친 이벤트를 알 수 없으므로 목록 전체를 다시 조회하도록 알림
+            subscriber.enqueue(SseEmitter.event()
+                    .id(eventId(sequence.get()))
+                    .name(RESYNC)
+                    .data("{}", MediaType.APPLICATION_JSON));
+            return;
+        }
+        for (StoredEvent event : channel.recent) {
+            if (event.id() > lastId) {
+                subscriber.enqueue(toBuilder(event));
+            }
+        }
+    }
+
+    // 다른 서버 기동의 id 이거나 형식이 다르면 -1 (resync 대상)
+    private long parseId(String lastEventId) {
+        int dash = lastEventId.lastIndexOf('-');
+        if (dash < 0 || !lastEventId.substring(0, dash).equals(bootId)) {
+            return -1L;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    private void detach(Channel channel, Subscriber subscriber) {
+        channel.lock.lock();
+        try {
+            channel.subscribers.remove(subscriber);
+        } finally {
+            channel.lock.unlock();
+        }
+    }
+
+    // 잠근 상태의 채널 반환 (잠그기 전에 heartbeat 가 정리한 채널이면 새로 만들어서 다시 시도)
+    private Channel lockChannel(Long userId) {
+        while (true) {
+            Channel channel = channels.computeIfAbsent(userId, id -> new Channel(sequence.get()));
+            channel.lock.lock();
+            if (channels.get(userId) == channel) {
+                return channel;
+            }
+            channel.lock.unlock();
+        }
+    }
+
+    private SseEmitter.SseEventBuilder toBuilder(StoredEvent event) {
+        return SseEmitter.event()
+                .id(eventId(event.id()))
+                .name(event.name())
+                .data(event.data(), MediaType.APPLICATION_JSON);
+    }
+
+    private String eventId(long id) {
+        return bootId + "-" + id;
+    }
+}
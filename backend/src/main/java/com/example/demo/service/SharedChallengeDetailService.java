@@ -0,0 +1,348 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ChallengeResponse;
+import com.example.demo.dto.ExerciseRecordResponse;
+import com.example.demo.dto.SharedChallengeDetailResponse;
+import com.example.demo.dto.SharedDetailCacheStatsResponse;
+import com.example.demo.entity.ChallengeShare;
+import com.example.demo.repository.ChallengeRepository;
+import com.example.demo.repository.ExerciseRecordRepository;
+import com.example.demo.repository.RoutineCheckRepository;
+import com.example.demo.repository.RoutineCheckView;
+import com.example.demo.repository.RoutineRepository;
+import com.example.demo.repository.RoutineView;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// 공유된 챌린지 상세 (원래 소유자의 기록/루틴 기준) 생성
+// 서로 독립인 조회는 가상 스레드에서 동시에 실행: 챌린지 + 루틴 → (챌린지 기간이 정해지면) 기록 + 루틴 체크
+// 동시 실행은 커넥션을 두 개씩 쓰므로 동시에 계산하는 수를 제한하고, 자리가 없으면 현재 스레드에서 차례로 조회
+// 조회마다 남은 시간만큼 트랜잭션 제한 시간을 두어 DB 에서도 문장이 취소되게 함 (초과 시 TimeoutException)
+// 결과는 챌린지 id 기준으로 메모리에 보관 (보는 사람과 무관, 권한 확인은 호출하는 쪽)
+// 소유자가 챌린지 기간 안의 기록/루틴 체크, 루틴, 챌린지 목표를 바꾸면 해당 항목 제거, 날짜가 바뀌면 다시 계산
+@Service
+public class SharedChallengeDetailService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SharedChallengeDetailService.class);
+
+    private final ChallengeRepository challengeRepository;
+    private final ExerciseRecordRepository exerciseRecordRepository;
+    private final RoutineRepository routineRepository;
+    private final RoutineCheckRepository routineCheckRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final long timeoutNanos;
+    // 동시에 조회를 나눠 실행하는 계산 수 (계산 하나당 커넥션 최대 2개)
+    private final Semaphore parallelLoads;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // 계산된 상세: 계산한 날짜 (챌린지 상태가 오늘 기준이므로) 와 계산 시각 포함
+    private record CachedDetail(SharedChallengeDetailResponse response, Long ownerId,
+                                LocalDate startDate, LocalDate endDate, LocalDate day, long createdAtNanos) {
+    }
+
+    private final int maxEntries;
+    private final LinkedHashMap<Long, CachedDetail> entries = new LinkedHashMap<>(64, 0.75f, true);
+    // 소유자 → 캐시에 있는 그 사용자의 챌린지 id
+    private final Map<Long, Set<Long>> challengesByOwner = new HashMap<>();
+    // 계산하는 동안 무효화가 있었는지 확인용 (있었으면 결과를 보관하지 않음)
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder hitAgeNanos = new LongAdder();
+    private final LongAccumulator maxHitAgeNanos = new LongAccumulator(Math::max, 0L);
+
+    public SharedChallengeDetailService(
+            ChallengeRepository challengeRepository,
+            ExerciseRecordRepository exerciseRecordRepository,
+            RoutineRepository routineRepository,
+            RoutineCheckRepository routineCheckRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${challenge.shared-detail.timeout-ms:3000}") long timeoutMs,
+            @Value("${challenge.shared-detail.max-parallel-loads:4}") int maxParallelLoads,
+            @Value("${challenge.shared-detail.cache.max-entries:1000}") int maxEntries) {
+        this.challengeRepository = challengeRepository;
+        this.exerciseRecordRepository = exerciseRecordRepository;
+        this.routineRepository = routineRepository;
+        this.routineCheckRepository = routineCheckRepository;
+        this.transactionManager = transactionManager;
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        this.parallelLoads = new Semaphore(maxParallelLoads);
+        this.maxEntries = maxEntries;
+    }
+
+    // 권한 확인이 끝난 공유 기준 (챌린지가 없으면 empty)
+    public Optional<SharedChallengeDetailResponse> load(ChallengeShare share) throws TimeoutException, InterruptedException {
+        Long ownerId = share.getFromUserId();
+        Long challengeId = share.getChallengeId() != null ? share.getChallengeId() : 0L;
+        LocalDate today = LocalDate.now();
+
+        CachedDetail cached;
+        synchronized (this) {
+            cached = entries.get(challengeId);
+        }
+        if (cached != null && cached.day().equals(today) && cached.ownerId().equals(ownerId)) {
+            long age = System.nanoTime() - cached.createdAtNanos();
+            hits.increment();
+            hitAgeNanos.add(age);
+            maxHitAgeNanos.accumulate(age);
+            return Optional.of(cached.response());
+        }
+        misses.increment();
+
+        long startGeneration = generation.get();
+        Optional<SharedChallengeDetailResponse> computed = compute(ownerId, challengeId, today);
+        if (computed.isPresent()) {
+            ChallengeResponse challenge = computed.get().getChallenge();
+            store(challengeId, new CachedDetail(computed.get(), ownerId,
+                    challenge.getStartDate(), challenge.getEndDate(), today, System.nanoTime()), startGeneration);
+        }
+        return computed;
+    }
+
+    // 소유자의 기록/루틴 체크가 바뀐 날짜 구간과 겹치는 챌린지 제거 (쓰기 커밋 이후 호출)
+    public void invalidateOverlapping(Long ownerId, LocalDate startDate, LocalDate endDate) {
+        generation.incrementAndGet();
+        synchronized (this) {
+            Set<Long> challengeIds = challengesByOwner.get(ownerId);
+            if (challengeIds == null) {
+                return;
+            }
+            for (Long challengeId : List.copyOf(challengeIds)) {
+                CachedDetail cached = entries.get(challengeId);
+                if (cached != null && !cached.startDate().isAfter(endDate) && !cached.endDate().isBefore(startDate)) {
+                    remove(challengeId);
+                    invalidations.increment();
+                }
+            }
+        }
+    }
+
+    // 루틴 항목이 바뀌면 소유자의 모든 챌린지가 영향을 받음
+    public void invalidateOwner(Long ownerId) {
+        generation.incrementAndGet();
+        synchronized (this) {
+            Set<Long> challengeIds = challengesByOwner.get(ownerId);
+            if (challengeIds == null) {
+                return;
+            }
+            for (Long challengeId : List.copyOf(challengeIds)) {
+                remove(challengeId);
+                invalidations.increment();
+            }
+        }
+    }
+
+    // 챌린지 목표가 바뀌었을 때
+    public void invalidate(Long challengeId) {
+        generation.incrementAndGet();
+        synchronized (this) {
+            if (remove(challengeId) != null) {
+                invalidations.increment();
+            }
+        }
+    }
+
+    public synchronized SharedDetailCacheStatsResponse stats() {
+        SharedDetailCacheStatsResponse response = new SharedDetailCacheStatsResponse();
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        response.setHits(hitCount);
+        response.setMisses(missCount);
+        response.setInvalidations(invalidations.sum());
+        response.setEvictions(evictions.sum());
+        response.setEntries(entries.size());
+        response.setMaxEntries(maxEntries);
+        response.setHitRate(hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        response.setAverageHitAgeMs(hitCount == 0 ? 0L : TimeUnit.NANOSECONDS.toMillis(hitAgeNanos.sum() / hitCount));
+        response.setMaxHitAgeMs(TimeUnit.NANOSECONDS.toMillis(maxHitAgeNanos.get()));
+        return response;
+    }
+
+    private synchronized void store(Long challengeId, CachedDetail detail, long startGeneration) {
+        // 계산하는 동안 소유자 쓰기가 있었으면 이번 결과는 응답에만 사용
+        if (maxEntries <= 0 || generation.get() != startGeneration) {
+            return;
+        }
+        remove(challengeId);
+        entries.put(challengeId, detail);
+        challengesByOwner.computeIfAbsent(detail.ownerId(), id -> new HashSet<>()).add(challengeId);
+
+        // 개수를 넘으면 가장 오래 조회되지 않은 항목부터 제거
+        Iterator<Map.Entry<Long, CachedDetail>> iterator = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+            Map.Entry<Long, CachedDetail> eldest = iterator.next();
+            iterator.remove();
+            unindex(eldest.getKey(), eldest.getValue());
+            evictions.increment();
+        }
+    }
+
+    private CachedDetail remove(Long challengeId) {
+        CachedDetail removed = entries.remove(challengeId);
+        if (removed != null) {
+            unindex(challengeId, removed);
+        }
+        return removed;
+    }
+
+    private void unindex(Long challengeId, CachedDetail detail) {
+        if (detail == null) {
+            return;
+        }
+        challengesByOwner.computeIfPresent(detail.ownerId(), (id, ids) -> {
+            ids.remove(challengeId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private Optional<SharedChallengeDetailResponse> compute(Long ownerId, Long challengeId, LocalDate today)
+            throws TimeoutException, InterruptedException {
+        long deadline = System.nanoTime() + timeoutNanos;
+
+        // 자리가 없으면 executor 없이 현재 스레드에서 차례로 조회 (커넥션 하나만 사용)
+        boolean parallel = parallelLoads.tryAcquire();
+        ExecutorService executor = parallel ? Executors.newVirtualThreadPerTaskExecutor() : null;
+        try {
+            Future<Optional<ChallengeResponse>> challengeFuture =
+                    submit(executor, deadline, () -> challengeRepository.findResponseById(challengeId, today));
+            // 아침/저녁 루틴은 한 번에 조회 (항목 수만 필요)
+            Future<List<RoutineView>> routinesFuture =
+                    submit(executor, deadline, () -> routineRepository.findViewsByUserId(ownerId));
+
+            ChallengeResponse challenge = await(challengeFuture, deadline).orElse(null);
+            if (challenge == null) {
+                return Optional.empty();
+            }
+            LocalDate startDate = challenge.getStartDate();
+            LocalDate endDate = challenge.getEndDate();
+            Future<List<ExerciseRecordResponse>> recordsFuture = submit(executor, deadline, () ->
+                    exerciseRecordRepository.findResponsesByUserIdAndRecordDateBetween(ownerId, startDate, endDate));
+            Future<List<RoutineCheckView>> checksFuture = submit(executor, deadline, () ->
+                    routineCheckRepository.findViewsByUserIdAndCheckDateBetween(ownerId, startDate, endDate));
+
+            int morningRoutineTotal = 0;
+            int eveningRoutineTotal = 0;
+            for (RoutineView routine : await(routinesFuture, deadline)) {
+                if ("MORNING".equals(routine.getRoutineType())) {
+                    morningRoutineTotal = countItems(routine.getRoutineItems(), "아침루틴");
+                } else if ("EVENING".equals(routine.getRoutineType())) {
+                    eveningRoutineTotal = countItems(routine.getRoutineItems(), "저녁루틴");
+                }
+            }
+
+            // 원래 소유자의 운동 기록을 날짜 인덱스 배열로 펼침
+            ChallengeProgressEngine.DaySeries series =
+                    ChallengeProgressEngine.DaySeries.of(startDate, endDate, await(recordsFuture, deadline));
+
+            // 챌린지 기간 동안의 루틴 체크 (체크 하나당 JSON 한 번만 파싱)
+            for (RoutineCheckView check : await(checksFuture, deadline)) {
+                series.putRoutineChecked(check.getCheckDate(), check.getRoutineType(), countItems(check.getCheckedItems(), null));
+            }
+
+            SharedChallengeDetailResponse response = new SharedChallengeDetailResponse();
+            response.setChallenge(challenge);
+            ChallengeProgressEngine.fillSharedDetail(response, challenge, series, morningRoutineTotal, eveningRoutineTotal);
+            return Optional.of(response);
+        } finally {
+            // 시간 초과/실패 시 아직 실행 중인 조회는 인터럽트로 취소 (DB 쪽 문장은 트랜잭션 제한 시간으로 취소됨)
+            if (executor != null) {
+                executor.shutdownNow();
+                parallelLoads.release();
+            }
+        }
+    }
+
+    // executor 가 없으면 바로 실행하고 결과(또는 예외)를 담은 Future 반환
+    private <T> Future<T> submit(ExecutorService executor, long deadline, Supplier<T> query) {
+        if (executor != null) {
+            return executor.submit(() -> query(deadline, query));
+        }
+        FutureTask<T> task = new FutureTask<>(() -> query(deadline, query));
+        task.run();
+        return task;
+    }
+
+    // 남은 시간을 트랜잭션 제한 시간으로 두고 조회 (스프링이 쿼리마다 jakarta.persistence.query.timeout 힌트로 적용)
+    // 트랜잭션 제한 시간은 초 단위라 남은 시간을 올림
+    private <T> T query(long deadline, Supplier<T> query) throws TimeoutException {
+        long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+        if (remainingMs <= 0) {
+            throw new TimeoutException("공유된 챌린지 상세 조회 시간 초과");
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.setTimeout((int) Math.max(1L, (remainingMs + 999L) / 1000L));
+        try {
+            return transaction.execute(status -> query.get());
+        } catch (QueryTimeoutException | TransactionTimedOutException e) {
+            throw new TimeoutException("공유된 챌린지 상세 조회 시간 초과");
+        }
+    }
+
+    private static <T> T await(Future<T> future, long deadline) throws TimeoutException, InterruptedException {
+        try {
+            return future.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof TimeoutException timeoutException) {
+                throw timeoutException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    // JSON 배열 항목 수 (비어 있거나 파싱 실패 시 0)
+    private int countItems(String itemsJson, String label) {
+        if (itemsJson == null || itemsJson.isEmpty()) {
+            return 0;
+        }
+        try {
+            List<String> items = objectMapper.readValue(itemsJson, new TypeReference<List<String>>() {});
+            return items != null ? items.size() : 0;
+        } catch (Exception e) {
+            if (label != null) {
+                logger.error("{} 파싱 오류", label, e);
+            }
+            return 0;
+        }
+    }
+}
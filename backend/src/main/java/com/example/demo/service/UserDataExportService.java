@@ -0,0 +1,282 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Challenge;
+import com.example.demo.entity.ExerciseRecord;
+import com.example.demo.entity.RoutineCheck;
+import com.example.demo.repository.ChallengeRepository;
+import com.example.demo.repository.ExerciseRecordRepository;
+import com.example.demo.repository.RoutineCheckRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+// 사용자 데이터 내보내기 (읽기 전용 스트림에서 한 행씩 CSV / NDJSON 으로 기록)
+@Service
+public class UserDataExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserDataExportService.class);
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    public enum Dataset {
+        ALL, RECORDS, ROUTINE_CHECKS, CHALLENGES
+    }
+
+    private static final String RECORD_HEADER =
+            "id,recordDate,weight,bodyFatPercentage,muscleMass,exerciseType,exerciseDuration,imageUrl,createdAt,updatedAt";
+    private static final String ROUTINE_CHECK_HEADER =
+            "id,checkDate,routineType,checkedItems,createdAt,updatedAt";
+    private static final String CHALLENGE_HEADER =
+            "id,name,startDate,endDate,targetWeight,targetBodyFatPercentage,targetMuscleMass,targetExerciseDuration,createdAt,updatedAt";
+
+    private final ExerciseRecordRepository exerciseRecordRepository;
+    private final RoutineCheckRepository routineCheckRepository;
+    private final ChallengeRepository challengeRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+
+    public UserDataExportService(
+            ExerciseRecordRepository exerciseRecordRepository,
+            RoutineCheckRepository routineCheckRepository,
+            ChallengeRepository challengeRepository,
+            EntityManager entityManager,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper) {
+        this.exerciseRecordRepository = exerciseRecordRepository;
+        this.routineCheckRepository = routineCheckRepository;
+        this.challengeRepository = challengeRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    // 트랜잭션(= 커넥션)은 실제로 데이터를 쓰는 동안에만 유지
+    public void export(Long userId, Dataset dataset, Format format, OutputStream outputStream) throws IOException {
+        if (format == Format.CSV && dataset == Dataset.ALL) {
+            throw new IllegalArgumentException("CSV 내보내기는 하나의 데이터 종류만 지원합니다.");
+        }
+
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try {
+                    if (format == Format.CSV) {
+                        writeCsv(userId, dataset, outputStream);
+                    } else {
+                        writeNdjson(userId, dataset, outputStream);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        logger.info("✅ 데이터 내보내기 완료 - userId: {}, dataset: {}, format: {}", userId, dataset, format);
+    }
+
+    private void writeCsv(Long userId, Dataset dataset, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        switch (dataset) {
+            case RECORDS -> {
+                writer.write(RECORD_HEADER);
+                writer.write('\n');
+                try (Stream<ExerciseRecord> records = exerciseRecordRepository.streamByUserId(userId)) {
+                    Iterator<ExerciseRecord> iterator = records.iterator();
+                    while (iterator.hasNext()) {
+                        ExerciseRecord r = iterator.next();
+                        writeCsvRow(writer, r.getId(), r.getRecordDate(), r.getWeight(), r.getBodyFatPercentage(),
+                                r.getMuscleMass(), r.getExerciseType(), r.getExerciseDuration(), r.getImageUrl(),
+                                r.getCreatedAt(), r.getUpdatedAt());
+                        entityManager.detach(r);
+                    }
+                }
+            }
+            case ROUTINE_CHECKS -> {
+                writer.write(ROUTINE_CHECK_HEADER);
+                writer.write('\n');
+                try (Stream<RoutineCheck> checks = routineCheckRepository.streamByUserId(userId)) {
+                    Iterator<RoutineCheck> iterator = checks.iterator();
+                    while (iterator.hasNext()) {
+                        RoutineCheck c = iterator.next();
+                        writeCsvRow(writer, c.getId(), c.getCheckDate(), c.getRoutineType(), c.getCheckedItems(),
+                                c.getCreatedAt(), c.getUpdatedAt());
+                        entityManager.detach(c);
+                    }
+                }
+            }
+            case CHALLENGES -> {
+                writer.write(CHALLENGE_HEADER);
+                writer.write('\n');
+                try (Stream<Challenge> challenges = challengeRepository.streamByUserId(userId)) {
+                    Iterator<Challenge> iterator = challenges.iterator();
+                    while (iterator.hasNext()) {
+                        Challenge c = iterator.next();
+                        writeCsvRow(writer, c.getId(), c.getName(), c.getStartDate(), c.getEndDate(),
+                                c.getTargetWeight(), c.getTargetBodyFatPercentage(), c.getTargetMuscleMass(),
+                                c.getTargetExerciseDuration(), c.getCreatedAt(), c.getUpdatedAt());
+                        entityManager.detach(c);
+                    }
+                }
+            }
+            default -> throw new IllegalArgumentException("지원하지 않는 데이터 종류입니다: " + dataset);
+        }
+        writer.flush();
+    }
+
+    private void writeCsvRow(Writer writer, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = values[i];
+            if (value == null) {
+                continue;
+            }
+            String text = value.toString();
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(text.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(text);
+            }
+        }
+        writer.write('\n');
+    }
+
+    private void writeNdjson(Long userId, Dataset dataset, OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+
+            if (dataset == Dataset.ALL || dataset == Dataset.RECORDS) {
+                try (Stream<ExerciseRecord> records = exerciseRecordRepository.streamByUserId(userId)) {
+                    Iterator<ExerciseRecord> iterator = records.iterator();
+                    while (iterator.hasNext()) {
+                        ExerciseRecord r = iterator.next();
+                        generator.writeStartObject();
+                        generator.writeStringField("type", "exerciseRecord");
+                        generator.writeNumberField("id", r.getId());
+                        generator.writeStringField("recordDate", r.getRecordDate().toString());
+                        writeNumber(generator, "weight", r.getWeight());
+                        writeNumber(generator, "bodyFatPercentage", r.getBodyFatPercentage());
+                        writeNumber(generator, "muscleMass", r.getMuscleMass());
+                        generator.writeStringField("exerciseType", r.getExerciseType());
+                        writeNumber(generator, "exerciseDuration", r.getExerciseDuration());
+                        generator.writeStringField("imageUrl", r.getImageUrl());
+                        writeText(generator, "createdAt", r.getCreatedAt());
+                        writeText(generator, "updatedAt", r.getUpdatedAt());
+                        generator.writeEndObject();
+                        generator.writeRaw('\n');
+                        entityManager.detach(r);
+                    }
+                }
+            }
+
+            if (dataset == Dataset.ALL || dataset == Dataset.ROUTINE_CHECKS) {
+                try (Stream<RoutineCheck> checks = routineCheckRepository.streamByUserId(userId)) {
+                    Iterator<RoutineCheck> iterator = checks.iterator();
+                    while (iterator.hasNext()) {
+                        RoutineCheck c = iterator.next();
+                        generator.writeStartObject();
+                        generator.writeStringField("type", "routineCheck");
+                        generator.writeNumberField("id", c.getId());
+                        generator.writeStringField("checkDate", c.getCheckDate().toString());
+                        generator.writeStringField("routineType", c.getRoutineType());
+                        generator.writeArrayFieldStart("checkedItems");
+                        for (String item : parseItems(c.getCheckedItems())) {
+                            generator.writeString(item);
+                        }
+                        generator.writeEndArray();
+                        writeText(generator, "createdAt", c.getCreatedAt());
+                        writeText(generator, "updatedAt", c.getUpdatedAt());
+                        generator.writeEndObject();
+                        generator.writeRaw('\n');
+                        entityManager.detach(c);
+                    }
+                }
+            }
+
+            if (dataset == Dataset.ALL || dataset == Dataset.CHALLENGES) {
+                try (Stream<Challenge> challenges = challengeRepository.streamByUserId(userId)) {
+                    Iterator<Challenge> iterator = challenges.iterator();
+                    while (iterator.hasNext()) {
+                        Challenge c = iterator.next();
+                        generator.writeStartObject();
+                        generator.writeStringField("type", "challenge");
+                        generator.writeNumberField("id", c.getId());
+                        generator.writeStringField("name", c.getName());
+                        generator.writeStringField("startDate", c.getStartDate().toString());
+                        generator.writeStringField("endDate", c.getEndDate().toString());
+                        writeNumber(generator, "targetWeight", c.getTargetWeight());
+                        writeNumber(generator, "targetBodyFatPercentage", c.getTargetBodyFatPercentage());
+                        writeNumber(generator, "targetMuscleMass", c.getTargetMuscleMass());
+                        writeNumber(generator, "targetExerciseDuration", c.getTargetExerciseDuration());
+                        writeText(generator, "createdAt", c.getCreatedAt());
+                        writeText(generator, "updatedAt", c.getUpdatedAt());
+                        generator.writeEndObject();
+                        generator.writeRaw('\n');
+                        entityManager.detach(c);
+                    }
+                }
+            }
+        }
+    }
+
+    private void writeNumber(JsonGenerator generator, String field, Double value) throws IOException {
+        if (value == null) {
+            generator.writeNullField(field);
+        } else {
+            generator.writeNumberField(field, value);
+        }
+    }
+
+    private void writeNumber(JsonGenerator generator, String field, Integer value) throws IOException {
+        if (value == null) {
+            generator.writeNullField(field);
+        } else {
+            generator.writeNumberField(field, value);
+        }
+    }
+
+    private void writeText(JsonGenerator generator, String field, Object value) throws IOException {
+        if (value == null) {
+            generator.writeNullField(field);
+        } else {
+            generator.writeStringField(field, value.toString());
+        }
+    }
+
+    private List<String> parseItems(String json) {
+        if (json == null || json.isEmpty()) {
+            return List.of();
+        }
+        try {
+            return objectMapper.readValue(json, new TypeReference<List<String>>() {});
+        } catch (Exception e) {
+            logger.warn("루틴 체크 항목 파싱 실패: {}", json);
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.demo.service;
+
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 사용자별 데이터 버전 (쓰기마다 증가) - 조건부 GET 의 ETag 계산에 사용해서 DB 조회 없이 304 판단
+@Service
+public class UserDataVersionService {
+
+    // 서버 재시작 시 이전 ETag 가 모두 무효화되도록 기동 시각을 포함
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+    private final ConcurrentHashMap<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    public long current(Long userId) {
+        AtomicLong version = versions.get(userId);
+        return version != null ? version.get() : 0L;
+    }
+
+    // 해당 사용자의 기록/루틴/챌린지/공유 데이터가 바뀌었을 때 호출
+    public void bump(Long userId) {
+        if (userId != null) {
+            versions.computeIfAbsent(userId, id -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    // W/"u{userId}-{bootId}-{version}-{scope...}" 형식의 약한 ETag
+    // 같은 브라우저에서 다른 사용자가 캐시를 재검증하는 경우를 막기 위해 userId 포함
+    public String etag(Long userId, Object... scope) {
+        StringBuilder tag = new StringBuilder("W/\"u")
+                .append(userId).append('-')
+                .append(bootId).append('-')
+                .append(current(userId));
+        for (Object part : scope) {
+            tag.append('-').append(part);
+        }
+        return tag.append('"').toString();
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.UserSearchResponse;
+import com.example.demo.entity.User;
+import com.example.demo.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Stream;
+
+// 사용자 검색용 메모리 인덱스 (username / 이름의 1~3글자 n-gram → 사용자 id 정렬 집합)
+// 기동 시 한 번 적재하고 회원가입 때마다 추가, 검색은 DB 를 거치지 않음
+// 결과는 id 순이고 마지막 id 를 커서로 다음 페이지 조회
+@Service
+public class UserSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserSearchIndex.class);
+    private static final int MAX_GRAM = 3;
+
+    private record Entry(Long id, String username, String name, String usernameKey, String nameKey) {
+    }
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ConcurrentSkipListMap<Long, Entry> entries = new ConcurrentSkipListMap<>();
+    private final Map<String, ConcurrentSkipListSet<Long>> postings = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    public UserSearchIndex(UserRepository userRepository, PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    // 기동 시 전체 사용자 적재 (초기 데이터 생성 이후)
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<Object[]> rows = userRepository.streamSearchFields()) {
+                    rows.forEach(row -> add((Long) row[0], (String) row[1], (String) row[2]));
+                }
+            });
+            ready = true;
+            logger.info("🔎 사용자 검색 인덱스 적재 완료 - users: {}, grams: {}", entries.size(), postings.size());
+        } catch (Exception e) {
+            logger.error("❌ 사용자 검색 인덱스 적재 중 오류 발생", e);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // 회원가입 직후 호출
+    public void add(User user) {
+        add(user.getId(), user.getUsername(), user.getName());
+    }
+
+    // username 또는 이름에 query 가 포함된 사용자 (대소문자 무시), afterId 이후 id 순으로 최대 limit 명
+    public List<UserSearchResponse> search(String query, Long excludeUserId, Long afterId, int limit) {
+        long cursor = afterId != null ? afterId : Long.MIN_VALUE;
+        List<UserSearchResponse> results = new ArrayList<>(Math.min(limit, 64));
+        String key = query == null ? "" : normalize(query);
+
+        // 검색어가 없으면 id 순으로 전체 사용자
+        if (key.isEmpty()) {
+            for (Entry entry : entries.tailMap(cursor, false).values()) {
+                if (results.size() >= limit) {
+                    break;
+                }
+                if (!entry.id().equals(excludeUserId)) {
+                    results.add(toResponse(entry));
+                }
+            }
+            return results;
+        }
+
+        // 검색어의 n-gram 별 id 집합 중 가장 작은 것을 순회하고, 나머지 집합 포함 여부와 실제 부분 문자열을 확인
+        List<NavigableSet<Long>> sets = new ArrayList<>();
+        for (String gram : queryGrams(key)) {
+            NavigableSet<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return results;
+            }
+            sets.add(ids);
+        }
+        sets.sort(Comparator.comparingInt(Set::size));
+        NavigableSet<Long> smallest = sets.get(0);
+        for (Long id : smallest.tailSet(cursor, false)) {
+            if (results.size() >= limit) {
+                break;
+            }
+            if (id.equals(excludeUserId) || !containsAll(sets, id)) {
+                continue;
+            }
+            Entry entry = entries.get(id);
+            if (entry != null && (entry.usernameKey().contains(key) || entry.nameKey().contains(key))) {
+                results.add(toResponse(entry));
+            }
+        }
+        return results;
+    }
+
+    private void add(Long id, String username, String name) {
+        if (id == null) {
+            return;
+        }
+        Entry entry = new Entry(id, username, name, normalize(username), normalize(name));
+        entries.put(id, entry);
+        Set<String> grams = new HashSet<>();
+        collectGrams(entry.usernameKey(), grams);
+        collectGrams(entry.nameKey(), grams);
+        for (String gram : grams) {
+            postings.computeIfAbsent(gram, g -> new ConcurrentSkipListSet<>()).add(id);
+        }
+    }
+
+    private static boolean containsAll(List<NavigableSet<Long>> sets, Long id) {
+        for (int i = 1; i < sets.size(); i++) {
+            if (!sets.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 1~3글자 모든 부분 문자열
+    private static void collectGrams(String value, Set<String> grams) {
+        for (int length = 1; length <= MAX_GRAM; length++) {
+            for (int i = 0; i + length <= value.length(); i++) {
+                grams.add(value.substring(i, i + length));
+            }
+        }
+    }
+
+    // 3글자 이하면 그대로, 길면 겹치지 않게 덮는 3-gram 들 (마지막 조각은 끝에 맞춤)
+    private static List<String> queryGrams(String key) {
+        if (key.length() <= MAX_GRAM) {
+            return List.of(key);
+        }
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + MAX_GRAM <= key.length(); i += MAX_GRAM) {
+            grams.add(key.substring(i, i + MAX_GRAM));
+        }
+        grams.add(key.substring(key.length() - MAX_GRAM));
+        return List.copyOf(grams);
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static UserSearchResponse toResponse(Entry entry) {
+        UserSearchResponse response = new UserSearchResponse();
+        response.setId(entry.id());
+        response.setUsername(entry.username());
+        response.setName(entry.name());
+        return response;
+    }
+}
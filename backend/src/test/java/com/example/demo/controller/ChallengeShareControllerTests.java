@@ -0,0 +1,116 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.ChallengeShareResponse;
+import com.example.demo.entity.Challenge;
+import com.example.demo.entity.ChallengeShare;
+import com.example.demo.entity.User;
+import com.example.demo.repository.ChallengeRepository;
+import com.example.demo.repository.ChallengeShareRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.ChallengeLeaderboardService;
+import com.example.demo.service.ShareEventService;
+import com.example.demo.service.SharedChallengeDetailService;
+import com.example.demo.service.UserDataVersionService;
+import com.example.demo.service.UserSearchIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ChallengeShareControllerTests {
+
+	private static final Long USER_ID = 1L;
+
+	// 실행된 SQL 문 수가 아니라 목(mock) 저장소 메서드 호출 수를 셈 (테스트 의존성에 내장 DB 가 없음)
+	// 공유 수와 관계없이 저장소 호출이 일정한지만 확인하고, 각 호출이 한 번의 쿼리(IN 조회)인지는 저장소 정의에 맡김
+	@Test
+	void sentSharesUseConstantRepositoryCallCount() {
+		assertEquals(repositoryCalls(1), repositoryCalls(50));
+	}
+
+	@Test
+	void sentSharesResolveNamesFromBatchLookups() {
+		ChallengeShareRepository shareRepository = mock(ChallengeShareRepository.class);
+		ChallengeRepository challengeRepository = mock(ChallengeRepository.class);
+		UserRepository userRepository = mock(UserRepository.class);
+		ChallengeShareController controller = controller(shareRepository, challengeRepository, userRepository);
+		stub(shareRepository, challengeRepository, userRepository, 3);
+
+		List<ChallengeShareResponse> responses = controller.getSentShares(USER_ID).getBody();
+
+		assertEquals(3, responses.size());
+		for (int i = 0; i < 3; i++) {
+			assertEquals("user" + USER_ID, responses.get(i).getFromUserName());
+			assertEquals("challenge" + (100L + i), responses.get(i).getChallengeName());
+		}
+		verify(userRepository, times(1)).findAllById(anyIterable());
+		verify(challengeRepository, times(1)).findAllById(anyIterable());
+		verify(userRepository, never()).findById(any());
+		verify(challengeRepository, never()).findById(any());
+	}
+
+	private int repositoryCalls(int shareCount) {
+		ChallengeShareRepository shareRepository = mock(ChallengeShareRepository.class);
+		ChallengeRepository challengeRepository = mock(ChallengeRepository.class);
+		UserRepository userRepository = mock(UserRepository.class);
+		ChallengeShareController controller = controller(shareRepository, challengeRepository, userRepository);
+		stub(shareRepository, challengeRepository, userRepository, shareCount);
+
+		assertEquals(shareCount, controller.getSentShares(USER_ID).getBody().size());
+		return mockingDetails(shareRepository).getInvocations().size()
+				+ mockingDetails(challengeRepository).getInvocations().size()
+				+ mockingDetails(userRepository).getInvocations().size();
+	}
+
+	private void stub(ChallengeShareRepository shareRepository, ChallengeRepository challengeRepository,
+					  UserRepository userRepository, int shareCount) {
+		List<ChallengeShare> shares = new ArrayList<>();
+		List<Challenge> challenges = new ArrayList<>();
+		for (int i = 0; i < shareCount; i++) {
+			ChallengeShare share = new ChallengeShare();
+			share.setId((long) i + 1);
+			share.setFromUserId(USER_ID);
+			share.setToUserId(2L + i);
+			share.setChallengeId(100L + i);
+			share.setStatus("PENDING");
+			shares.add(share);
+
+			Challenge challenge = new Challenge();
+			challenge.setId(100L + i);
+			challenge.setName("challenge" + (100L + i));
+			challenges.add(challenge);
+		}
+		User user = new User();
+		user.setId(USER_ID);
+		user.setUsername("user" + USER_ID);
+
+		when(shareRepository.findByFromUserIdOrderByCreatedAtDesc(USER_ID)).thenReturn(shares);
+		when(challengeRepository.findAllById(anyIterable())).thenReturn(challenges);
+		when(userRepository.findAllById(anyIterable())).thenReturn(List.of(user));
+	}
+
+	private ChallengeShareController controller(ChallengeShareRepository shareRepository,
+												ChallengeRepository challengeRepository,
+												UserRepository userRepository) {
+		return new ChallengeShareController(
+				shareRepository,
+				challengeRepository,
+				userRepository,
+				new UserDataVersionService(),
+				mock(ChallengeLeaderboardService.class),
+				mock(UserSearchIndex.class),
+				mock(SharedChallengeDetailService.class),
+				mock(ShareEventService.class));
+	}
+
+}
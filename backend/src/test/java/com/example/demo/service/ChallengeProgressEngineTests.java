@@ -0,0 +1,236 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ChallengeDetailResponse;
+import com.example.demo.dto.ChallengeResponse;
+import com.example.demo.dto.ExerciseRecordResponse;
+import com.example.demo.dto.SharedChallengeDetailResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// 원시 배열 기반 계산이 예전 ChallengeController 의 챌린지 상세 계산(기록 목록 순회)과 같은 결과를 내는지 확인
+class ChallengeProgressEngineTests {
+
+	private static final LocalDate START = LocalDate.of(2024, 3, 1);
+	private static final LocalDate END = LocalDate.of(2024, 3, 10);
+	private static final LocalDate TODAY = LocalDate.of(2024, 3, 7);
+
+	@Test
+	void detailMatchesBaselineComputation() {
+		ChallengeResponse challenge = challenge(70.0, 20.0, 30.0, 100);
+		List<ExerciseRecordResponse> records = List.of(
+				record(START.minusDays(1), 60.0, 10.0, 40.0, 50),   // 기간 이전
+				record(START, 72.0, 21.0, 29.0, 30),
+				record(START.plusDays(1), null, null, null, null),  // 값이 모두 없음
+				record(START.plusDays(2), 69.5, null, null, null),
+				record(START.plusDays(3), null, null, null, 0),      // 운동시간 0 도 기록
+				record(START.plusDays(5), 70.0, 19.0, 31.0, 80),
+				record(TODAY, null, 18.0, null, 40),
+				record(TODAY.plusDays(1), 65.0, 15.0, 35.0, 90));   // 오늘 이후
+
+		assertSameDetail(baselineDetail(challenge, records, TODAY), engineDetail(challenge, records, TODAY));
+	}
+
+	@Test
+	void detailMatchesBaselineWithoutTargetsOrRecords() {
+		ChallengeResponse noTargets = challenge(null, null, null, null);
+		List<ExerciseRecordResponse> records = List.of(record(START, 70.0, 20.0, 30.0, 30));
+		assertSameDetail(baselineDetail(noTargets, records, TODAY), engineDetail(noTargets, records, TODAY));
+
+		ChallengeResponse challenge = challenge(70.0, 20.0, 30.0, 100);
+		assertSameDetail(baselineDetail(challenge, List.of(), TODAY), engineDetail(challenge, List.of(), TODAY));
+	}
+
+	// 값이 없는 날의 NaN / Integer.MIN_VALUE 표시는 응답과 합계에 드러나지 않음
+	@Test
+	void missingValueSentinelsDoNotLeak() {
+		ChallengeResponse challenge = challenge(70.0, 20.0, 30.0, 10);
+		List<ExerciseRecordResponse> records = List.of(
+				record(START, 69.0, null, null, null),
+				record(START.plusDays(1), null, null, 31.0, null));
+
+		ChallengeDetailResponse detail = engineDetail(challenge, records, TODAY);
+
+		ChallengeDetailResponse.DailyProgress first = detail.getDailyProgress().get(0);
+		assertNull(first.getBodyFatPercentage());
+		assertNull(first.getMuscleMass());
+		assertNull(first.getExerciseDuration());
+		assertFalse(first.isBodyFatSuccess());
+		assertFalse(first.isExerciseDurationSuccess());
+		assertEquals(2, detail.getOverallProgress().getTotalDays());
+		assertEquals(0, detail.getOverallProgress().getExerciseDurationRecordedDays());
+		assertEquals(0.0, detail.getOverallProgress().getExerciseDurationSuccessRate());
+
+		ChallengeProgressEngine.Summary summary = ChallengeProgressEngine.summarize(
+				ChallengeProgressEngine.DaySeries.of(START, END, records), TODAY);
+		assertEquals(0, summary.totalExerciseDuration());
+		assertEquals(START.plusDays(1), summary.lastRecordDate());
+		assertNull(summary.lastWeight());
+		assertEquals(31.0, summary.lastMuscleMass());
+	}
+
+	@Test
+	void sharedDetailCountsOnlyRecordedMetrics() {
+		ChallengeResponse challenge = challenge(70.0, null, 30.0, 30);
+		ChallengeProgressEngine.DaySeries series = ChallengeProgressEngine.DaySeries.of(START, START.plusDays(2), List.of(
+				record(START, 69.0, 20.0, null, 30),
+				record(START.plusDays(2), 71.0, null, null, null)));
+
+		SharedChallengeDetailResponse response = new SharedChallengeDetailResponse();
+		ChallengeProgressEngine.fillSharedDetail(response, challenge, series, 0, 0);
+
+		assertEquals(3, response.getOverallProgress().getTotalDays());
+		assertEquals(2, response.getOverallProgress().getWeightRecordedDays());
+		assertEquals(1, response.getOverallProgress().getWeightSuccessCount());
+		assertEquals(0, response.getOverallProgress().getBodyFatRecordedDays());
+		assertEquals(0, response.getOverallProgress().getMuscleMassRecordedDays());
+		assertEquals(1, response.getOverallProgress().getExerciseDurationRecordedDays());
+		assertNull(response.getDailyProgress().get(1).getWeightDiff());
+		assertEquals(2, ChallengeProgressEngine.score(challenge, series));
+	}
+
+	private static ChallengeDetailResponse engineDetail(ChallengeResponse challenge, List<ExerciseRecordResponse> records,
+														LocalDate today) {
+		ChallengeDetailResponse response = new ChallengeDetailResponse();
+		ChallengeProgressEngine.fillDetail(response, challenge,
+				ChallengeProgressEngine.DaySeries.of(challenge.getStartDate(), challenge.getEndDate(), records), today);
+		return response;
+	}
+
+	// 예전 ChallengeController.getChallengeDetail 의 계산을 그대로 옮긴 기준 구현
+	private static ChallengeDetailResponse baselineDetail(ChallengeResponse challenge, List<ExerciseRecordResponse> records,
+														  LocalDate today) {
+		List<ChallengeDetailResponse.DailyProgress> dailyProgress = new ArrayList<>();
+		for (ExerciseRecordResponse record : records) {
+			LocalDate recordDate = record.getRecordDate();
+			if (recordDate.isAfter(today)
+					|| recordDate.isBefore(challenge.getStartDate()) || recordDate.isAfter(challenge.getEndDate())) {
+				continue;
+			}
+			if (record.getWeight() == null && record.getBodyFatPercentage() == null
+					&& record.getMuscleMass() == null && record.getExerciseDuration() == null) {
+				continue;
+			}
+			ChallengeDetailResponse.DailyProgress progress = new ChallengeDetailResponse.DailyProgress();
+			progress.setDate(recordDate);
+			progress.setWeight(record.getWeight());
+			progress.setBodyFatPercentage(record.getBodyFatPercentage());
+			progress.setMuscleMass(record.getMuscleMass());
+			progress.setExerciseDuration(record.getExerciseDuration());
+			progress.setWeightSuccess(checkSuccess(record.getWeight(), challenge.getTargetWeight(), false));
+			progress.setBodyFatSuccess(checkSuccess(record.getBodyFatPercentage(), challenge.getTargetBodyFatPercentage(), false));
+			progress.setMuscleMassSuccess(checkSuccess(record.getMuscleMass(), challenge.getTargetMuscleMass(), true));
+			progress.setExerciseDurationSuccess(checkSuccess(
+					record.getExerciseDuration() != null ? record.getExerciseDuration().doubleValue() : null,
+					challenge.getTargetExerciseDuration() != null ? challenge.getTargetExerciseDuration().doubleValue() : null, true));
+			dailyProgress.add(progress);
+		}
+		dailyProgress.sort((a, b) -> a.getDate().compareTo(b.getDate()));
+
+		ChallengeDetailResponse.OverallProgress overall = new ChallengeDetailResponse.OverallProgress();
+		overall.setTotalDays(dailyProgress.size());
+		ChallengeDetailResponse.DailyProgress lastRecord = dailyProgress.isEmpty() ? null : dailyProgress.get(dailyProgress.size() - 1);
+		int totalExerciseDuration = 0;
+		for (ChallengeDetailResponse.DailyProgress dp : dailyProgress) {
+			if (dp.getExerciseDuration() != null) {
+				totalExerciseDuration += dp.getExerciseDuration();
+			}
+		}
+		if (lastRecord != null) {
+			if (lastRecord.getWeight() != null && challenge.getTargetWeight() != null) {
+				overall.setWeightSuccessRate(lastRecord.getWeight() / challenge.getTargetWeight() * 100);
+				overall.setWeightSuccessCount(lastRecord.getWeight() <= challenge.getTargetWeight() ? 1 : 0);
+			}
+			if (lastRecord.getBodyFatPercentage() != null && challenge.getTargetBodyFatPercentage() != null) {
+				overall.setBodyFatSuccessRate(lastRecord.getBodyFatPercentage() / challenge.getTargetBodyFatPercentage() * 100);
+				overall.setBodyFatSuccessCount(lastRecord.getBodyFatPercentage() <= challenge.getTargetBodyFatPercentage() ? 1 : 0);
+			}
+			if (lastRecord.getMuscleMass() != null && challenge.getTargetMuscleMass() != null) {
+				overall.setMuscleMassSuccessRate(lastRecord.getMuscleMass() / challenge.getTargetMuscleMass() * 100);
+				overall.setMuscleMassSuccessCount(lastRecord.getMuscleMass() >= challenge.getTargetMuscleMass() ? 1 : 0);
+			}
+		}
+		if (challenge.getTargetExerciseDuration() != null && challenge.getTargetExerciseDuration() > 0) {
+			overall.setExerciseDurationSuccessRate((double) totalExerciseDuration / challenge.getTargetExerciseDuration() * 100);
+			overall.setExerciseDurationSuccessCount(totalExerciseDuration >= challenge.getTargetExerciseDuration() ? 1 : 0);
+		}
+		overall.setWeightRecordedDays(lastRecord != null && lastRecord.getWeight() != null ? 1 : 0);
+		overall.setBodyFatRecordedDays(lastRecord != null && lastRecord.getBodyFatPercentage() != null ? 1 : 0);
+		overall.setMuscleMassRecordedDays(lastRecord != null && lastRecord.getMuscleMass() != null ? 1 : 0);
+		overall.setExerciseDurationRecordedDays(totalExerciseDuration > 0 ? 1 : 0);
+
+		ChallengeDetailResponse response = new ChallengeDetailResponse();
+		response.setDailyProgress(dailyProgress);
+		response.setOverallProgress(overall);
+		return response;
+	}
+
+	private static boolean checkSuccess(Double actual, Double target, boolean higherIsBetter) {
+		if (actual == null || target == null) {
+			return false;
+		}
+		return higherIsBetter ? actual >= target : actual <= target;
+	}
+
+	private static void assertSameDetail(ChallengeDetailResponse expected, ChallengeDetailResponse actual) {
+		assertEquals(expected.getDailyProgress().size(), actual.getDailyProgress().size());
+		for (int i = 0; i < expected.getDailyProgress().size(); i++) {
+			ChallengeDetailResponse.DailyProgress e = expected.getDailyProgress().get(i);
+			ChallengeDetailResponse.DailyProgress a = actual.getDailyProgress().get(i);
+			assertEquals(e.getDate(), a.getDate());
+			assertEquals(e.getWeight(), a.getWeight());
+			assertEquals(e.getBodyFatPercentage(), a.getBodyFatPercentage());
+			assertEquals(e.getMuscleMass(), a.getMuscleMass());
+			assertEquals(e.getExerciseDuration(), a.getExerciseDuration());
+			assertEquals(e.isWeightSuccess(), a.isWeightSuccess());
+			assertEquals(e.isBodyFatSuccess(), a.isBodyFatSuccess());
+			assertEquals(e.isMuscleMassSuccess(), a.isMuscleMassSuccess());
+			assertEquals(e.isExerciseDurationSuccess(), a.isExerciseDurationSuccess());
+		}
+
+		ChallengeDetailResponse.OverallProgress e = expected.getOverallProgress();
+		ChallengeDetailResponse.OverallProgress a = actual.getOverallProgress();
+		assertEquals(e.getTotalDays(), a.getTotalDays());
+		assertEquals(e.getWeightSuccessCount(), a.getWeightSuccessCount());
+		assertEquals(e.getBodyFatSuccessCount(), a.getBodyFatSuccessCount());
+		assertEquals(e.getMuscleMassSuccessCount(), a.getMuscleMassSuccessCount());
+		assertEquals(e.getExerciseDurationSuccessCount(), a.getExerciseDurationSuccessCount());
+		assertEquals(e.getWeightRecordedDays(), a.getWeightRecordedDays());
+		assertEquals(e.getBodyFatRecordedDays(), a.getBodyFatRecordedDays());
+		assertEquals(e.getMuscleMassRecordedDays(), a.getMuscleMassRecordedDays());
+		assertEquals(e.getExerciseDurationRecordedDays(), a.getExerciseDurationRecordedDays());
+		assertEquals(e.getWeightSuccessRate(), a.getWeightSuccessRate());
+		assertEquals(e.getBodyFatSuccessRate(), a.getBodyFatSuccessRate());
+		assertEquals(e.getMuscleMassSuccessRate(), a.getMuscleMassSuccessRate());
+		assertEquals(e.getExerciseDurationSuccessRate(), a.getExerciseDurationSuccessRate());
+	}
+
+	private static ChallengeResponse challenge(Double weight, Double bodyFat, Double muscleMass, Integer duration) {
+		ChallengeResponse challenge = new ChallengeResponse();
+		challenge.setId(1L);
+		challenge.setStartDate(START);
+		challenge.setEndDate(END);
+		challenge.setTargetWeight(weight);
+		challenge.setTargetBodyFatPercentage(bodyFat);
+		challenge.setTargetMuscleMass(muscleMass);
+		challenge.setTargetExerciseDuration(duration);
+		return challenge;
+	}
+
+	private static ExerciseRecordResponse record(LocalDate date, Double weight, Double bodyFat, Double muscleMass,
+												 Integer duration) {
+		ExerciseRecordResponse record = new ExerciseRecordResponse();
+		record.setRecordDate(date);
+		record.setWeight(weight);
+		record.setBodyFatPercentage(bodyFat);
+		record.setMuscleMass(muscleMass);
+		record.setExerciseDuration(duration);
+		return record;
+	}
+}
@@ -0,0 +1,91 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.ExerciseRecordRollup;
+import com.example.demo.repository.ExerciseRecordRepository;
+import com.example.demo.repository.ExerciseRecordRollupRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// 집계 행 잠금 순서와 계산 결과 확인 (실제 동시 실행의 직렬화는 DB 행 잠금이 담당)
+class ExerciseRecordRollupServiceTests {
+
+	private static final Long USER_ID = 1L;
+	// 2024-03-04 은 월요일
+	private static final LocalDate MONDAY = LocalDate.of(2024, 3, 4);
+	private static final LocalDate TUESDAY = MONDAY.plusDays(1);
+
+	@Test
+	void sameWeekWritesEachRecomputeFromBothRows() {
+		ExerciseRecordRepository recordRepository = mock(ExerciseRecordRepository.class);
+		ExerciseRecordRollupRepository rollupRepository = mock(ExerciseRecordRollupRepository.class);
+		ExerciseRecordRollupService service = new ExerciseRecordRollupService(recordRepository, rollupRepository);
+		List<Object[]> stored = new ArrayList<>();
+		when(recordRepository.findRollupRowsLocked(eq(USER_ID), any(), any())).thenAnswer(invocation -> List.copyOf(stored));
+
+		// 첫 번째 저장 (월요일)
+		service.lockForRecordWrite(USER_ID, MONDAY);
+		stored.add(new Object[] {MONDAY, 70.0, 20.0, 30.0, 40});
+		service.onRecordWritten(USER_ID, MONDAY);
+
+		// 두 번째 저장 (같은 주 화요일): 첫 번째 저장이 커밋된 뒤 잠금을 얻으므로 두 행을 모두 읽음
+		service.lockForRecordWrite(USER_ID, TUESDAY);
+		stored.add(new Object[] {TUESDAY, 69.0, null, null, 30});
+		service.onRecordWritten(USER_ID, TUESDAY);
+
+		ArgumentCaptor<ExerciseRecordRollup> captor = ArgumentCaptor.forClass(ExerciseRecordRollup.class);
+		verify(rollupRepository, atLeastOnce()).upsert(captor.capture());
+		ExerciseRecordRollup lastWeek = captor.getAllValues().stream()
+				.filter(rollup -> ExerciseRecordRollupService.WEEK.equals(rollup.getPeriodType()))
+				.reduce((first, second) -> second)
+				.orElseThrow();
+		assertEquals(MONDAY, lastWeek.getPeriodStart());
+		assertEquals(2, lastWeek.getDaysRecorded());
+		assertEquals(70, lastWeek.getTotalExerciseDuration());
+		assertEquals(69.0, lastWeek.getWeightMin());
+		assertEquals(69.0, lastWeek.getWeightLast());
+		assertEquals(20.0, lastWeek.getBodyFatLast());
+	}
+
+	@Test
+	void periodRowIsLockedBeforeRecordsAreRead() {
+		ExerciseRecordRepository recordRepository = mock(ExerciseRecordRepository.class);
+		ExerciseRecordRollupRepository rollupRepository = mock(ExerciseRecordRollupRepository.class);
+		ExerciseRecordRollupService service = new ExerciseRecordRollupService(recordRepository, rollupRepository);
+
+		service.refreshPeriod(USER_ID, ExerciseRecordRollupService.WEEK, MONDAY);
+
+		InOrder order = inOrder(rollupRepository, recordRepository);
+		order.verify(rollupRepository).insertIfAbsent(USER_ID, ExerciseRecordRollupService.WEEK, MONDAY, MONDAY.plusDays(6));
+		order.verify(rollupRepository).lockPeriod(USER_ID, ExerciseRecordRollupService.WEEK, MONDAY);
+		order.verify(recordRepository).findRollupRowsLocked(USER_ID, MONDAY, MONDAY.plusDays(6));
+		// 기록이 없으면 만들어 둔 빈 행 제거
+		order.verify(rollupRepository).deletePeriod(USER_ID, ExerciseRecordRollupService.WEEK, MONDAY);
+	}
+
+	@Test
+	void recordWriteLocksMonthBeforeWeek() {
+		ExerciseRecordRepository recordRepository = mock(ExerciseRecordRepository.class);
+		ExerciseRecordRollupRepository rollupRepository = mock(ExerciseRecordRollupRepository.class);
+		ExerciseRecordRollupService service = new ExerciseRecordRollupService(recordRepository, rollupRepository);
+
+		service.lockForRecordWrite(USER_ID, MONDAY);
+
+		InOrder order = inOrder(rollupRepository);
+		order.verify(rollupRepository).lockPeriod(USER_ID, ExerciseRecordRollupService.MONTH, MONDAY.withDayOfMonth(1));
+		order.verify(rollupRepository).lockPeriod(USER_ID, ExerciseRecordRollupService.WEEK, MONDAY);
+	}
+}
@@ -0,0 +1,51 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// Range 헤더 해석: {start, end} = 부분 전송, {} = 전체 전송, null = 416
+class ImageServingServiceTests {
+
+	private static final long LENGTH = 1000;
+
+	@Test
+	void parsesClosedRange() {
+		assertArrayEquals(new long[] {0, 99}, ImageServingService.parseRange("bytes=0-99", LENGTH));
+		assertArrayEquals(new long[] {10, 10}, ImageServingService.parseRange("bytes= 10 - 10 ", LENGTH));
+		// 끝이 파일 크기를 넘으면 마지막 바이트까지
+		assertArrayEquals(new long[] {900, 999}, ImageServingService.parseRange("bytes=900-5000", LENGTH));
+	}
+
+	@Test
+	void parsesOpenEndedRange() {
+		assertArrayEquals(new long[] {500, 999}, ImageServingService.parseRange("bytes=500-", LENGTH));
+		assertArrayEquals(new long[] {999, 999}, ImageServingService.parseRange("bytes=999-", LENGTH));
+	}
+
+	@Test
+	void parsesSuffixRange() {
+		assertArrayEquals(new long[] {900, 999}, ImageServingService.parseRange("bytes=-100", LENGTH));
+		// 파일보다 긴 suffix 는 전체
+		assertArrayEquals(new long[] {0, 999}, ImageServingService.parseRange("bytes=-5000", LENGTH));
+	}
+
+	@Test
+	void rejectsUnsatisfiableRange() {
+		assertNull(ImageServingService.parseRange("bytes=1000-", LENGTH));
+		assertNull(ImageServingService.parseRange("bytes=1000-1100", LENGTH));
+		assertNull(ImageServingService.parseRange("bytes=50-10", LENGTH));
+		assertNull(ImageServingService.parseRange("bytes=-0", LENGTH));
+		assertNull(ImageServingService.parseRange("bytes=0-", 0));
+	}
+
+	// 지원하지 않는 형식은 무시하고 전체 전송
+	@Test
+	void ignoresUnsupportedRange() {
+		assertArrayEquals(new long[0], ImageServingService.parseRange("bytes=0-1,5-6", LENGTH));
+		assertArrayEquals(new long[0], ImageServingService.parseRange("items=0-1", LENGTH));
+		assertArrayEquals(new long[0], ImageServingService.parseRange("bytes=abc", LENGTH));
+		assertArrayEquals(new long[0], ImageServingService.parseRange("bytes=a-b", LENGTH));
+	}
+}
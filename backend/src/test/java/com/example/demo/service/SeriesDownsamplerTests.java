@@ -0,0 +1,77 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SeriesDownsamplerTests {
+
+	@Test
+	void keepsAllPointsWhenThresholdIsNotSmaller() {
+		double[] x = {0, 1, 2, 3};
+		double[] y = {5, 6, 7, 8};
+
+		assertArrayEquals(new int[] {0, 1, 2, 3}, SeriesDownsampler.lttb(x, y, 4, 4));
+		assertArrayEquals(new int[] {0, 1, 2, 3}, SeriesDownsampler.lttb(x, y, 4, 10));
+		// 3개 미만이면 양 끝점만으로 모양을 유지할 수 없으므로 그대로
+		assertArrayEquals(new int[] {0, 1, 2, 3}, SeriesDownsampler.lttb(x, y, 4, 2));
+	}
+
+	// 배열이 length 보다 길어도 앞쪽 length 개만 사용
+	@Test
+	void usesOnlyLeadingPoints() {
+		double[] x = {0, 1, 2, 3, 4, 5, 6, 7};
+		double[] y = {0, 0, 9, 0, 0, 0, 100, 100};
+
+		int[] sampled = SeriesDownsampler.lttb(x, y, 5, 3);
+
+		assertArrayEquals(new int[] {0, 2, 4}, sampled);
+	}
+
+	// 첫 점과 마지막 점은 항상 포함, 가운데 점은 각자의 버킷 안에서 하나씩 증가하는 순서로 선택
+	@Test
+	void keepsEndpointsAndOnePointPerBucket() {
+		int length = 103;
+		int threshold = 12;
+		double[] x = new double[length];
+		double[] y = new double[length];
+		for (int i = 0; i < length; i++) {
+			x[i] = i;
+			y[i] = Math.sin(i / 5.0) * 10 + (i % 7);
+		}
+
+		int[] sampled = SeriesDownsampler.lttb(x, y, length, threshold);
+
+		assertEquals(threshold, sampled.length);
+		assertEquals(0, sampled[0]);
+		assertEquals(length - 1, sampled[threshold - 1]);
+		double every = (double) (length - 2) / (threshold - 2);
+		for (int i = 1; i < threshold - 1; i++) {
+			int bucketStart = (int) Math.floor((i - 1) * every) + 1;
+			int bucketEnd = (int) Math.floor(i * every) + 1;
+			assertTrue(sampled[i] >= bucketStart && sampled[i] < bucketEnd,
+					"bucket " + i + " -> " + sampled[i] + " not in [" + bucketStart + ", " + bucketEnd + ")");
+			assertTrue(sampled[i] > sampled[i - 1]);
+		}
+	}
+
+	// 평평한 구간의 튀는 값은 삼각형 넓이가 가장 커서 선택됨
+	@Test
+	void picksSpikeInsideBucket() {
+		int length = 21;
+		double[] x = new double[length];
+		double[] y = new double[length];
+		for (int i = 0; i < length; i++) {
+			x[i] = i;
+		}
+		y[7] = 50;
+
+		int[] sampled = SeriesDownsampler.lttb(x, y, length, 4);
+
+		// every = 19 / 2 = 9.5 → 첫 버킷 [1, 10), 두 번째 버킷 [10, 20)
+		assertEquals(7, sampled[1]);
+		assertTrue(sampled[2] >= 10 && sampled[2] < 20);
+	}
+}
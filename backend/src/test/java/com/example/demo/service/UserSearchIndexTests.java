@@ -0,0 +1,81 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.UserSearchResponse;
+import com.example.demo.entity.User;
+import com.example.demo.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+// 1~3글자 n-gram 조회와 긴 검색어(겹치지 않는 3-gram + 부분 문자열 확인), 한글 이름 검색
+class UserSearchIndexTests {
+
+	private UserSearchIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new UserSearchIndex(mock(UserRepository.class), mock(PlatformTransactionManager.class));
+		index.add(user(1L, "kimchulsoo", "김철수"));
+		index.add(user(2L, "LeeYoungHee", "이영희"));
+		index.add(user(3L, "chulwoo", "박철우"));
+		index.add(user(4L, "abcxbcd", "홍길동"));
+		index.add(user(5L, "park", "남궁민수"));
+	}
+
+	@Test
+	void matchesOneToThreeCharacterQueries() {
+		assertEquals(List.of(1L, 3L, 4L), ids(index.search("c", null, null, 10)));
+		assertEquals(List.of(1L, 3L), ids(index.search("ch", null, null, 10)));
+		assertEquals(List.of(1L, 3L), ids(index.search("chu", null, null, 10)));
+		assertEquals(List.of(2L), ids(index.search("y", null, null, 10)));
+	}
+
+	@Test
+	void matchesLongerQueriesAsSubstrings() {
+		assertEquals(List.of(1L, 3L), ids(index.search("chul", null, null, 10)));
+		assertEquals(List.of(1L), ids(index.search("kimchulsoo", null, null, 10)));
+		// abc, bcd 3-gram 은 모두 있지만 "abcd" 는 포함하지 않음
+		assertEquals(List.of(), ids(index.search("abcd", null, null, 10)));
+	}
+
+	@Test
+	void ignoresCaseAndSurroundingSpaces() {
+		assertEquals(List.of(2L), ids(index.search("  YOUNG ", null, null, 10)));
+		assertEquals(List.of(2L), ids(index.search("leeyounghee", null, null, 10)));
+	}
+
+	@Test
+	void matchesKoreanNames() {
+		assertEquals(List.of(1L, 3L), ids(index.search("철", null, null, 10)));
+		assertEquals(List.of(1L), ids(index.search("철수", null, null, 10)));
+		assertEquals(List.of(4L), ids(index.search("홍길동", null, null, 10)));
+		assertEquals(List.of(5L), ids(index.search("남궁민수", null, null, 10)));
+		assertEquals(List.of(5L), ids(index.search("궁민", null, null, 10)));
+		assertEquals(List.of(), ids(index.search("김영", null, null, 10)));
+	}
+
+	@Test
+	void pagesByIdAndExcludesCurrentUser() {
+		assertEquals(List.of(3L), ids(index.search("철", 1L, null, 10)));
+		assertEquals(List.of(3L), ids(index.search("철", null, 1L, 10)));
+		assertEquals(List.of(1L), ids(index.search("철", null, null, 1)));
+		assertEquals(List.of(), ids(index.search("없는사람", null, null, 10)));
+	}
+
+	private static List<Long> ids(List<UserSearchResponse> responses) {
+		return responses.stream().map(UserSearchResponse::getId).toList();
+	}
+
+	private static User user(Long id, String username, String name) {
+		User user = new User();
+		user.setId(id);
+		user.setUsername(username);
+		user.setName(name);
+		return user;
+	}
+}
@@ -1,6 +1,6 @@
-import React, { useState, useEffect } from 'react';
+import React, { useState, useEffect, useRef } from 'react';
 import './ShareList.css';
-import { getReceivedShares, getSentShares, getAcceptedShares, updateShareStatus } from './shareApi';
+import { getReceivedShares, getSentShares, getAcceptedShares, updateShareStatus, subscribeShareEvents } from './shareApi';
 
 function ShareList({ onCreateShare, onViewSharedDetail }) {
   const [activeTab, setActiveTab] = useState('received'); // 'received', 'sent', 'accepted'
@@ -8,21 +8,30 @@ function ShareList({ onCreateShare, onViewSharedDetail }) {
   const [sentShares, setSentShares] = useState([]);
   const [acceptedShares, setAcceptedShares] = useState([]);
   const [loading, setLoading] = useState(false);
+  // 이벤트 구독은 한 번만 하므로 현재 탭은 ref 로 읽음
+  const activeTabRef = useRef(activeTab);
+  activeTabRef.current = activeTab;
 
   useEffect(() => {
     loadShares();
   }, [activeTab]);
 
-  const loadShares = async () => {
+  // 탭을 바꿔도 연결을 유지 (재연결 시 브라우저가 Last-Event-ID 로 놓친 이벤트를 받음)
+  useEffect(() => {
+    // 공유 요청이 생기거나 상태가 바뀌면 현재 탭 목록만 다시 조회
+    return subscribeShareEvents(() => loadShares(activeTabRef.current));
+  }, []);
+
+  const loadShares = async (tab = activeTab) => {
     setLoading(true);
     try {
-      if (activeTab === 'received') {
+      if (tab === 'received') {
         const data = await getReceivedShares();
         setReceivedShares(data);
-      } else if (activeTab === 'sent') {
+      } else if (tab === 'sent') {
         const data = await getSentShares();
         setSentShares(data);
-      } else if (activeTab === 'accepted') {
+      } else if (tab === 'accepted') {
         const data = await getAcceptedShares();
         setAcceptedShares(data);
       }
@@ -227,3 +227,18 @@ export async function getSharedUsersByChallenge(challengeId) {
 }
 
 
+
+/**
+ * 공유 요청 생성/상태 변경 실시간 구독 (SSE)
+ * 브라우저가 끊기면 Last-Event-ID 로 자동 재연결, 반환된 함수로 구독 해제
+ */
+export function subscribeShareEvents(onChange) {
+  const user = JSON.parse(localStorage.getItem('user') || '{}');
+  const userId = user.id || 1;
+
+  const source = new EventSource(`${API_BASE_URL}/challenge-shares/events?userId=${userId}`);
+  ['share-created', 'share-status', 'resync'].forEach(type => {
+    source.addEventListener(type, () => onChange(type));
+  });
+  return () => source.close();
+}